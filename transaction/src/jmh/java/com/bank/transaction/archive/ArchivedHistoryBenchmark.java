@@ -0,0 +1,158 @@
+package com.bank.transaction.archive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.transaction.entities.Transaction;
+
+/**
+ * Two years of history for 10,000 accounts (two million rows) in in-memory
+ * H2, either all in the table or with everything but the last three months
+ * moved to segments by {@link TransactionArchiver}. Measures the latest-ten
+ * read, a single insert, and a page from a year ago; table and archive sizes
+ * are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArchivedHistoryBenchmark {
+
+	private static final int ROWS = 2_000_000;
+	private static final int ACCOUNTS = 10_000;
+	// Result reuse is off so every invocation really runs its query
+	private static final String URL_OPTIONS = ";MODE=MySQL;OPTIMIZE_REUSE_RESULTS=FALSE";
+
+	@Param({ "false", "true" })
+	public boolean archived;
+
+	private Path directory;
+	private TransactionArchive archive;
+	private Connection connection;
+	private PreparedStatement latest;
+	private PreparedStatement page;
+	private PreparedStatement insert;
+	private LocalDateTime boundary;
+	private LocalDateTime yearAgo;
+	private final AtomicLong ids = new AtomicLong(ROWS);
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException, IOException {
+		directory = Files.createTempDirectory("archive-benchmark");
+		// A file database, so the table's size on disk can be reported
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:file:" + directory.resolve("db") + URL_OPTIONS);
+		dataSource.setUser("sa");
+		Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+		connection = dataSource.getConnection();
+		try (Statement statement = connection.createStatement()) {
+			// One row every ~32 seconds going back two years, round-robin over the accounts
+			statement.execute("INSERT INTO transaction (id, account_id, amount, balance_after_transaction, timestamp, type)"
+					+ " SELECT x, MOD(x, " + ACCOUNTS + ") + 1, MOD(x, 100) + 1, x,"
+					+ " DATEADD('SECOND', -x * 32, CURRENT_TIMESTAMP), MOD(x, 2) FROM SYSTEM_RANGE(1, " + ROWS + ")");
+		}
+		archive = new TransactionArchive(directory.resolve("segments").toString());
+		if (archived) {
+			new TransactionArchiver(archive, dataSource, false, 3, 0, 5_000, 3_600_000, false).archiveDue();
+		}
+		boundary = archive.archivedBefore() != null ? archive.archivedBefore() : LocalDateTime.of(1970, 1, 1, 0, 0);
+		yearAgo = LocalDateTime.now().minusYears(1);
+
+		latest = connection.prepareStatement("SELECT * FROM transaction WHERE account_id = ? AND timestamp >= ?"
+				+ " ORDER BY timestamp DESC, id DESC LIMIT 10");
+		page = connection.prepareStatement("SELECT * FROM transaction WHERE account_id = ? AND timestamp >= ?"
+				+ " AND timestamp < ? ORDER BY timestamp DESC, id DESC LIMIT 20");
+		insert = connection.prepareStatement("INSERT INTO transaction"
+				+ " (id, account_id, amount, balance_after_transaction, timestamp, type) VALUES (?, ?, 10, 10, ?, 0)");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException, IOException {
+		try (Statement statement = connection.createStatement();
+				ResultSet rows = statement.executeQuery("SELECT COUNT(*), DISK_SPACE_USED('TRANSACTION') FROM transaction")) {
+			rows.next();
+			System.out.printf("%narchived=%s: %d rows in the table using %d bytes with its indexes,"
+					+ " %d months in %d archive bytes%n", archived, rows.getLong(1), rows.getLong(2),
+					archive.segmentCount(), archive.archivedBytes());
+			statement.execute("DROP ALL OBJECTS");
+		}
+		connection.close();
+		archive.close();
+		try (var files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public int latestTen() throws SQLException {
+		latest.setLong(1, randomAccount());
+		latest.setTimestamp(2, Timestamp.valueOf(boundary));
+		return count(latest);
+	}
+
+	@Benchmark
+	public int insert() throws SQLException {
+		insert.setLong(1, ids.incrementAndGet());
+		insert.setLong(2, randomAccount());
+		insert.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+		return insert.executeUpdate();
+	}
+
+	@Benchmark
+	public int yearOldPage() throws SQLException {
+		long account = randomAccount();
+		if (archived) {
+			List<Transaction> rows = archive.findHistory(account, yearAgo.minusMonths(1), yearAgo, null, 20);
+			return rows.size();
+		}
+		page.setLong(1, account);
+		page.setTimestamp(2, Timestamp.valueOf(yearAgo.minusMonths(1)));
+		page.setTimestamp(3, Timestamp.valueOf(yearAgo));
+		return count(page);
+	}
+
+	private static long randomAccount() {
+		return ThreadLocalRandom.current().nextLong(ACCOUNTS) + 1;
+	}
+
+	private static int count(PreparedStatement query) throws SQLException {
+		int rows = 0;
+		try (ResultSet result = query.executeQuery()) {
+			while (result.next()) {
+				rows++;
+			}
+		}
+		return rows;
+	}
+}
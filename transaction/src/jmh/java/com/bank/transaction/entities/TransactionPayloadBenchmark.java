@@ -0,0 +1,159 @@
+package com.bank.transaction.entities;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+/**
+ * Per-request edge costs: JSON (de)serialization of the request and response
+ * payloads, bean validation of the request, and the checks and arithmetic
+ * the service performs on every amount, as BigDecimal and as {@link Money}.
+ * The batch pair runs one account's share of a 100-operation batch; the edge
+ * conversion is what {@link Money} adds back for each amount and balance
+ * crossing the JSON boundary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionPayloadBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	private ObjectMapper objectMapper;
+	private Validator validator;
+	private byte[] requestJson;
+	private byte[] accountJson;
+	private TransactionRequest request;
+	private TransactionDTO response;
+	private BigDecimal balance;
+	private BigDecimal amount;
+	private Money fixedPointBalance;
+	private Money fixedPointAmount;
+	private BigDecimal[] batchAmounts;
+	private Money[] fixedPointBatchAmounts;
+
+	@Setup
+	public void setUp() {
+		// Matches Spring Boot's defaults: java.time support, ISO dates rather than timestamps
+		objectMapper = JsonMapper.builder()
+				.findAndAddModules()
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+		validator = Validation.buildDefaultValidatorFactory().getValidator();
+		requestJson = "{\"amount\": 125.50}".getBytes(StandardCharsets.UTF_8);
+		accountJson = "{\"id\": 7, \"customerName\": \"Ada\", \"balance\": 9751.04}".getBytes(StandardCharsets.UTF_8);
+		request = new TransactionRequest();
+		request.setAmount(new BigDecimal("125.50"));
+		response = new TransactionDTO();
+		response.setId(42L);
+		response.setAmount(Money.of(new BigDecimal("125.50")));
+		response.setType(TransactionType.DEPOSIT);
+		response.setTimestamp(LocalDateTime.of(2024, 5, 1, 12, 30, 15));
+		response.setBalanceAfterTransaction(Money.of(new BigDecimal("9876.54")));
+		balance = new BigDecimal("9751.04");
+		amount = new BigDecimal("125.50");
+		fixedPointBalance = Money.of(balance);
+		fixedPointAmount = Money.of(amount);
+		batchAmounts = new BigDecimal[BATCH_SIZE];
+		fixedPointBatchAmounts = new Money[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batchAmounts[i] = new BigDecimal((i % 50 + 1) + "." + (10 + i % 90));
+			fixedPointBatchAmounts[i] = Money.of(batchAmounts[i]);
+		}
+	}
+
+	@Benchmark
+	public TransactionRequest deserializeRequest() throws Exception {
+		return objectMapper.readValue(requestJson, TransactionRequest.class);
+	}
+
+	// The account service's reply to every balance read and update
+	@Benchmark
+	public AccountDTO deserializeAccount() throws Exception {
+		return objectMapper.readValue(accountJson, AccountDTO.class);
+	}
+
+	@Benchmark
+	public byte[] serializeResponse() throws Exception {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<TransactionRequest>> validateRequest() {
+		return validator.validate(request);
+	}
+
+	@Benchmark
+	public BigDecimal withdrawalArithmetic() {
+		if (amount.compareTo(BigDecimal.ZERO) <= 0 || balance.compareTo(amount) < 0) {
+			throw new IllegalStateException();
+		}
+		return balance.subtract(amount);
+	}
+
+	@Benchmark
+	public Money withdrawalArithmeticFixedPoint() {
+		if (fixedPointAmount.signum() <= 0 || fixedPointBalance.isLessThan(fixedPointAmount)) {
+			throw new IllegalStateException();
+		}
+		return fixedPointBalance.minus(fixedPointAmount);
+	}
+
+	// Alternating deposits and withdrawals, as applyAccountBatch walks them
+	@Benchmark
+	public BigDecimal batchBalance() {
+		BigDecimal running = balance;
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			BigDecimal operation = batchAmounts[i];
+			if (i % 2 == 0) {
+				running = running.add(operation);
+			} else if (running.compareTo(operation) >= 0) {
+				running = running.subtract(operation);
+			}
+		}
+		return running;
+	}
+
+	@Benchmark
+	public Money batchBalanceFixedPoint() {
+		Money running = fixedPointBalance;
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			Money operation = fixedPointBatchAmounts[i];
+			if (i % 2 == 0) {
+				running = running.plus(operation);
+			} else if (!running.isLessThan(operation)) {
+				running = running.minus(operation);
+			}
+		}
+		return running;
+	}
+
+	@Benchmark
+	public BigDecimal fixedPointEdgeConversion() {
+		return Money.of(amount).toBigDecimal();
+	}
+}
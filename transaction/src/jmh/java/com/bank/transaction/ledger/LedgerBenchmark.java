@@ -0,0 +1,88 @@
+package com.bank.transaction.ledger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.TransactionType;
+
+/**
+ * The ledger on its own, over 10,000 accounts: the latency of a balance
+ * check, and the throughput of eight threads posting deposits and waiting
+ * for each to be durable, with the journal forced to disk or left to the
+ * page cache.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LedgerBenchmark {
+
+	private static final int ACCOUNTS = 10_000;
+	private static final Money AMOUNT = Money.ofMinor(100);
+
+	@Param({ "false", "true" })
+	public boolean fsync;
+
+	private Path directory;
+	private Ledger ledger;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("ledger-benchmark");
+		ledger = new Ledger(true, directory.toString(), 64 << 20, fsync, 0, ACCOUNTS, false);
+		ledger.start();
+		for (long account = 1; account <= ACCOUNTS; account++) {
+			ledger.open(account, Money.ZERO);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		ledger.closeJournal();
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public Money balanceCheck() {
+		return ledger.balance(randomAccount());
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Threads(8)
+	public LedgerPosting durableDeposit() {
+		LedgerPosting posting = ledger.post(randomAccount(), TransactionType.DEPOSIT, AMOUNT);
+		ledger.awaitDurable(posting);
+		return posting;
+	}
+
+	private static long randomAccount() {
+		return ThreadLocalRandom.current().nextInt(ACCOUNTS) + 1;
+	}
+}
@@ -0,0 +1,105 @@
+package com.bank.transaction.repositories;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A one-year summary of an account with a million transactions spread over
+ * about three years, answered from the daily aggregates and by grouping the
+ * raw rows. Runs against in-memory H2 with the service's own migrations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountSummaryQueryBenchmark {
+
+	// Result reuse is off so every invocation really runs its query
+	private static final String URL = "jdbc:h2:mem:summary-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE";
+	private static final int ROWS = 1_000_000;
+	private static final int DAYS = 1_000;
+	private static final LocalDate FROM = LocalDate.of(2023, 1, 1);
+	private static final LocalDate TO = LocalDate.of(2023, 12, 31);
+
+	private Connection connection;
+	private PreparedStatement aggregateQuery;
+	private PreparedStatement scanQuery;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		Flyway.configure().dataSource(URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+		connection = DriverManager.getConnection(URL, "sa", "");
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO transaction (id, account_id, amount, balance_after_transaction, timestamp, type)"
+					+ " SELECT x, 1, MOD(x, 100) + 1, 0,"
+					+ " DATEADD('SECOND', MOD(x, 86400), DATEADD('DAY', MOD(x, " + DAYS + "), TIMESTAMP '2022-06-01 00:00:00')),"
+					+ " MOD(x, 2) FROM SYSTEM_RANGE(1, " + ROWS + ")");
+			statement.execute("INSERT INTO account_daily_activity (account_id, activity_date, type, transaction_count, total_amount)"
+					+ " SELECT account_id, CAST(timestamp AS DATE), type, COUNT(*), SUM(amount) FROM transaction"
+					+ " GROUP BY account_id, CAST(timestamp AS DATE), type");
+		}
+		aggregateQuery = connection.prepareStatement("SELECT type, SUM(transaction_count), SUM(total_amount)"
+				+ " FROM account_daily_activity WHERE account_id = ? AND activity_date >= ? AND activity_date <= ?"
+				+ " GROUP BY type");
+		scanQuery = connection.prepareStatement("SELECT type, COUNT(*), SUM(amount)"
+				+ " FROM transaction WHERE account_id = ? AND timestamp >= ? AND timestamp < ?"
+				+ " GROUP BY type");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP ALL OBJECTS");
+		}
+		connection.close();
+	}
+
+	@Benchmark
+	public BigDecimal fromDailyAggregates() throws SQLException {
+		aggregateQuery.setLong(1, 1L);
+		aggregateQuery.setObject(2, FROM);
+		aggregateQuery.setObject(3, TO);
+		return total(aggregateQuery);
+	}
+
+	@Benchmark
+	public BigDecimal scanningTransactions() throws SQLException {
+		scanQuery.setLong(1, 1L);
+		scanQuery.setObject(2, FROM.atStartOfDay());
+		scanQuery.setObject(3, TO.plusDays(1).atStartOfDay());
+		return total(scanQuery);
+	}
+
+	private static BigDecimal total(PreparedStatement query) throws SQLException {
+		BigDecimal total = BigDecimal.ZERO;
+		try (ResultSet rows = query.executeQuery()) {
+			while (rows.next()) {
+				total = total.add(rows.getBigDecimal(3));
+			}
+		}
+		return total;
+	}
+}
@@ -0,0 +1,63 @@
+package com.bank.transaction.service.impl;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.transaction.entities.TransactionDTO;
+
+/**
+ * Deposit throughput with several threads, either all on one account
+ * (serialized by its lock stripe) or each on its own account. Compare the
+ * distinct case across -t values to see scaling with cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class AccountContentionBenchmark {
+
+	private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+	@Param({ "shared", "distinct" })
+	public String accounts;
+
+	private final AtomicLong nextAccountId = new AtomicLong();
+	private TransactionServiceImpl transactionService;
+
+	@Setup
+	public void setUp() {
+		transactionService = BenchmarkFixtures.transactionService(new BenchmarkFixtures.InMemoryAccountClient(), false);
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadAccount {
+		Long accountId;
+
+		@Setup
+		public void setUp(AccountContentionBenchmark benchmark) {
+			accountId = "shared".equals(benchmark.accounts) ? 1L : benchmark.nextAccountId.incrementAndGet();
+		}
+	}
+
+	@Benchmark
+	public TransactionDTO deposit(ThreadAccount account) {
+		return transactionService.deposit(account.accountId, AMOUNT);
+	}
+}
@@ -0,0 +1,231 @@
+package com.bank.transaction.service.impl;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction.datasource.ReadYourWrites;
+import com.bank.transaction.entities.AccountBalanceAdjustment;
+import com.bank.transaction.entities.AccountDTO;
+import com.bank.transaction.entities.BalanceAdjustmentRequest;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.UpdateBalanceRequest;
+import com.bank.transaction.ledger.Ledger;
+import com.bank.transaction.repositories.IdempotencyRecordRepository;
+import com.bank.transaction.repositories.TransactionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * In-process stand-ins for the account service and the database, so the
+ * benchmarks measure this service's own work on the hot path.
+ */
+final class BenchmarkFixtures {
+
+	static final Money OPENING_BALANCE = Money.of(new BigDecimal("1000000000000.00"));
+
+	private BenchmarkFixtures() {
+	}
+
+	static TransactionServiceImpl transactionService(AccountClient accountClient, boolean deltaUpdates) {
+		return transactionService(accountClient, deltaUpdates, new TransactionMetrics(new SimpleMeterRegistry()));
+	}
+
+	static TransactionServiceImpl transactionService(AccountClient accountClient, boolean deltaUpdates,
+			TransactionMetrics transactionMetrics) {
+		// Only the collaborators the deposit, withdrawal, transfer and idempotent paths use are real
+		TransactionServiceImpl service = new TransactionServiceImpl(
+				discardingRepository(),
+				accountClient,
+				new AccountLockManager(),
+				new TransactionBatchWriter(null, null, null, null, false, 1, 0),
+				transactionMetrics,
+				null,
+				idempotencyStore(),
+				new ReadYourWrites(false, 0),
+				new AccountActivityRecorder(null, null) {
+					@Override
+					public void record(Iterable<Transaction> transactions) {
+					}
+				},
+				null,
+				null,
+				new Ledger(false, "transaction-ledger", 64 << 20, true, 0, 1, false),
+				new RecentTransactions(false, 1, 1, new SimpleMeterRegistry()),
+				new TransactionTemplate(new NoOpTransactionManager()));
+		service.setDeltaUpdates(deltaUpdates);
+		return service;
+	}
+
+	/** A store whose table never holds anything, so every cache miss runs the operation. */
+	static IdempotencyStore idempotencyStore() {
+		IdempotencyRecordRepository repository = (IdempotencyRecordRepository) Proxy.newProxyInstance(
+				IdempotencyRecordRepository.class.getClassLoader(), new Class<?>[] { IdempotencyRecordRepository.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "findById":
+						return Optional.empty();
+					case "saveAndFlush":
+						return args[0];
+					default:
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+		return new IdempotencyStore(repository, new NoOpTransactionManager(), 100_000, 86_400_000L, 600_000L);
+	}
+
+	/**
+	 * Assigns ids and timestamps like a save would, then drops the rows so
+	 * long runs do not measure heap growth.
+	 */
+	static TransactionRepository discardingRepository() {
+		AtomicLong ids = new AtomicLong();
+		return (TransactionRepository) Proxy.newProxyInstance(TransactionRepository.class.getClassLoader(),
+				new Class<?>[] { TransactionRepository.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "save":
+						return persist((Transaction) args[0], ids);
+					case "saveAll":
+						for (Object transaction : (Iterable<?>) args[0]) {
+							persist((Transaction) transaction, ids);
+						}
+						return args[0];
+					default:
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	private static Transaction persist(Transaction transaction, AtomicLong ids) {
+		transaction.setId(ids.incrementAndGet());
+		transaction.prePersist();
+		return transaction;
+	}
+
+	static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+		}
+	}
+
+	/**
+	 * Runs no real transaction but opens and completes transaction
+	 * synchronization like one, which locks held until completion rely on.
+	 */
+	static final class SynchronizingTransactionManager extends AbstractPlatformTransactionManager {
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+
+	/**
+	 * Balances in a map, every account opening with {@link #OPENING_BALANCE}.
+	 * Each call can be made to take a fixed time, standing in for the round
+	 * trip to the account service.
+	 */
+	static final class InMemoryAccountClient implements AccountClient {
+
+		private final Map<Long, Money> balances = new ConcurrentHashMap<>();
+		private final long latencyNanos;
+
+		InMemoryAccountClient() {
+			this(0);
+		}
+
+		InMemoryAccountClient(long latencyNanos) {
+			this.latencyNanos = latencyNanos;
+		}
+
+		@Override
+		public AccountDTO getAccount(Long id) {
+			roundTrip();
+			return account(id, balances.computeIfAbsent(id, key -> OPENING_BALANCE));
+		}
+
+		@Override
+		public AccountDTO updateBalance(Long id, UpdateBalanceRequest request) {
+			roundTrip();
+			balances.put(id, request.getNewBalance());
+			return account(id, request.getNewBalance());
+		}
+
+		@Override
+		public AccountDTO adjustBalance(Long id, BalanceAdjustmentRequest request) {
+			roundTrip();
+			return apply(id, request.getAmount());
+		}
+
+		// Not atomic across accounts, which no benchmark can observe: the opening balance never runs out
+		@Override
+		public List<AccountDTO> adjustBalances(List<AccountBalanceAdjustment> adjustments) {
+			roundTrip();
+			List<AccountDTO> accounts = new ArrayList<>(adjustments.size());
+			for (AccountBalanceAdjustment adjustment : adjustments) {
+				accounts.add(apply(adjustment.getAccountId(), adjustment.getAmount()));
+			}
+			return accounts;
+		}
+
+		private AccountDTO apply(Long id, Money amount) {
+			return account(id, balances.merge(id, OPENING_BALANCE.plus(amount),
+					(current, ignored) -> current.plus(amount)));
+		}
+
+		private void roundTrip() {
+			if (latencyNanos > 0) {
+				LockSupport.parkNanos(latencyNanos);
+			}
+		}
+
+		@Override
+		public AccountDTO adjustBalance(Long id, String idempotencyKey, BalanceAdjustmentRequest request) {
+			return adjustBalance(id, request);
+		}
+
+		private static AccountDTO account(Long id, Money balance) {
+			AccountDTO account = new AccountDTO();
+			account.setId(id);
+			account.setBalance(balance);
+			return account;
+		}
+	}
+}
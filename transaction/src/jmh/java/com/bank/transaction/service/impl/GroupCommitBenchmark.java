@@ -0,0 +1,96 @@
+package com.bank.transaction.service.impl;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bank.transaction.TransactionServiceApplication;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.service.TransactionService;
+
+/**
+ * Thirty-two request threads making deposits through the application's own
+ * {@link TransactionService}, with an in-memory H2 database behind a Hikari
+ * pool of {@code poolSize} connections. The account service is replaced by
+ * {@link BenchmarkFixtures.InMemoryAccountClient}, so the database stage is
+ * not hidden behind HTTP round trips. Either each row commits on its own
+ * ({@code maxLingerMillis} of -1) or the write-behind writer groups them,
+ * waiting at most {@code maxLingerMillis} for a group of up to 64 to fill.
+ * Throughput and sampled latency together give the trade-off for each window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(32)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+	private static final int ACCOUNTS = 10_000;
+	private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+	@Param({ "-1", "0", "1", "2", "5" })
+	public long maxLingerMillis;
+
+	@Param({ "10" })
+	public int poolSize;
+
+	private ConfigurableApplicationContext context;
+	private TransactionService transactionService;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		AccountClient accountClient = new BenchmarkFixtures.InMemoryAccountClient();
+		context = new SpringApplicationBuilder(TransactionServiceApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.main.banner-mode=off",
+						"logging.level.root=WARN",
+						"spring.datasource.url=jdbc:h2:mem:group-commit;MODE=MySQL;DB_CLOSE_DELAY=-1",
+						"spring.datasource.username=sa",
+						"spring.datasource.password=",
+						"spring.datasource.hikari.maximum-pool-size=" + poolSize,
+						"transaction.write-behind.enabled=" + (maxLingerMillis >= 0),
+						"transaction.write-behind.batch-size=64",
+						"transaction.write-behind.max-linger-ms=" + Math.max(maxLingerMillis, 0))
+				.initializers(applicationContext -> applicationContext.getBeanFactory()
+						.addBeanPostProcessor(new BeanPostProcessor() {
+							@Override
+							public Object postProcessAfterInitialization(Object bean, String beanName) {
+								return bean instanceof ManagedAccountClient ? accountClient : bean;
+							}
+						}))
+				.run();
+		transactionService = context.getBean(TransactionService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public TransactionDTO deposit() {
+		return transactionService.deposit(ThreadLocalRandom.current().nextLong(1, ACCOUNTS + 1), AMOUNT);
+	}
+}
@@ -0,0 +1,67 @@
+package com.bank.transaction.service.impl;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.transaction.entities.TransactionDTO;
+
+/**
+ * Deposits sent with an Idempotency-Key where {@code replayRatio} of the
+ * requests are retries of a key already answered. {@code replay} isolates the
+ * cost of answering a retry from the in-memory store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdempotencyReplayBenchmark {
+
+	private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+	private static final int ANSWERED_KEYS = 10_000;
+
+	@Param({ "0.9", "0.99" })
+	public double replayRatio;
+
+	private TransactionServiceImpl transactionService;
+	private String[] answeredKeys;
+	private long freshKeys;
+
+	@Setup
+	public void setUp() {
+		transactionService = BenchmarkFixtures.transactionService(new BenchmarkFixtures.InMemoryAccountClient(), false);
+		answeredKeys = new String[ANSWERED_KEYS];
+		for (int i = 0; i < ANSWERED_KEYS; i++) {
+			answeredKeys[i] = "answered-" + i;
+			transactionService.deposit(1L, AMOUNT, answeredKeys[i]);
+		}
+	}
+
+	@Benchmark
+	public TransactionDTO mixed() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		if (random.nextDouble() < replayRatio) {
+			return transactionService.deposit(1L, AMOUNT, answeredKeys[random.nextInt(ANSWERED_KEYS)]);
+		}
+		return transactionService.deposit(1L, AMOUNT, "fresh-" + freshKeys++);
+	}
+
+	@Benchmark
+	public TransactionDTO replay() {
+		return transactionService.deposit(1L, AMOUNT, answeredKeys[ThreadLocalRandom.current().nextInt(ANSWERED_KEYS)]);
+	}
+}
@@ -0,0 +1,58 @@
+package com.bank.transaction.service.impl;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.transaction.entities.TransactionDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+/**
+ * Cost of the per-stage timers on a deposit: {@code none} records into a
+ * registry with no backends (a no-op), {@code prometheus} into the histogram
+ * registry the service exposes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+	private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+
+	@Param({ "none", "prometheus" })
+	public String registry;
+
+	private TransactionServiceImpl transactionService;
+
+	@Setup
+	public void setUp() {
+		MeterRegistry meterRegistry = "prometheus".equals(registry)
+				? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+				: new CompositeMeterRegistry();
+		transactionService = BenchmarkFixtures.transactionService(new BenchmarkFixtures.InMemoryAccountClient(), false,
+				new TransactionMetrics(meterRegistry));
+	}
+
+	@Benchmark
+	public TransactionDTO deposit() {
+		return transactionService.deposit(1L, AMOUNT);
+	}
+}
@@ -0,0 +1,167 @@
+package com.bank.transaction.service.impl;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Dashboards polling the latest ten transactions of 100 hot accounts, on
+ * eight threads, over 200,000 rows in in-memory H2. One operation in a
+ * hundred inserts a row for a polled account instead, so the cache has
+ * inserts to merge. Compares {@link RecentTransactions} enabled and disabled;
+ * history queries per poll are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RecentHistoryPollingBenchmark {
+
+	private static final int ROWS = 200_000;
+	private static final int ACCOUNTS = 1_000;
+	private static final int HOT_ACCOUNTS = 100;
+	// Result reuse is off so every poll that reaches the database really runs its query
+	private static final String URL = "jdbc:h2:mem:polling;DB_CLOSE_DELAY=-1;MODE=MySQL;OPTIMIZE_REUSE_RESULTS=FALSE";
+
+	@Param({ "false", "true" })
+	public boolean cached;
+
+	private JdbcDataSource dataSource;
+	private Connection setupConnection;
+	private MeterRegistry meterRegistry;
+	private RecentTransactions recentTransactions;
+	private final AtomicLong ids = new AtomicLong(ROWS);
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		dataSource = new JdbcDataSource();
+		dataSource.setURL(URL);
+		dataSource.setUser("sa");
+		Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+		// Kept open so the in-memory database lives as long as the trial
+		setupConnection = dataSource.getConnection();
+		try (Statement statement = setupConnection.createStatement()) {
+			statement.execute("INSERT INTO transaction (id, account_id, amount, balance_after_transaction, timestamp, type)"
+					+ " SELECT x, MOD(x, " + ACCOUNTS + ") + 1, MOD(x, 100) + 1, x,"
+					+ " DATEADD('SECOND', -x, CURRENT_TIMESTAMP), MOD(x, 2) FROM SYSTEM_RANGE(1, " + ROWS + ")");
+		}
+		meterRegistry = new SimpleMeterRegistry();
+		recentTransactions = new RecentTransactions(cached, 10_000, 600_000, meterRegistry);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		double fromCache = meterRegistry.get("transaction.recent.reads").tag("source", "cache").counter().count();
+		double fromDatabase = meterRegistry.get("transaction.recent.reads").tag("source", "database").counter().count();
+		System.out.printf("%ncached=%s: %.0f polls, %.0f of them queried history%n", cached, fromCache + fromDatabase,
+				fromDatabase);
+		try (Statement statement = setupConnection.createStatement()) {
+			statement.execute("DROP ALL OBJECTS");
+		}
+		setupConnection.close();
+	}
+
+	@State(Scope.Thread)
+	public static class Client {
+
+		private Connection connection;
+		private PreparedStatement latest;
+		private PreparedStatement insert;
+
+		@Setup(Level.Trial)
+		public void connect(RecentHistoryPollingBenchmark benchmark) throws SQLException {
+			connection = benchmark.dataSource.getConnection();
+			latest = connection.prepareStatement("SELECT * FROM transaction WHERE account_id = ?"
+					+ " ORDER BY timestamp DESC, id DESC LIMIT 10");
+			insert = connection.prepareStatement("INSERT INTO transaction"
+					+ " (id, account_id, amount, balance_after_transaction, timestamp, type) VALUES (?, ?, 1000, 1000, ?, 0)");
+		}
+
+		@TearDown(Level.Trial)
+		public void close() throws SQLException {
+			connection.close();
+		}
+
+		private List<Transaction> latestTen(long accountId) {
+			try {
+				latest.setLong(1, accountId);
+				List<Transaction> rows = new ArrayList<>(10);
+				try (ResultSet result = latest.executeQuery()) {
+					while (result.next()) {
+						Transaction row = new Transaction();
+						row.setId(result.getLong("id"));
+						row.setAccountId(result.getLong("account_id"));
+						row.setAmount(Money.ofMinor(result.getLong("amount")));
+						row.setBalanceAfterTransaction(Money.ofMinor(result.getLong("balance_after_transaction")));
+						row.setTimestamp(result.getTimestamp("timestamp").toLocalDateTime());
+						row.setType(TransactionType.values()[result.getInt("type")]);
+						rows.add(row);
+					}
+				}
+				return rows;
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	@Benchmark
+	public Object poll(Client client) throws SQLException {
+		long account = ThreadLocalRandom.current().nextInt(HOT_ACCOUNTS) + 1;
+		if (ThreadLocalRandom.current().nextInt(100) == 0) {
+			return insert(client, account);
+		}
+		return recentTransactions.read(account, () -> client.latestTen(account));
+	}
+
+	// Autocommit: the insert has committed when it returns, so it is merged at once
+	private Transaction insert(Client client, long account) throws SQLException {
+		Transaction row = TransactionServiceImpl.newTransaction(account, Money.of(BigDecimal.TEN),
+				TransactionType.DEPOSIT, Money.of(BigDecimal.TEN));
+		row.setId(ids.incrementAndGet());
+		row.setTimestamp(LocalDateTime.now());
+		client.insert.setLong(1, row.getId());
+		client.insert.setLong(2, account);
+		client.insert.setTimestamp(3, Timestamp.valueOf(row.getTimestamp()));
+		client.insert.executeUpdate();
+		recentTransactions.recordAfterCommit(List.of(row));
+		return row;
+	}
+}
@@ -0,0 +1,66 @@
+package com.bank.transaction.service.impl;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionType;
+
+/**
+ * Single-threaded cost of the service hot path with the account service and
+ * repository replaced by in-memory fixtures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+	private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+
+	@Param({ "false", "true" })
+	public boolean deltaUpdates;
+
+	private TransactionServiceImpl transactionService;
+	private Transaction transaction;
+
+	@Setup
+	public void setUp() {
+		transactionService = BenchmarkFixtures.transactionService(new BenchmarkFixtures.InMemoryAccountClient(),
+				deltaUpdates);
+		transaction = TransactionServiceImpl.newTransaction(1L, Money.of(AMOUNT), TransactionType.DEPOSIT, Money.of(AMOUNT));
+		transaction.setId(1L);
+		transaction.prePersist();
+	}
+
+	@Benchmark
+	public TransactionDTO deposit() {
+		return transactionService.deposit(1L, AMOUNT);
+	}
+
+	@Benchmark
+	public TransactionDTO withdraw() {
+		return transactionService.withdraw(1L, AMOUNT);
+	}
+
+	@Benchmark
+	public TransactionDTO mapToDTO() {
+		return TransactionServiceImpl.mapToDTO(transaction);
+	}
+}
@@ -0,0 +1,82 @@
+package com.bank.transaction.service.impl;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction.entities.TransferDTO;
+
+/**
+ * Random transfers between 10,000 accounts on eight threads, either as one
+ * transfer or as the withdrawal followed by a deposit that clients sent
+ * before. Every account-service call takes {@code latencyMicros}, standing in
+ * for the network round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class TransferBenchmark {
+
+	private static final int ACCOUNTS = 10_000;
+	private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+	@Param({ "false", "true" })
+	public boolean deltaUpdates;
+
+	@Param({ "0", "200" })
+	public long latencyMicros;
+
+	private TransactionServiceImpl transactionService;
+	private TransactionTemplate transactionTemplate;
+
+	@Setup
+	public void setUp() {
+		transactionService = BenchmarkFixtures.transactionService(
+				new BenchmarkFixtures.InMemoryAccountClient(TimeUnit.MICROSECONDS.toNanos(latencyMicros)),
+				deltaUpdates);
+		transactionTemplate = new TransactionTemplate(new BenchmarkFixtures.SynchronizingTransactionManager());
+	}
+
+	@Benchmark
+	public TransferDTO transfer() {
+		long from = randomAccount();
+		long to = otherAccount(from);
+		return transactionTemplate.execute(status -> transactionService.transfer(from, to, AMOUNT));
+	}
+
+	// Two requests, each in its own transaction
+	@Benchmark
+	public void withdrawThenDeposit(Blackhole blackhole) {
+		long from = randomAccount();
+		long to = otherAccount(from);
+		blackhole.consume(transactionTemplate.execute(status -> transactionService.withdraw(from, AMOUNT)));
+		blackhole.consume(transactionTemplate.execute(status -> transactionService.deposit(to, AMOUNT)));
+	}
+
+	private static long randomAccount() {
+		return ThreadLocalRandom.current().nextInt(ACCOUNTS) + 1;
+	}
+
+	private static long otherAccount(long accountId) {
+		return (accountId - 1 + ThreadLocalRandom.current().nextInt(1, ACCOUNTS)) % ACCOUNTS + 1;
+	}
+}
@@ -0,0 +1,189 @@
+package com.bank.transaction.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bank.transaction.entities.Transaction;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The cold tier of transaction history: one {@link TransactionSegment} per
+ * archived month in a local directory.
+ *
+ * <p>Every month before {@link #archivedBefore()} is served from here and
+ * every later one from the database, so a history read never sees the same
+ * row in both tiers even while the archiver is still deleting a month it has
+ * just published.
+ */
+@Component
+public class TransactionArchive {
+
+	private static final Logger log = LoggerFactory.getLogger(TransactionArchive.class);
+	private static final String SUFFIX = ".seg";
+
+	private final Path directory;
+	private final NavigableMap<YearMonth, TransactionSegment> segments = new ConcurrentSkipListMap<>();
+	// Replaced segments stay open until shutdown so reads already holding them can finish
+	private final List<TransactionSegment> retired = new ArrayList<>();
+
+	public TransactionArchive(@Value("${transaction.archive.directory:transaction-archive}") String directory) {
+		this.directory = Paths.get(directory);
+	}
+
+	@PostConstruct
+	void load() throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				if (name.endsWith(SUFFIX + ".tmp")) {
+					// Left behind by an archiver that stopped before publishing; its rows are still in the database
+					Files.delete(file);
+				} else if (name.endsWith(SUFFIX)) {
+					TransactionSegment segment = TransactionSegment.open(file);
+					segments.put(segment.getMonth(), segment);
+				}
+			}
+		}
+		log.info("Loaded {} archived transaction months from {}", segments.size(), directory);
+	}
+
+	@PreDestroy
+	synchronized void close() throws IOException {
+		for (TransactionSegment segment : segments.values()) {
+			segment.close();
+		}
+		for (TransactionSegment segment : retired) {
+			segment.close();
+		}
+	}
+
+	/**
+	 * Start of the first month still served from the database, or
+	 * {@code null} while nothing has been archived.
+	 */
+	public LocalDateTime archivedBefore() {
+		Map.Entry<YearMonth, TransactionSegment> newest = segments.lastEntry();
+		return newest == null ? null : newest.getKey().plusMonths(1).atDay(1).atStartOfDay();
+	}
+
+	/**
+	 * Archived rows of one account with {@code from <= timestamp} and
+	 * positioned before ({@code beforeTimestamp}, {@code beforeId}), newest
+	 * first. A {@code null} {@code beforeId} makes {@code beforeTimestamp} an
+	 * exclusive upper bound on the timestamp alone.
+	 */
+	public List<Transaction> findHistory(Long accountId, LocalDateTime from, LocalDateTime beforeTimestamp,
+			Long beforeId, int limit) {
+		List<Transaction> result = new ArrayList<>();
+		YearMonth newest = YearMonth.from(beforeTimestamp);
+		YearMonth oldest = YearMonth.from(from);
+		for (TransactionSegment segment : segments.headMap(newest, true).descendingMap().values()) {
+			if (segment.getMonth().isBefore(oldest) || result.size() >= limit) {
+				break;
+			}
+			for (Transaction transaction : read(segment, accountId)) {
+				LocalDateTime timestamp = transaction.getTimestamp();
+				if (timestamp.isBefore(from)) {
+					break;
+				}
+				if (isBefore(transaction, beforeTimestamp, beforeId)) {
+					result.add(transaction);
+					if (result.size() >= limit) {
+						break;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Archived rows of one account with {@code from <= timestamp < before},
+	 * oldest first. Segments are opened one at a time as the stream is
+	 * consumed, so at most one month of the account's rows is held at once.
+	 */
+	public Stream<Transaction> streamHistory(Long accountId, LocalDateTime from, LocalDateTime before) {
+		if (!from.isBefore(before)) {
+			return Stream.empty();
+		}
+		return segments.subMap(YearMonth.from(from), true, YearMonth.from(before), true).values().stream()
+				.flatMap(segment -> {
+					List<Transaction> newestFirst = read(segment, accountId);
+					return IntStream.range(0, newestFirst.size())
+							.mapToObj(i -> newestFirst.get(newestFirst.size() - 1 - i));
+				})
+				.filter(transaction -> !transaction.getTimestamp().isBefore(from)
+						&& transaction.getTimestamp().isBefore(before));
+	}
+
+	public int segmentCount() {
+		return segments.size();
+	}
+
+	public long archivedBytes() {
+		long bytes = 0;
+		for (TransactionSegment segment : segments.values()) {
+			try {
+				bytes += segment.sizeBytes();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return bytes;
+	}
+
+	TransactionSegment segment(YearMonth month) {
+		return segments.get(month);
+	}
+
+	Path directory() {
+		return directory;
+	}
+
+	Path segmentPath(YearMonth month) {
+		return directory.resolve("transactions-" + month + SUFFIX);
+	}
+
+	synchronized void publish(TransactionSegment segment) {
+		TransactionSegment replaced = segments.put(segment.getMonth(), segment);
+		if (replaced != null) {
+			retired.add(replaced);
+		}
+	}
+
+	private static List<Transaction> read(TransactionSegment segment, Long accountId) {
+		try {
+			return segment.read(accountId);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static boolean isBefore(Transaction transaction, LocalDateTime beforeTimestamp, Long beforeId) {
+		int order = transaction.getTimestamp().compareTo(beforeTimestamp);
+		return order < 0 || (order == 0 && beforeId != null && transaction.getId() < beforeId);
+	}
+}
@@ -0,0 +1,310 @@
+package com.bank.transaction.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionType;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves months of transactions older than the hot window out of the
+ * database into {@link TransactionArchive} segments, oldest month first.
+ *
+ * <p>For each month the rows are streamed in (account, timestamp, id) order
+ * into a new segment, which is forced to disk, renamed into place and
+ * published; only then are the rows deleted. A crash at any point leaves
+ * every row either in the database, in a published segment, or both, and a
+ * month found in both is merged into a fresh segment on the next pass.
+ *
+ * <p>Only the rows that went into the segment are deleted, by id. A row that
+ * commits into a month after it was read, as write-behind linger or a late
+ * timestamp can cause, stays in the table and is merged into the segment on
+ * the next pass; until then history reads of that month, which go to the
+ * archive, do not see it.
+ *
+ * <p>Segments are written to this instance's local directory while the rows
+ * are deleted from the shared database, so any other instance would lose the
+ * archived months from its history. The archiver therefore requires a single
+ * instance and refuses to start with sharding enabled.
+ */
+@Component
+public class TransactionArchiver {
+
+	private static final Logger log = LoggerFactory.getLogger(TransactionArchiver.class);
+	private static final Comparator<Transaction> NEWEST_FIRST = Comparator.comparing(Transaction::getTimestamp)
+			.thenComparing(Transaction::getId).reversed();
+
+	private final TransactionArchive archive;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionPartitions partitions;
+	private final boolean enabled;
+	private final int hotMonths;
+	private final int partitionsAhead;
+	private final int deleteBatchSize;
+	private final long intervalMillis;
+	private final boolean sharded;
+	private ScheduledExecutorService scheduler;
+
+	public TransactionArchiver(TransactionArchive archive, DataSource dataSource,
+			@Value("${transaction.archive.enabled:false}") boolean enabled,
+			@Value("${transaction.archive.hot-months:3}") int hotMonths,
+			@Value("${transaction.archive.partitions-ahead:2}") int partitionsAhead,
+			@Value("${transaction.archive.delete-batch-size:5000}") int deleteBatchSize,
+			@Value("${transaction.archive.interval-ms:3600000}") long intervalMillis,
+			@Value("${transaction.sharding.enabled:false}") boolean sharded) {
+		if (hotMonths < 1) {
+			throw new IllegalArgumentException("At least the current month must stay in the database");
+		}
+		this.archive = archive;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.partitions = new TransactionPartitions(new JdbcTemplate(dataSource));
+		this.enabled = enabled;
+		this.hotMonths = hotMonths;
+		this.partitionsAhead = partitionsAhead;
+		this.deleteBatchSize = deleteBatchSize;
+		this.intervalMillis = intervalMillis;
+		this.sharded = sharded;
+	}
+
+	@PostConstruct
+	void start() {
+		if (!enabled) {
+			return;
+		}
+		if (sharded) {
+			throw new IllegalStateException(
+					"transaction.archive.enabled=true requires a single instance and cannot run with transaction.sharding.enabled=true");
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "transaction-archiver");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::run, 0, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException {
+		if (scheduler != null) {
+			scheduler.shutdown();
+			scheduler.awaitTermination(5, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Archives every month that has fallen out of the hot window, then brings
+	 * the table's partitions up to date.
+	 *
+	 * @return the number of months archived
+	 */
+	public synchronized int archiveDue() {
+		LocalDateTime cutoff = YearMonth.now().minusMonths(hotMonths - 1).atDay(1).atStartOfDay();
+		int archived = 0;
+		LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM transaction WHERE timestamp < ?",
+				LocalDateTime.class, Timestamp.valueOf(cutoff));
+		if (oldest != null) {
+			for (YearMonth month = YearMonth.from(oldest); month.atDay(1).atStartOfDay().isBefore(cutoff);
+					month = month.plusMonths(1)) {
+				if (archiveMonth(month)) {
+					archived++;
+				}
+			}
+		}
+		partitions.dropBefore(archive.archivedBefore());
+		partitions.createThrough(YearMonth.now().plusMonths(partitionsAhead));
+		return archived;
+	}
+
+	private void run() {
+		try {
+			archiveDue();
+		} catch (RuntimeException e) {
+			log.error("Transaction archiving failed", e);
+		}
+	}
+
+	// Returns false, writing nothing, for a month without rows in the database
+	private boolean archiveMonth(YearMonth month) {
+		LocalDateTime start = month.atDay(1).atStartOfDay();
+		LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+		Path target = archive.segmentPath(month);
+		Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+		TransactionSegment previous = archive.segment(month);
+		if (jdbcTemplate.queryForList("SELECT id FROM transaction WHERE timestamp >= ? AND timestamp < ? LIMIT 1",
+				Long.class, Timestamp.valueOf(start), Timestamp.valueOf(end)).isEmpty()) {
+			return false;
+		}
+		long rows;
+		long[] archivedIds;
+		// MySQL Connector/J only streams a result set row by row with this fetch size; H2 rejects it
+		jdbcTemplate.setFetchSize(partitions.isMySql() ? Integer.MIN_VALUE : 1000);
+		try {
+			Files.createDirectories(archive.directory());
+			try (TransactionSegment.Writer writer = new TransactionSegment.Writer(temporary, month)) {
+				MonthWriter monthWriter = new MonthWriter(writer, previous);
+				jdbcTemplate.query("SELECT id, account_id, amount, balance_after_transaction, timestamp, type"
+						+ " FROM transaction WHERE timestamp >= ? AND timestamp < ?"
+						+ " ORDER BY account_id, timestamp DESC, id DESC",
+						(RowCallbackHandler) resultSet -> monthWriter.add(map(resultSet)),
+						Timestamp.valueOf(start), Timestamp.valueOf(end));
+				monthWriter.finish();
+				writer.finish();
+				rows = writer.getRowCount();
+				archivedIds = monthWriter.archivedIds();
+			}
+			Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			archive.publish(TransactionSegment.open(target));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not archive transactions of " + month, e);
+		}
+
+		// Reads of this month go to the segment from here on, so the rows can be removed at leisure. Rows that
+		// committed after the month was read are not in the segment and must stay
+		Arrays.sort(archivedIds);
+		long total = 0;
+		for (int from = 0; from < archivedIds.length; from += deleteBatchSize) {
+			int to = Math.min(from + deleteBatchSize, archivedIds.length);
+			Object[] arguments = new Object[2 + to - from];
+			arguments[0] = Timestamp.valueOf(start);
+			arguments[1] = Timestamp.valueOf(end);
+			for (int i = from; i < to; i++) {
+				arguments[2 + i - from] = archivedIds[i];
+			}
+			total += jdbcTemplate.update("DELETE FROM transaction WHERE timestamp >= ? AND timestamp < ? AND id IN ("
+					+ String.join(", ", Collections.nCopies(to - from, "?")) + ")", arguments);
+		}
+		log.info("Archived {} transactions of {} to {}, deleted {} rows", rows, month, target, total);
+		return true;
+	}
+
+	private static Transaction map(ResultSet resultSet) throws SQLException {
+		Transaction transaction = new Transaction();
+		transaction.setId(resultSet.getLong("id"));
+		transaction.setAccountId(resultSet.getLong("account_id"));
+		transaction.setAmount(Money.ofMinor(resultSet.getLong("amount")));
+		transaction.setBalanceAfterTransaction(Money.ofMinor(resultSet.getLong("balance_after_transaction")));
+		transaction.setTimestamp(resultSet.getTimestamp("timestamp").toLocalDateTime());
+		transaction.setType(TransactionType.values()[resultSet.getInt("type")]);
+		return transaction;
+	}
+
+	/**
+	 * Groups the streamed rows by account and appends each account to the new
+	 * segment, folding in whatever an earlier segment of the same month held.
+	 */
+	private static final class MonthWriter {
+		private final TransactionSegment.Writer writer;
+		private final TransactionSegment previous;
+		private int previousIndex;
+		private long accountId;
+		private final List<Transaction> rows = new ArrayList<>();
+		// Ids of the rows read from the table, as opposed to those carried over from the previous segment
+		private long[] ids = new long[1024];
+		private int idCount;
+
+		private MonthWriter(TransactionSegment.Writer writer, TransactionSegment previous) {
+			this.writer = writer;
+			this.previous = previous;
+		}
+
+		private void add(Transaction transaction) {
+			if (!rows.isEmpty() && transaction.getAccountId() != accountId) {
+				flush();
+			}
+			accountId = transaction.getAccountId();
+			rows.add(transaction);
+			if (idCount == ids.length) {
+				ids = Arrays.copyOf(ids, idCount * 2);
+			}
+			ids[idCount++] = transaction.getId();
+		}
+
+		private long[] archivedIds() {
+			return Arrays.copyOf(ids, idCount);
+		}
+
+		private void finish() {
+			flush();
+			while (previous != null && previousIndex < previous.accountCount()) {
+				append(previous.accountIdAt(previousIndex), readPrevious(previousIndex++));
+			}
+		}
+
+		private void flush() {
+			if (rows.isEmpty()) {
+				return;
+			}
+			copyPreviousBefore(accountId);
+			if (previous != null && previousIndex < previous.accountCount()
+					&& previous.accountIdAt(previousIndex) == accountId) {
+				Map<Long, Transaction> merged = new LinkedHashMap<>();
+				for (Transaction transaction : readPrevious(previousIndex++)) {
+					merged.put(transaction.getId(), transaction);
+				}
+				for (Transaction transaction : rows) {
+					merged.put(transaction.getId(), transaction);
+				}
+				List<Transaction> all = new ArrayList<>(merged.values());
+				all.sort(NEWEST_FIRST);
+				append(accountId, all);
+			} else {
+				append(accountId, rows);
+			}
+			rows.clear();
+		}
+
+		private void copyPreviousBefore(long limit) {
+			while (previous != null && previousIndex < previous.accountCount()
+					&& previous.accountIdAt(previousIndex) < limit) {
+				append(previous.accountIdAt(previousIndex), readPrevious(previousIndex++));
+			}
+		}
+
+		private List<Transaction> readPrevious(int index) {
+			try {
+				return previous.readAt(index);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private void append(long account, List<Transaction> transactions) {
+			try {
+				writer.append(account, transactions);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
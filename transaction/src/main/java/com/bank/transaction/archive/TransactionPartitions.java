@@ -0,0 +1,103 @@
+package com.bank.transaction.archive;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Keeps the MySQL {@code transaction} table's monthly range partitions in
+ * step with time. Partition {@code pYYYYMM} holds rows before the first day
+ * of the following month; new months are split off the catch-all
+ * {@code p_future} while it is still empty, and partitions wholly below the
+ * archive boundary are dropped once the archiver has emptied them.
+ *
+ * <p>Other databases (H2 in tests) keep an unpartitioned table and every
+ * method here is a no-op.
+ */
+class TransactionPartitions {
+
+	private static final Logger log = LoggerFactory.getLogger(TransactionPartitions.class);
+	private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'p'uuuuMM");
+
+	private final JdbcTemplate jdbcTemplate;
+	private String databaseProduct;
+	private Boolean partitioned;
+
+	TransactionPartitions(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	// Looked up on first use rather than at construction, which may run before the migrations have
+	boolean isPartitioned() {
+		if (partitioned == null) {
+			partitioned = isMySql() && !partitionNames().isEmpty();
+		}
+		return partitioned;
+	}
+
+	boolean isMySql() {
+		if (databaseProduct == null) {
+			databaseProduct = jdbcTemplate.execute(
+					(ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+		}
+		return "MySQL".equals(databaseProduct);
+	}
+
+	/** Splits monthly partitions off {@code p_future} up to and including {@code through}. */
+	void createThrough(YearMonth through) {
+		if (!isPartitioned()) {
+			return;
+		}
+		TreeSet<YearMonth> existing = monthlyPartitions();
+		YearMonth month = existing.isEmpty() ? YearMonth.now() : existing.last().plusMonths(1);
+		for (; !month.isAfter(through); month = month.plusMonths(1)) {
+			jdbcTemplate.execute("ALTER TABLE transaction REORGANIZE PARTITION p_future INTO ("
+					+ "PARTITION " + month.format(NAME) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'),"
+					+ " PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+			log.info("Created transaction partition {}", month.format(NAME));
+		}
+	}
+
+	/** Drops the partitions whose whole range lies before {@code boundary}. */
+	void dropBefore(LocalDateTime boundary) {
+		if (boundary == null || !isPartitioned()) {
+			return;
+		}
+		for (YearMonth month : monthlyPartitions()) {
+			if (month.plusMonths(1).atDay(1).atStartOfDay().isAfter(boundary)) {
+				break;
+			}
+			String name = month.format(NAME);
+			// A row inserted after the archiver's last pass waits for the next one instead of being dropped
+			if (!jdbcTemplate.queryForList("SELECT id FROM transaction PARTITION (" + name + ") LIMIT 1", Long.class)
+					.isEmpty()) {
+				break;
+			}
+			jdbcTemplate.execute("ALTER TABLE transaction DROP PARTITION " + name);
+			log.info("Dropped archived transaction partition {}", name);
+		}
+	}
+
+	private TreeSet<YearMonth> monthlyPartitions() {
+		TreeSet<YearMonth> months = new TreeSet<>();
+		for (String name : partitionNames()) {
+			if (!"p_future".equals(name)) {
+				months.add(YearMonth.parse(name, NAME));
+			}
+		}
+		return months;
+	}
+
+	private List<String> partitionNames() {
+		return jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS"
+				+ " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transaction' AND PARTITION_NAME IS NOT NULL",
+				String.class);
+	}
+}
@@ -0,0 +1,339 @@
+package com.bank.transaction.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionType;
+
+/**
+ * One month of archived transactions in a compact columnar file.
+ *
+ * <p>Each account's rows form one Deflate-compressed block, newest first,
+ * holding the columns one after another: timestamps and ids as zigzag varint
+ * deltas, types as one byte each, amounts and balances as zigzag varints of
+ * their value in minor units. A directory of (account id, offset, length, rows)
+ * sorted by account id follows the blocks, and a fixed-size footer points at
+ * it. Reading one account's history inflates only that account's block.
+ */
+public final class TransactionSegment implements Closeable {
+
+	private static final int MAGIC = 0x54585331; // "TXS1"
+	private static final int FOOTER_BYTES = 4 + 8 + 8 + 4 + 4;
+	private static final int DIRECTORY_ENTRY_BYTES = 8 + 8 + 4 + 4;
+
+	private final Path path;
+	private final FileChannel channel;
+	private final YearMonth month;
+	private final long rowCount;
+	private final long[] accountIds;
+	private final long[] offsets;
+	private final int[] lengths;
+	private final int[] rows;
+
+	private TransactionSegment(Path path, FileChannel channel, YearMonth month, long rowCount, long[] accountIds,
+			long[] offsets, int[] lengths, int[] rows) {
+		this.path = path;
+		this.channel = channel;
+		this.month = month;
+		this.rowCount = rowCount;
+		this.accountIds = accountIds;
+		this.offsets = offsets;
+		this.lengths = lengths;
+		this.rows = rows;
+	}
+
+	public static TransactionSegment open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size < FOOTER_BYTES) {
+				throw new IOException("Truncated transaction segment " + path);
+			}
+			ByteBuffer footer = readFully(channel, size - FOOTER_BYTES, FOOTER_BYTES);
+			int packedMonth = footer.getInt();
+			long rowCount = footer.getLong();
+			long directoryOffset = footer.getLong();
+			int accounts = footer.getInt();
+			if (footer.getInt() != MAGIC) {
+				throw new IOException("Not a transaction segment: " + path);
+			}
+			ByteBuffer directory = readFully(channel, directoryOffset, accounts * DIRECTORY_ENTRY_BYTES);
+			long[] accountIds = new long[accounts];
+			long[] offsets = new long[accounts];
+			int[] lengths = new int[accounts];
+			int[] rows = new int[accounts];
+			for (int i = 0; i < accounts; i++) {
+				accountIds[i] = directory.getLong();
+				offsets[i] = directory.getLong();
+				lengths[i] = directory.getInt();
+				rows[i] = directory.getInt();
+			}
+			YearMonth month = YearMonth.of(packedMonth / 100, packedMonth % 100);
+			return new TransactionSegment(path, channel, month, rowCount, accountIds, offsets, lengths, rows);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public YearMonth getMonth() {
+		return month;
+	}
+
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public long sizeBytes() throws IOException {
+		return channel.size();
+	}
+
+	int accountCount() {
+		return accountIds.length;
+	}
+
+	long accountIdAt(int index) {
+		return accountIds[index];
+	}
+
+	/** The account's rows in this month, newest first; empty if it had none. */
+	public List<Transaction> read(long accountId) throws IOException {
+		int index = Arrays.binarySearch(accountIds, accountId);
+		return index < 0 ? List.of() : readAt(index);
+	}
+
+	List<Transaction> readAt(int index) throws IOException {
+		byte[] compressed = readFully(channel, offsets[index], lengths[index]).array();
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			ByteArrayOutputStream raw = new ByteArrayOutputStream(compressed.length * 4);
+			byte[] chunk = new byte[8192];
+			while (!inflater.finished()) {
+				int n = inflater.inflate(chunk);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IOException("Corrupt block for account " + accountIds[index] + " in " + path);
+				}
+				raw.write(chunk, 0, n);
+			}
+			return decode(accountIds[index], rows[index], ByteBuffer.wrap(raw.toByteArray()));
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt block for account " + accountIds[index] + " in " + path, e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private static List<Transaction> decode(long accountId, int count, ByteBuffer in) {
+		long[] micros = new long[count];
+		long[] ids = new long[count];
+		long previous = 0;
+		for (int i = 0; i < count; i++) {
+			previous += zigzagDecode(readVarLong(in));
+			micros[i] = previous;
+		}
+		previous = 0;
+		for (int i = 0; i < count; i++) {
+			previous += zigzagDecode(readVarLong(in));
+			ids[i] = previous;
+		}
+		TransactionType[] types = TransactionType.values();
+		List<Transaction> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Transaction transaction = new Transaction();
+			transaction.setId(ids[i]);
+			transaction.setAccountId(accountId);
+			transaction.setTimestamp(fromMicros(micros[i]));
+			transaction.setType(types[in.get()]);
+			result.add(transaction);
+		}
+		for (Transaction transaction : result) {
+			transaction.setAmount(Money.ofMinor(zigzagDecode(readVarLong(in))));
+		}
+		for (Transaction transaction : result) {
+			transaction.setBalanceAfterTransaction(Money.ofMinor(zigzagDecode(readVarLong(in))));
+		}
+		return result;
+	}
+
+	private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of transaction segment");
+			}
+		}
+		return buffer.flip();
+	}
+
+	private static long toMicros(LocalDateTime timestamp) {
+		return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+	}
+
+	private static LocalDateTime fromMicros(long micros) {
+		return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+				(int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+	}
+
+	private static long zigzagEncode(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long zigzagDecode(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarLong(ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static long readVarLong(ByteBuffer in) {
+		long value = 0;
+		for (int shift = 0;; shift += 7) {
+			byte b = in.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+	}
+
+	/**
+	 * Writes a segment sequentially. Accounts must be appended in ascending id
+	 * order, each with all of its rows for the month, newest first.
+	 */
+	public static final class Writer implements Closeable {
+
+		private final YearMonth month;
+		private final FileChannel channel;
+		private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		private final ByteArrayOutputStream directory = new ByteArrayOutputStream();
+		private final byte[] chunk = new byte[8192];
+		private long position;
+		private long rowCount;
+		private int accounts;
+		private long lastAccountId = Long.MIN_VALUE;
+
+		public Writer(Path path, YearMonth month) throws IOException {
+			this.month = month;
+			this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+					StandardOpenOption.WRITE);
+		}
+
+		public void append(long accountId, List<Transaction> transactions) throws IOException {
+			if (accounts > 0 && accountId <= lastAccountId) {
+				throw new IllegalArgumentException("Accounts must be appended in ascending order");
+			}
+			if (transactions.isEmpty()) {
+				return;
+			}
+			byte[] block = compress(encode(transactions));
+			write(ByteBuffer.wrap(block));
+
+			ByteBuffer entry = ByteBuffer.allocate(DIRECTORY_ENTRY_BYTES);
+			entry.putLong(accountId).putLong(position).putInt(block.length).putInt(transactions.size());
+			directory.write(entry.array(), 0, DIRECTORY_ENTRY_BYTES);
+			position += block.length;
+			rowCount += transactions.size();
+			accounts++;
+			lastAccountId = accountId;
+		}
+
+		/** Writes the directory and footer and forces the file to disk. */
+		public void finish() throws IOException {
+			long directoryOffset = position;
+			write(ByteBuffer.wrap(directory.toByteArray()));
+			ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+			footer.putInt(month.getYear() * 100 + month.getMonthValue())
+					.putLong(rowCount)
+					.putLong(directoryOffset)
+					.putInt(accounts)
+					.putInt(MAGIC)
+					.flip();
+			write(footer);
+			channel.force(true);
+		}
+
+		public long getRowCount() {
+			return rowCount;
+		}
+
+		@Override
+		public void close() throws IOException {
+			deflater.end();
+			channel.close();
+		}
+
+		private void write(ByteBuffer buffer) throws IOException {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+
+		private byte[] encode(List<Transaction> transactions) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(transactions.size() * 16);
+			long previous = 0;
+			for (Transaction transaction : transactions) {
+				long micros = toMicros(transaction.getTimestamp());
+				writeVarLong(out, zigzagEncode(micros - previous));
+				previous = micros;
+			}
+			previous = 0;
+			for (Transaction transaction : transactions) {
+				writeVarLong(out, zigzagEncode(transaction.getId() - previous));
+				previous = transaction.getId();
+			}
+			for (Transaction transaction : transactions) {
+				out.write(transaction.getType().ordinal());
+			}
+			for (Transaction transaction : transactions) {
+				writeVarLong(out, zigzagEncode(transaction.getAmount().getMinorUnits()));
+			}
+			for (Transaction transaction : transactions) {
+				writeVarLong(out, zigzagEncode(transaction.getBalanceAfterTransaction().getMinorUnits()));
+			}
+			return out.toByteArray();
+		}
+
+		private byte[] compress(byte[] raw) {
+			deflater.reset();
+			deflater.setInput(raw);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+			while (!deflater.finished()) {
+				int n = deflater.deflate(chunk);
+				out.write(chunk, 0, n);
+			}
+			return out.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.bank.transaction.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionRequest;
+import com.bank.transaction.service.ReactiveTransactionService;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Returned publishers are completed asynchronously, so no request thread waits on the account service
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/reactive/transactions")
+public class ReactiveTransactionController {
+	@Autowired
+	private ReactiveTransactionService transactionService;
+
+    @PostMapping("/accounts/{id}/deposit")
+    public Mono<TransactionDTO> deposit(
+            @PathVariable Long id, 
+            @Valid @RequestBody TransactionRequest request) {
+        return transactionService.deposit(id, request.getAmount());
+    }
+
+    @PostMapping("/accounts/{id}/withdraw")
+    public Mono<TransactionDTO> withdraw(
+            @PathVariable Long id, 
+            @Valid @RequestBody TransactionRequest request) {
+        return transactionService.withdraw(id, request.getAmount());
+    }
+
+    @GetMapping("/accounts/{id}")
+    public Flux<TransactionDTO> getTransactions(@PathVariable Long id) {
+        return transactionService.getLastTenTransactions(id);
+    }
+
+}
@@ -1,20 +1,37 @@
 package com.bank.transaction.controllers;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.bank.transaction.entities.AccountSummary;
+import com.bank.transaction.entities.BatchTransactionRequest;
+import com.bank.transaction.entities.BatchTransactionResponse;
+import com.bank.transaction.entities.ExportFormat;
+import com.bank.transaction.entities.SummaryGranularity;
 import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionPage;
 import com.bank.transaction.entities.TransactionRequest;
+import com.bank.transaction.entities.TransferDTO;
+import com.bank.transaction.entities.TransferRequest;
 import com.bank.transaction.service.TransactionService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -26,15 +43,34 @@ public class TransactionController {
     @PostMapping("/accounts/{id}/deposit")
     public ResponseEntity<TransactionDTO> deposit(
             @PathVariable Long id, 
-            @Valid @RequestBody TransactionRequest request) {
-        return ResponseEntity.ok(transactionService.deposit(id, request.getAmount()));
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(transactionService.deposit(id, request.getAmount()));
+        }
+        return ResponseEntity.ok(transactionService.deposit(id, request.getAmount(), idempotencyKey));
     }
 
     @PostMapping("/accounts/{id}/withdraw")
     public ResponseEntity<TransactionDTO> withdraw(
             @PathVariable Long id, 
-            @Valid @RequestBody TransactionRequest request) {
-        return ResponseEntity.ok(transactionService.withdraw(id, request.getAmount()));
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(transactionService.withdraw(id, request.getAmount()));
+        }
+        return ResponseEntity.ok(transactionService.withdraw(id, request.getAmount(), idempotencyKey));
+    }
+
+    @PostMapping("/transfers")
+    public ResponseEntity<TransferDTO> transfer(@Valid @RequestBody TransferRequest request) {
+        return ResponseEntity.ok(transactionService.transfer(request.getFromAccountId(), request.getToAccountId(),
+                request.getAmount()));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTransactionResponse> batch(@Valid @RequestBody BatchTransactionRequest request) {
+        return ResponseEntity.ok(transactionService.processBatch(request.getOperations()));
     }
 
     @GetMapping("/accounts/{id}")
@@ -42,4 +78,39 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.getLastTenTransactions(id));
     }
 
+    @GetMapping("/accounts/{id}/history")
+    public ResponseEntity<TransactionPage> getHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(transactionService.getTransactionHistory(id, from, to, cursor, size));
+    }
+
+    // Written straight to the response as rows are read, so the body is never held in memory
+    @GetMapping("/accounts/{id}/export")
+    public void export(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"account-" + id + "-transactions." + exportFormat.getExtension() + "\"");
+        transactionService.exportTransactions(id, from, to, exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("/accounts/{id}/summary")
+    public ResponseEntity<AccountSummary> getSummary(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") SummaryGranularity granularity) {
+        return ResponseEntity.ok(transactionService.getAccountSummary(id, from, to, granularity));
+    }
+
 }
@@ -0,0 +1,33 @@
+package com.bank.transaction.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that pins read-only work to the primary database, for
+ * reads that must see a write the replicas may not have applied yet.
+ */
+public final class DataSourceRouting {
+
+	private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+	private DataSourceRouting() {
+	}
+
+	public static <T> T onPrimary(Supplier<T> work) {
+		Boolean previous = PRIMARY_FORCED.get();
+		PRIMARY_FORCED.set(Boolean.TRUE);
+		try {
+			return work.get();
+		} finally {
+			if (previous == null) {
+				PRIMARY_FORCED.remove();
+			} else {
+				PRIMARY_FORCED.set(previous);
+			}
+		}
+	}
+
+	static boolean isPrimaryForced() {
+		return PRIMARY_FORCED.get() != null;
+	}
+}
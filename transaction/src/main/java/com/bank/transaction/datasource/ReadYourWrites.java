@@ -0,0 +1,61 @@
+package com.bank.transaction.datasource;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Keeps reads of an account on the primary for a short window after that
+ * account was written, so a client reading its own change right after making
+ * it is not answered by a replica that has not applied it yet. The window
+ * should exceed the replicas' normal lag.
+ */
+@Component
+public class ReadYourWrites {
+
+	private final boolean enabled;
+	private final Cache<Long, Boolean> recentlyWritten;
+
+	public ReadYourWrites(@Value("${transaction.datasource.replicas.enabled:false}") boolean enabled,
+			@Value("${transaction.datasource.read-your-writes-window-ms:2000}") long windowMillis) {
+		this.enabled = enabled;
+		this.recentlyWritten = Caffeine.newBuilder()
+				.expireAfterWrite(Duration.ofMillis(windowMillis))
+				.maximumSize(1_000_000)
+				.build();
+	}
+
+	/**
+	 * Marks the account as written. Inside a transaction the window starts
+	 * when it completes, since that is when replication can begin.
+	 */
+	public void recordWrite(Long accountId) {
+		if (!enabled) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					recentlyWritten.put(accountId, Boolean.TRUE);
+				}
+			});
+		} else {
+			recentlyWritten.put(accountId, Boolean.TRUE);
+		}
+	}
+
+	public <T> T read(Long accountId, Supplier<T> query) {
+		if (enabled && recentlyWritten.getIfPresent(accountId) != null) {
+			return DataSourceRouting.onPrimary(query);
+		}
+		return query.get();
+	}
+}
@@ -0,0 +1,68 @@
+package com.bank.transaction.datasource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool plus one pool
+ * per replica, exposed to JPA, Flyway and everything else as one routing
+ * {@link DataSource}. Flyway and all writes therefore still run against the
+ * primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transaction.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		primary.setPoolName("primary");
+		return primary;
+	}
+
+	@Bean
+	ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+			DataSourceProperties properties,
+			@Value("${transaction.datasource.replica.urls}") String urls,
+			@Value("${transaction.datasource.replica.username:${spring.datasource.username:}}") String username,
+			@Value("${transaction.datasource.replica.password:${spring.datasource.password:}}") String password,
+			@Value("${transaction.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+		List<DataSource> replicas = new ArrayList<>();
+		String[] replicaUrls = Arrays.stream(urls.split(",")).map(String::trim).filter(u -> !u.isEmpty())
+				.toArray(String[]::new);
+		for (int i = 0; i < replicaUrls.length; i++) {
+			HikariDataSource replica = new HikariDataSource();
+			replica.setPoolName("replica-" + i);
+			replica.setJdbcUrl(replicaUrls[i]);
+			replica.setUsername(username);
+			replica.setPassword(password);
+			replica.setDriverClassName(properties.determineDriverClassName());
+			replica.setMaximumPoolSize(maximumPoolSize);
+			replica.setReadOnly(true);
+			replicas.add(replica);
+		}
+		return new ReplicaRoutingDataSource(primary, replicas);
+	}
+
+	@Bean
+	@Primary
+	DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+	}
+}
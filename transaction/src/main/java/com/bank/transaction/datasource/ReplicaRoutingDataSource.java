@@ -0,0 +1,59 @@
+package com.bank.transaction.datasource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to the replicas, round robin,
+ * and everything else to the primary. It must sit behind a
+ * {@code LazyConnectionDataSourceProxy} so the choice is made at the first
+ * statement, once the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+	static final String PRIMARY = "primary";
+	private static final String REPLICA_PREFIX = "replica-";
+
+	private final List<DataSource> replicas;
+	private final AtomicInteger next = new AtomicInteger();
+
+	public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+		if (replicas.isEmpty()) {
+			throw new IllegalArgumentException("Replica routing needs at least one replica");
+		}
+		this.replicas = List.copyOf(replicas);
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++) {
+			targets.put(REPLICA_PREFIX + i, replicas.get(i));
+		}
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || DataSourceRouting.isPrimaryForced()) {
+			return PRIMARY;
+		}
+		return REPLICA_PREFIX + Math.floorMod(next.getAndIncrement(), replicas.size());
+	}
+
+	@Override
+	public void close() throws Exception {
+		for (DataSource replica : replicas) {
+			if (replica instanceof AutoCloseable) {
+				((AutoCloseable) replica).close();
+			}
+		}
+	}
+}
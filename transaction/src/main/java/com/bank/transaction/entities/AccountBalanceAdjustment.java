@@ -0,0 +1,43 @@
+package com.bank.transaction.entities;
+
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One account's share of a multi-account adjustment. The account service
+ * applies every entry of such a request or none of them, rejecting the whole
+ * request with 422 if any debit would overdraw its account.
+ */
+public class AccountBalanceAdjustment {
+
+    @NotNull(message = "Account id is required")
+    private Long accountId;
+
+    @NotNull(message = "Adjustment amount is required")
+    private Money amount;
+
+    public AccountBalanceAdjustment() {
+    }
+
+    public AccountBalanceAdjustment(Long accountId, Money amount) {
+        this.accountId = accountId;
+        this.amount = amount;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+}
@@ -1,6 +1,5 @@
 package com.bank.transaction.entities;
 
-import java.math.BigDecimal;
 
 import lombok.Data;
 
@@ -8,7 +7,7 @@ import lombok.Data;
 public class AccountDTO {
     private Long id;
     private String customerName;
-    private BigDecimal balance;
+    private Money balance;
 	public Long getId() {
 		return id;
 	}
@@ -21,10 +20,10 @@ public class AccountDTO {
 	public void setCustomerName(String customerName) {
 		this.customerName = customerName;
 	}
-	public BigDecimal getBalance() {
+	public Money getBalance() {
 		return balance;
 	}
-	public void setBalance(BigDecimal balance) {
+	public void setBalance(Money balance) {
 		this.balance = balance;
 	}
     
@@ -0,0 +1,106 @@
+package com.bank.transaction.entities;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Running count and total of one account's transactions of one type on one
+ * day. Rows are only ever incremented, in the same database transaction as
+ * the {@link Transaction} rows they count.
+ */
+@Entity
+@Table(name = "account_daily_activity")
+@IdClass(AccountDailyActivity.Key.class)
+public class AccountDailyActivity {
+
+	@Id
+	private Long accountId;
+
+	@Id
+	private LocalDate activityDate;
+
+	@Id
+	private TransactionType type;
+
+	@Column(nullable = false)
+	private long transactionCount;
+
+	@Column(nullable = false)
+	private BigDecimal totalAmount;
+
+	public Long getAccountId() {
+		return accountId;
+	}
+
+	public LocalDate getActivityDate() {
+		return activityDate;
+	}
+
+	public TransactionType getType() {
+		return type;
+	}
+
+	public long getTransactionCount() {
+		return transactionCount;
+	}
+
+	public BigDecimal getTotalAmount() {
+		return totalAmount;
+	}
+
+	public static class Key implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private Long accountId;
+		private LocalDate activityDate;
+		private TransactionType type;
+
+		public Key() {
+		}
+
+		public Key(Long accountId, LocalDate activityDate, TransactionType type) {
+			this.accountId = accountId;
+			this.activityDate = activityDate;
+			this.type = type;
+		}
+
+		public Long getAccountId() {
+			return accountId;
+		}
+
+		public LocalDate getActivityDate() {
+			return activityDate;
+		}
+
+		public TransactionType getType() {
+			return type;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return Objects.equals(accountId, key.accountId) && Objects.equals(activityDate, key.activityDate)
+					&& type == key.type;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(accountId, activityDate, type);
+		}
+	}
+}
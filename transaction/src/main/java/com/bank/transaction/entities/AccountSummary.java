@@ -0,0 +1,55 @@
+package com.bank.transaction.entities;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Activity of one account over a date range: totals per transaction type for
+ * the whole range and per day or month within it.
+ */
+@Data
+public class AccountSummary {
+	private Long accountId;
+	private LocalDate from;
+	private LocalDate to;
+	private SummaryGranularity granularity;
+	private Map<TransactionType, ActivityTotals> totals = new EnumMap<>(TransactionType.class);
+	private List<ActivityPeriod> periods = new ArrayList<>();
+
+	public AccountSummary(Long accountId, LocalDate from, LocalDate to, SummaryGranularity granularity) {
+		this.accountId = accountId;
+		this.from = from;
+		this.to = to;
+		this.granularity = granularity;
+	}
+
+	public Long getAccountId() {
+		return accountId;
+	}
+
+	public LocalDate getFrom() {
+		return from;
+	}
+
+	public LocalDate getTo() {
+		return to;
+	}
+
+	public SummaryGranularity getGranularity() {
+		return granularity;
+	}
+
+	public Map<TransactionType, ActivityTotals> getTotals() {
+		return totals;
+	}
+
+	public List<ActivityPeriod> getPeriods() {
+		return periods;
+	}
+
+}
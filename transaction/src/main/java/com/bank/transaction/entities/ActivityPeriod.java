@@ -0,0 +1,26 @@
+package com.bank.transaction.entities;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class ActivityPeriod {
+	private LocalDate start;
+	private Map<TransactionType, ActivityTotals> totals = new EnumMap<>(TransactionType.class);
+
+	public ActivityPeriod(LocalDate start) {
+		this.start = start;
+	}
+
+	public LocalDate getStart() {
+		return start;
+	}
+
+	public Map<TransactionType, ActivityTotals> getTotals() {
+		return totals;
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.bank.transaction.entities;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+@Data
+public class ActivityTotals {
+	private long count;
+	private BigDecimal amount = BigDecimal.ZERO;
+
+	public void add(long count, BigDecimal amount) {
+		this.count += count;
+		this.amount = this.amount.add(amount);
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.bank.transaction.entities;
+
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Signed change applied atomically by the account service. A negative amount
+ * is a conditional debit: the account service rejects it with 422 instead of
+ * letting the balance drop below zero.
+ */
+public class BalanceAdjustmentRequest {
+
+    @NotNull(message = "Adjustment amount is required")
+    private Money amount;
+
+    public BalanceAdjustmentRequest() {
+    }
+
+    public BalanceAdjustmentRequest(Money amount) {
+        this.amount = amount;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.bank.transaction.entities;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * A balance change recorded in the same local transaction as its
+ * {@link Transaction} rows and delivered to the account service afterwards.
+ * The idempotency key travels with every delivery attempt so the account
+ * service applies the change at most once, however often it is retried.
+ */
+@Entity
+@Table(name = "balance_outbox", indexes = {
+		@Index(name = "idx_balance_outbox_due", columnList = "status, next_attempt_at, id"),
+		@Index(name = "idx_balance_outbox_account", columnList = "account_id, status, id") })
+public class BalanceOutboxEntry {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_outbox_seq")
+	@SequenceGenerator(name = "balance_outbox_seq", sequenceName = "balance_outbox_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(nullable = false)
+	private Long accountId;
+
+	// Signed: credits are positive, debits negative
+	@Column(nullable = false)
+	private BigDecimal amount;
+
+	@Column(nullable = false, unique = true, length = 36)
+	private String idempotencyKey;
+
+	@Column(nullable = false)
+	private OutboxStatus status;
+
+	@Column(nullable = false)
+	private int attempts;
+
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+
+	@Column(nullable = false)
+	private LocalDateTime nextAttemptAt;
+
+	private String lastError;
+
+	public static BalanceOutboxEntry pending(Long accountId, BigDecimal amount) {
+		BalanceOutboxEntry entry = new BalanceOutboxEntry();
+		entry.accountId = accountId;
+		entry.amount = amount;
+		entry.idempotencyKey = UUID.randomUUID().toString();
+		entry.status = OutboxStatus.PENDING;
+		entry.createdAt = LocalDateTime.now();
+		entry.nextAttemptAt = entry.createdAt;
+		return entry;
+	}
+
+	public void retryAt(LocalDateTime nextAttemptAt, String error) {
+		this.attempts++;
+		this.nextAttemptAt = nextAttemptAt;
+		this.lastError = truncate(error);
+	}
+
+	public void fail(String error) {
+		this.attempts++;
+		this.status = OutboxStatus.FAILED;
+		this.lastError = truncate(error);
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getAccountId() {
+		return accountId;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public String getIdempotencyKey() {
+		return idempotencyKey;
+	}
+
+	public OutboxStatus getStatus() {
+		return status;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public LocalDateTime getNextAttemptAt() {
+		return nextAttemptAt;
+	}
+
+	public String getLastError() {
+		return lastError;
+	}
+
+	private static String truncate(String error) {
+		return error != null && error.length() > 255 ? error.substring(0, 255) : error;
+	}
+}
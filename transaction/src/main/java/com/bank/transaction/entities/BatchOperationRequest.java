@@ -0,0 +1,41 @@
+package com.bank.transaction.entities;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BatchOperationRequest {
+	@NotNull(message = "Account id is required")
+	private Long accountId;
+	@NotNull(message = "Transaction type is required")
+	private TransactionType type;
+	@NotNull(message = "Amount is required")
+	private BigDecimal amount;
+
+	public Long getAccountId() {
+		return accountId;
+	}
+
+	public void setAccountId(Long accountId) {
+		this.accountId = accountId;
+	}
+
+	public TransactionType getType() {
+		return type;
+	}
+
+	public void setType(TransactionType type) {
+		this.type = type;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public void setAmount(BigDecimal amount) {
+		this.amount = amount;
+	}
+
+}
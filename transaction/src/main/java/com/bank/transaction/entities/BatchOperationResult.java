@@ -0,0 +1,81 @@
+package com.bank.transaction.entities;
+
+import lombok.Data;
+
+@Data
+public class BatchOperationResult {
+	private int index;
+	private Long accountId;
+	private boolean success;
+	private TransactionDTO transaction;
+	private String error;
+	private String message;
+
+	public static BatchOperationResult success(int index, Long accountId, TransactionDTO transaction) {
+		BatchOperationResult result = new BatchOperationResult();
+		result.setIndex(index);
+		result.setAccountId(accountId);
+		result.setSuccess(true);
+		result.setTransaction(transaction);
+		return result;
+	}
+
+	public static BatchOperationResult failure(int index, Long accountId, String error, String message) {
+		BatchOperationResult result = new BatchOperationResult();
+		result.setIndex(index);
+		result.setAccountId(accountId);
+		result.setSuccess(false);
+		result.setError(error);
+		result.setMessage(message);
+		return result;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	public Long getAccountId() {
+		return accountId;
+	}
+
+	public void setAccountId(Long accountId) {
+		this.accountId = accountId;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public void setSuccess(boolean success) {
+		this.success = success;
+	}
+
+	public TransactionDTO getTransaction() {
+		return transaction;
+	}
+
+	public void setTransaction(TransactionDTO transaction) {
+		this.transaction = transaction;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+}
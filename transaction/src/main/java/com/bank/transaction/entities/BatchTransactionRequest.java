@@ -0,0 +1,24 @@
+package com.bank.transaction.entities;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class BatchTransactionRequest {
+	@NotEmpty(message = "At least one operation is required")
+	@Size(max = 10000, message = "A batch may contain at most 10000 operations")
+	private List<@Valid BatchOperationRequest> operations;
+
+	public List<BatchOperationRequest> getOperations() {
+		return operations;
+	}
+
+	public void setOperations(List<BatchOperationRequest> operations) {
+		this.operations = operations;
+	}
+
+}
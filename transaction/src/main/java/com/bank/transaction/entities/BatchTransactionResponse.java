@@ -0,0 +1,36 @@
+package com.bank.transaction.entities;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchTransactionResponse {
+	private int succeeded;
+	private int failed;
+	private List<BatchOperationResult> results;
+
+	public BatchTransactionResponse(List<BatchOperationResult> results) {
+		this.results = results;
+		for (BatchOperationResult result : results) {
+			if (result.isSuccess()) {
+				succeeded++;
+			} else {
+				failed++;
+			}
+		}
+	}
+
+	public int getSucceeded() {
+		return succeeded;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public List<BatchOperationResult> getResults() {
+		return results;
+	}
+
+}
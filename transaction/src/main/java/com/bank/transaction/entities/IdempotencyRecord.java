@@ -0,0 +1,121 @@
+package com.bank.transaction.entities;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * The outcome of a deposit or withdrawal made under an {@code Idempotency-Key},
+ * kept until {@code expiresAt} so a retried request gets the original result
+ * back. The request's account, type and amount are stored alongside so a key
+ * reused for a different request can be told apart from a genuine retry.
+ */
+@Entity
+@Table(name = "idempotency_record", indexes = @Index(name = "idx_idempotency_record_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord implements Persistable<String> {
+
+	@Id
+	@Column(length = 64)
+	private String idempotencyKey;
+
+	@Column(nullable = false)
+	private Long accountId;
+
+	@Column(nullable = false)
+	private TransactionType type;
+
+	@Column(nullable = false)
+	private BigDecimal amount;
+
+	private Long transactionId;
+	private BigDecimal balanceAfterTransaction;
+	private LocalDateTime transactionTimestamp;
+
+	@Column(nullable = false)
+	private LocalDateTime expiresAt;
+
+	// Keys are assigned, so tell Spring Data to persist rather than merge a new record
+	@Transient
+	private boolean isNew = true;
+
+	public static IdempotencyRecord claim(String idempotencyKey, Long accountId, TransactionType type,
+			BigDecimal amount, LocalDateTime expiresAt) {
+		IdempotencyRecord record = new IdempotencyRecord();
+		record.idempotencyKey = idempotencyKey;
+		record.accountId = accountId;
+		record.type = type;
+		record.amount = amount;
+		record.expiresAt = expiresAt;
+		return record;
+	}
+
+	public void complete(TransactionDTO result) {
+		this.transactionId = result.getId();
+		this.balanceAfterTransaction = result.getBalanceAfterTransaction().toBigDecimal();
+		this.transactionTimestamp = result.getTimestamp();
+	}
+
+	public boolean matches(Long accountId, TransactionType type, BigDecimal amount) {
+		return this.accountId.equals(accountId) && this.type == type && this.amount.compareTo(amount) == 0;
+	}
+
+	public boolean isExpired(LocalDateTime now) {
+		return !expiresAt.isAfter(now);
+	}
+
+	public TransactionDTO toDTO() {
+		TransactionDTO dto = new TransactionDTO();
+		dto.setId(transactionId);
+		dto.setAmount(Money.of(amount));
+		dto.setType(type);
+		dto.setTimestamp(transactionTimestamp);
+		dto.setBalanceAfterTransaction(Money.of(balanceAfterTransaction));
+		return dto;
+	}
+
+	@Override
+	public String getId() {
+		return idempotencyKey;
+	}
+
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		this.isNew = false;
+	}
+
+	public Long getAccountId() {
+		return accountId;
+	}
+
+	public TransactionType getType() {
+		return type;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public Long getTransactionId() {
+		return transactionId;
+	}
+
+	public LocalDateTime getExpiresAt() {
+		return expiresAt;
+	}
+}
@@ -0,0 +1,212 @@
+package com.bank.transaction.entities;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+/**
+ * An amount of the account currency held as a whole number of minor units
+ * (cents), so arithmetic on the deposit and withdrawal path is plain
+ * {@code long} math. Results that would not fit a {@code long} throw
+ * {@link ArithmeticException} rather than wrapping.
+ *
+ * <p>In JSON it is an ordinary decimal number, read from and written as text
+ * without going through {@link BigDecimal}; only unusual input such as
+ * exponent notation takes the {@link BigDecimal} route.
+ */
+@JsonSerialize(using = Money.JsonWriter.class)
+@JsonDeserialize(using = Money.JsonReader.class)
+public final class Money implements Comparable<Money> {
+
+	/** Decimal places of the currency's minor unit. */
+	public static final int SCALE = 2;
+	public static final Money ZERO = new Money(0);
+
+	private static final long FACTOR = 100;
+
+	private final long minorUnits;
+
+	private Money(long minorUnits) {
+		this.minorUnits = minorUnits;
+	}
+
+	public static Money ofMinor(long minorUnits) {
+		return minorUnits == 0 ? ZERO : new Money(minorUnits);
+	}
+
+	/**
+	 * Converts without rounding.
+	 *
+	 * @throws IllegalArgumentException if the value has more than
+	 *         {@link #SCALE} decimal places or is too large
+	 */
+	public static Money of(BigDecimal value) {
+		try {
+			return ofMinor(value.movePointRight(SCALE).longValueExact());
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException(
+					"Amount " + value.toPlainString() + " has more than " + SCALE + " decimal places or is too large", e);
+		}
+	}
+
+	/**
+	 * Parses plain decimal notation such as {@code -12.5} or {@code 100.00}.
+	 *
+	 * @throws IllegalArgumentException if the text is not a number, has a
+	 *         non-zero digit beyond {@link #SCALE} places, or is too large
+	 */
+	public static Money parse(char[] text, int offset, int length) {
+		int end = offset + length;
+		int i = offset;
+		boolean negative = i < end && text[i] == '-';
+		if (negative || (i < end && text[i] == '+')) {
+			i++;
+		}
+		long units = 0;
+		int digits = 0;
+		int fractionDigits = -1;
+		try {
+			for (; i < end; i++) {
+				char c = text[i];
+				if (c == '.' && fractionDigits < 0) {
+					fractionDigits = 0;
+				} else if (c >= '0' && c <= '9') {
+					digits++;
+					if (fractionDigits >= 0 && ++fractionDigits > SCALE) {
+						if (c != '0') {
+							break;
+						}
+						continue;
+					}
+					units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+				} else {
+					break;
+				}
+			}
+		} catch (ArithmeticException e) {
+			i = -1;
+		}
+		if (i != end || digits == 0) {
+			// Exponents, stray characters and out-of-range values get BigDecimal's parsing and error reporting
+			try {
+				return of(new BigDecimal(text, offset, length));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Not an amount: " + new String(text, offset, length), e);
+			}
+		}
+		for (int scale = Math.max(fractionDigits, 0); scale < SCALE; scale++) {
+			units = Math.multiplyExact(units, 10);
+		}
+		return ofMinor(negative ? -units : units);
+	}
+
+	public long getMinorUnits() {
+		return minorUnits;
+	}
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(minorUnits, SCALE);
+	}
+
+	public Money plus(Money other) {
+		return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+	}
+
+	public Money minus(Money other) {
+		return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+	}
+
+	public Money negate() {
+		return ofMinor(Math.negateExact(minorUnits));
+	}
+
+	public int signum() {
+		return Long.signum(minorUnits);
+	}
+
+	public boolean isLessThan(Money other) {
+		return minorUnits < other.minorUnits;
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		return Long.compare(minorUnits, other.minorUnits);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof Money money && money.minorUnits == minorUnits;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(minorUnits);
+	}
+
+	/** Plain decimal notation with {@link #SCALE} places, as {@link BigDecimal#toPlainString()} would print it. */
+	@Override
+	public String toString() {
+		long units = minorUnits / FACTOR;
+		long fraction = Math.abs(minorUnits % FACTOR);
+		StringBuilder text = new StringBuilder(24);
+		if (minorUnits < 0 && units == 0) {
+			text.append('-');
+		}
+		text.append(units).append('.');
+		for (long digit = FACTOR / 10; digit > 1 && fraction < digit; digit /= 10) {
+			text.append('0');
+		}
+		return text.append(fraction).toString();
+	}
+
+	static final class JsonWriter extends StdScalarSerializer<Money> {
+
+		JsonWriter() {
+			super(Money.class);
+		}
+
+		@Override
+		public void serialize(Money money, JsonGenerator generator, SerializerProvider provider) throws IOException {
+			// One number token, so token buffers, binary formats and WRITE_NUMBERS_AS_STRINGS all see the whole value.
+			// A scale of 2 never prints in exponent form
+			generator.writeNumber(money.toBigDecimal());
+		}
+	}
+
+	static final class JsonReader extends StdScalarDeserializer<Money> {
+
+		JsonReader() {
+			super(Money.class);
+		}
+
+		@Override
+		public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+			JsonToken token = parser.currentToken();
+			if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+				try {
+					return ofMinor(Math.multiplyExact(parser.getLongValue(), FACTOR));
+				} catch (ArithmeticException e) {
+					return (Money) context.handleWeirdNumberValue(Money.class, parser.getNumberValue(), e.getMessage());
+				}
+			}
+			if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT
+					|| token == JsonToken.VALUE_STRING) {
+				try {
+					return parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+				} catch (IllegalArgumentException e) {
+					return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), e.getMessage());
+				}
+			}
+			return (Money) context.handleUnexpectedToken(Money.class, parser);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.bank.transaction.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/** Stores {@link Money} as a BIGINT count of minor units. */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+	@Override
+	public Long convertToDatabaseColumn(Money money) {
+		return money == null ? null : money.getMinorUnits();
+	}
+
+	@Override
+	public Money convertToEntityAttribute(Long minorUnits) {
+		return minorUnits == null ? null : Money.ofMinor(minorUnits);
+	}
+}
@@ -0,0 +1,5 @@
+package com.bank.transaction.entities;
+
+public enum OutboxStatus {
+	PENDING, FAILED
+}
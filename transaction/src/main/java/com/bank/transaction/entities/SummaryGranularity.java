@@ -0,0 +1,11 @@
+package com.bank.transaction.entities;
+
+import java.time.LocalDate;
+
+public enum SummaryGranularity {
+	DAY, MONTH;
+
+	public LocalDate periodStart(LocalDate date) {
+		return this == MONTH ? date.withDayOfMonth(1) : date;
+	}
+}
@@ -2,25 +2,32 @@ package com.bank.transaction.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_transaction_account_history", columnList = "account_id, timestamp DESC, id DESC"))
 public class Transaction {
 	@Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
     private Long accountId;
-    private BigDecimal amount;
+    // Both amounts are BIGINT columns of minor units
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
     private TransactionType type;
     private LocalDateTime timestamp;
-    private BigDecimal balanceAfterTransaction;
+    @Convert(converter = MoneyConverter.class)
+    private Money balanceAfterTransaction;
 
     @PrePersist
     public void prePersist() {
-        timestamp = LocalDateTime.now();
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
     }
 
 	public Long getId() {
@@ -39,11 +46,11 @@ public class Transaction {
 		this.accountId = accountId;
 	}
 
-	public BigDecimal getAmount() {
+	public Money getAmount() {
 		return amount;
 	}
 
-	public void setAmount(BigDecimal amount) {
+	public void setAmount(Money amount) {
 		this.amount = amount;
 	}
 
@@ -63,11 +70,11 @@ public class Transaction {
 		this.timestamp = timestamp;
 	}
 
-	public BigDecimal getBalanceAfterTransaction() {
+	public Money getBalanceAfterTransaction() {
 		return balanceAfterTransaction;
 	}
 
-	public void setBalanceAfterTransaction(BigDecimal balanceAfterTransaction) {
+	public void setBalanceAfterTransaction(Money balanceAfterTransaction) {
 		this.balanceAfterTransaction = balanceAfterTransaction;
 	}
     
@@ -1,6 +1,5 @@
 package com.bank.transaction.entities;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import lombok.Data;
@@ -8,20 +7,20 @@ import lombok.Data;
 @Data
 public class TransactionDTO {
 	private Long id;
-	private BigDecimal amount;
+	private Money amount;
 	private TransactionType type;
 	private LocalDateTime timestamp;
-	private BigDecimal balanceAfterTransaction;
+	private Money balanceAfterTransaction;
 	public Long getId() {
 		return id;
 	}
 	public void setId(Long id) {
 		this.id = id;
 	}
-	public BigDecimal getAmount() {
+	public Money getAmount() {
 		return amount;
 	}
-	public void setAmount(BigDecimal amount) {
+	public void setAmount(Money amount) {
 		this.amount = amount;
 	}
 	public TransactionType getType() {
@@ -36,10 +35,10 @@ public class TransactionDTO {
 	public void setTimestamp(LocalDateTime timestamp) {
 		this.timestamp = timestamp;
 	}
-	public BigDecimal getBalanceAfterTransaction() {
+	public Money getBalanceAfterTransaction() {
 		return balanceAfterTransaction;
 	}
-	public void setBalanceAfterTransaction(BigDecimal balanceAfterTransaction) {
+	public void setBalanceAfterTransaction(Money balanceAfterTransaction) {
 		this.balanceAfterTransaction = balanceAfterTransaction;
 	}
 	
@@ -0,0 +1,25 @@
+package com.bank.transaction.entities;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class TransactionPage {
+	private List<TransactionDTO> transactions;
+	private String nextCursor;
+
+	public TransactionPage(List<TransactionDTO> transactions, String nextCursor) {
+		this.transactions = transactions;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<TransactionDTO> getTransactions() {
+		return transactions;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+}
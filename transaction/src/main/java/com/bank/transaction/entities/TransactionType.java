@@ -1,5 +1,6 @@
 package com.bank.transaction.entities;
 
+// Persisted by ordinal (TINYINT columns and archive segments): new types go at the end
 public enum TransactionType {
-	DEPOSIT, WITHDRAWAL
-}
\ No newline at end of file
+	DEPOSIT, WITHDRAWAL, TRANSFER_OUT, TRANSFER_IN
+}
@@ -0,0 +1,24 @@
+package com.bank.transaction.entities;
+
+import lombok.Data;
+
+/** Both legs of a transfer, each as it appears in its account's history. */
+@Data
+public class TransferDTO {
+	private TransactionDTO debit;
+	private TransactionDTO credit;
+
+	public TransferDTO(TransactionDTO debit, TransactionDTO credit) {
+		this.debit = debit;
+		this.credit = credit;
+	}
+
+	public TransactionDTO getDebit() {
+		return debit;
+	}
+
+	public TransactionDTO getCredit() {
+		return credit;
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.bank.transaction.entities;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class TransferRequest {
+	@NotNull(message = "Source account id is required")
+	private Long fromAccountId;
+	@NotNull(message = "Destination account id is required")
+	private Long toAccountId;
+	@NotNull(message = "Amount is required")
+	private BigDecimal amount;
+
+	public Long getFromAccountId() {
+		return fromAccountId;
+	}
+
+	public void setFromAccountId(Long fromAccountId) {
+		this.fromAccountId = fromAccountId;
+	}
+
+	public Long getToAccountId() {
+		return toAccountId;
+	}
+
+	public void setToAccountId(Long toAccountId) {
+		this.toAccountId = toAccountId;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public void setAmount(BigDecimal amount) {
+		this.amount = amount;
+	}
+
+}
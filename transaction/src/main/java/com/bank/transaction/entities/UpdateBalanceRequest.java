@@ -1,6 +1,5 @@
 package com.bank.transaction.entities;
 
-import java.math.BigDecimal;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,17 +7,17 @@ import lombok.AllArgsConstructor;
 public class UpdateBalanceRequest {
 
     @NotNull(message = "New balance amount is required")
-    private BigDecimal newBalance;
+    private Money newBalance;
 
-    public BigDecimal getNewBalance() {
+    public Money getNewBalance() {
         return newBalance;
     }
 
-    public void setNewBalance(BigDecimal newBalance) {
+    public void setNewBalance(Money newBalance) {
         this.newBalance = newBalance;
     }
 
-	public UpdateBalanceRequest(@NotNull(message = "New balance amount is required") BigDecimal newBalance) {
+	public UpdateBalanceRequest(@NotNull(message = "New balance amount is required") Money newBalance) {
 		super();
 		this.newBalance = newBalance;
 	}
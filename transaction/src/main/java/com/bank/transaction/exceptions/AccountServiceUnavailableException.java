@@ -0,0 +1,12 @@
+package com.bank.transaction.exceptions;
+
+public class AccountServiceUnavailableException extends RuntimeException {
+
+    public AccountServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public AccountServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
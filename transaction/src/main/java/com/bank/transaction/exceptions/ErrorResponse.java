@@ -2,12 +2,10 @@ package com.bank.transaction.exceptions;
 
 import java.time.LocalDateTime;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class ErrorResponse {
     private LocalDateTime timestamp;
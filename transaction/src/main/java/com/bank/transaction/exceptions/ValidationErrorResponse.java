@@ -3,12 +3,10 @@ package com.bank.transaction.exceptions;
 import java.time.LocalDateTime;
 import java.util.Map;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class ValidationErrorResponse {
     private LocalDateTime timestamp;
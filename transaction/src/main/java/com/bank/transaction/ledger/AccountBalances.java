@@ -0,0 +1,130 @@
+package com.bank.transaction.ledger;
+
+/**
+ * Balances in minor units keyed by account id, held in two parallel
+ * {@code long} arrays with open addressing and linear probing: no boxing and
+ * no entry objects, so a lookup is a multiply, a mask and usually a single
+ * array read. The table is kept at most half full.
+ *
+ * <p>Not thread-safe; {@link Ledger} guards it with its own lock.
+ */
+final class AccountBalances {
+
+	// Marks a free slot; account id 0 is therefore kept outside the arrays
+	private static final long FREE = 0;
+
+	private long[] keys;
+	private long[] values;
+	private int mask;
+	private int size;
+	private boolean hasZeroKey;
+	private long zeroKeyValue;
+
+	AccountBalances(int expectedAccounts) {
+		int capacity = Integer.highestOneBit(Math.max(expectedAccounts, 8) * 2 - 1) << 1;
+		this.keys = new long[capacity];
+		this.values = new long[capacity];
+		this.mask = capacity - 1;
+	}
+
+	private AccountBalances(AccountBalances source) {
+		this.keys = source.keys.clone();
+		this.values = source.values.clone();
+		this.mask = source.mask;
+		this.size = source.size;
+		this.hasZeroKey = source.hasZeroKey;
+		this.zeroKeyValue = source.zeroKeyValue;
+	}
+
+	int size() {
+		return hasZeroKey ? size + 1 : size;
+	}
+
+	boolean contains(long accountId) {
+		return accountId == FREE ? hasZeroKey : keys[slot(accountId)] == accountId;
+	}
+
+	/** The account's balance; the account must be present. */
+	long get(long accountId) {
+		if (accountId == FREE) {
+			if (!hasZeroKey) {
+				throw new IllegalStateException("Account " + accountId + " is not in the ledger");
+			}
+			return zeroKeyValue;
+		}
+		int slot = slot(accountId);
+		if (keys[slot] != accountId) {
+			throw new IllegalStateException("Account " + accountId + " is not in the ledger");
+		}
+		return values[slot];
+	}
+
+	void put(long accountId, long balance) {
+		if (accountId == FREE) {
+			hasZeroKey = true;
+			zeroKeyValue = balance;
+			return;
+		}
+		int slot = slot(accountId);
+		if (keys[slot] == accountId) {
+			values[slot] = balance;
+			return;
+		}
+		keys[slot] = accountId;
+		values[slot] = balance;
+		if (++size * 2 > keys.length) {
+			grow();
+		}
+	}
+
+	/** An independent copy, taken so a snapshot can be written without holding the ledger's lock. */
+	AccountBalances copy() {
+		return new AccountBalances(this);
+	}
+
+	void forEach(BalanceConsumer consumer) {
+		if (hasZeroKey) {
+			consumer.accept(FREE, zeroKeyValue);
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != FREE) {
+				consumer.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	// The slot holding the account, or the free slot where it would go
+	private int slot(long accountId) {
+		int slot = hash(accountId) & mask;
+		while (keys[slot] != FREE && keys[slot] != accountId) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		keys = new long[oldKeys.length * 2];
+		values = new long[oldValues.length * 2];
+		mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE) {
+				int slot = slot(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private static int hash(long accountId) {
+		// Spread the bits so sequential account ids do not fill neighbouring slots
+		long h = accountId * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	@FunctionalInterface
+	interface BalanceConsumer {
+		void accept(long accountId, long balance);
+	}
+}
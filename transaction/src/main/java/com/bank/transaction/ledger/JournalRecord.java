@@ -0,0 +1,63 @@
+package com.bank.transaction.ledger;
+
+/**
+ * One balance change as read back from the journal. The change is the signed
+ * amount applied and the balance is the account's balance once it was, both
+ * in minor units.
+ */
+final class JournalRecord {
+
+	/** The account enters the ledger with the balance the account service reported. */
+	static final byte OPEN = 1;
+	/** A deposit, withdrawal or transfer leg; the type is its {@code TransactionType} ordinal. */
+	static final byte POSTING = 2;
+	/** Undoes a posting whose transaction row was rolled back. */
+	static final byte REVERSAL = 3;
+
+	private final long sequence;
+	private final long accountId;
+	private final long change;
+	private final long balanceAfter;
+	private final long timestampMillis;
+	private final byte kind;
+	private final byte type;
+
+	JournalRecord(long sequence, long accountId, long change, long balanceAfter, long timestampMillis, byte kind,
+			byte type) {
+		this.sequence = sequence;
+		this.accountId = accountId;
+		this.change = change;
+		this.balanceAfter = balanceAfter;
+		this.timestampMillis = timestampMillis;
+		this.kind = kind;
+		this.type = type;
+	}
+
+	long getSequence() {
+		return sequence;
+	}
+
+	long getAccountId() {
+		return accountId;
+	}
+
+	long getChange() {
+		return change;
+	}
+
+	long getBalanceAfter() {
+		return balanceAfter;
+	}
+
+	long getTimestampMillis() {
+		return timestampMillis;
+	}
+
+	byte getKind() {
+		return kind;
+	}
+
+	byte getType() {
+		return type;
+	}
+}
@@ -0,0 +1,330 @@
+package com.bank.transaction.ledger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.exceptions.AccountNotFoundException;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Authoritative account balances held in this service. Every change is
+ * checked and applied against an in-memory {@link AccountBalances} map and
+ * appended to the {@link LedgerJournal}; a change is acknowledged only once
+ * the journal holds it durably. The state is snapshotted periodically, and on
+ * startup the newest snapshot is loaded and the journal after it replayed.
+ *
+ * <p>An account enters the ledger with the balance the account service
+ * reports the first time it is used; from then on the ledger's balance is the
+ * one that counts. Postings made inside a database transaction are reversed
+ * in the journal if that transaction rolls back. Reversals are unconditional,
+ * so callers that must never see a reversed credit spent keep the account
+ * locked until completion.
+ *
+ * <p>The ledger is authoritative only while a single instance holds it and
+ * never writes balances back to the account service, so ledger mode refuses
+ * to start alongside {@code transaction.sharding.enabled}: a node receiving a
+ * transfer for accounts it does not own would open a second ledger for them.
+ */
+@Component
+public class Ledger {
+
+	private static final Logger log = LoggerFactory.getLogger(Ledger.class);
+
+	private final boolean enabled;
+	private final Path directory;
+	private final int segmentBytes;
+	private final boolean fsync;
+	private final long snapshotIntervalMillis;
+	private final int expectedAccounts;
+	private final boolean sharded;
+	// Guards balances and every journal append, so the journal's order is the order changes were applied in
+	private final ReentrantLock lock = new ReentrantLock();
+	private AccountBalances balances;
+	private LedgerJournal journal;
+	private ScheduledExecutorService scheduler;
+
+	public Ledger(@Value("${transaction.ledger.enabled:false}") boolean enabled,
+			@Value("${transaction.ledger.directory:transaction-ledger}") String directory,
+			@Value("${transaction.ledger.segment-bytes:67108864}") int segmentBytes,
+			@Value("${transaction.ledger.fsync:true}") boolean fsync,
+			@Value("${transaction.ledger.snapshot-interval-ms:300000}") long snapshotIntervalMillis,
+			@Value("${transaction.ledger.expected-accounts:100000}") int expectedAccounts,
+			@Value("${transaction.sharding.enabled:false}") boolean sharded) {
+		if (segmentBytes < 1024 * LedgerJournal.RECORD_BYTES) {
+			throw new IllegalArgumentException("Ledger journal segments must hold at least 1024 records");
+		}
+		this.enabled = enabled;
+		this.directory = Paths.get(directory);
+		this.segmentBytes = segmentBytes;
+		this.fsync = fsync;
+		this.snapshotIntervalMillis = snapshotIntervalMillis;
+		this.expectedAccounts = expectedAccounts;
+		this.sharded = sharded;
+	}
+
+	@PostConstruct
+	void start() throws IOException {
+		if (!enabled) {
+			return;
+		}
+		if (sharded) {
+			throw new IllegalStateException(
+					"transaction.ledger.enabled=true requires a single instance and cannot run with transaction.sharding.enabled=true");
+		}
+		LedgerSnapshot snapshot = null;
+		if (directory.toFile().isDirectory()) {
+			snapshot = LedgerSnapshot.readLatest(directory, expectedAccounts);
+		}
+		AccountBalances recovered = snapshot != null ? snapshot.getBalances() : new AccountBalances(expectedAccounts);
+		long snapshotSequence = snapshot != null ? snapshot.getSequence() : 0;
+		// Every record carries the balance it left behind, so replay only has to put it back
+		journal = LedgerJournal.open(directory, segmentBytes, fsync, snapshotSequence,
+				record -> recovered.put(record.getAccountId(), record.getBalanceAfter()));
+		balances = recovered;
+		log.info("Recovered {} ledger balances from snapshot {} and journal through record {}", recovered.size(),
+				snapshotSequence, journal.lastSequence());
+
+		if (snapshotIntervalMillis > 0) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+				Thread thread = new Thread(task, "ledger-snapshots");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(this::runSnapshot, snapshotIntervalMillis, snapshotIntervalMillis,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException {
+		if (scheduler != null) {
+			scheduler.shutdown();
+			scheduler.awaitTermination(5, TimeUnit.SECONDS);
+		}
+		if (journal != null) {
+			// A last snapshot keeps the next startup from replaying the whole journal
+			runSnapshot();
+		}
+		closeJournal();
+	}
+
+	// Stops without the shutdown snapshot, as a crash would; tests recover from here
+	void closeJournal() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+		if (journal != null) {
+			journal.close();
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/** The account's balance, or null if it has not entered the ledger yet. */
+	public Money balance(long accountId) {
+		lock.lock();
+		try {
+			return balances.contains(accountId) ? Money.ofMinor(balances.get(accountId)) : null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Brings the account into the ledger with the given balance, durably. Does
+	 * nothing if it is already there.
+	 */
+	public void open(long accountId, Money balance) {
+		long sequence;
+		lock.lock();
+		try {
+			if (balances.contains(accountId)) {
+				return;
+			}
+			sequence = journal.append(accountId, balance.getMinorUnits(), balance.getMinorUnits(),
+					JournalRecord.OPEN, (byte) 0, 0);
+			balances.put(accountId, balance.getMinorUnits());
+		} finally {
+			lock.unlock();
+		}
+		journal.awaitDurable(sequence);
+	}
+
+	/**
+	 * Applies a deposit or withdrawal to an account already in the ledger.
+	 * The change is visible at once but not yet durable; callers acknowledge
+	 * it only after {@link #awaitDurable}.
+	 */
+	public LedgerPosting post(long accountId, TransactionType type, Money amount) {
+		long change;
+		if (type == TransactionType.DEPOSIT) {
+			change = amount.getMinorUnits();
+		} else if (type == TransactionType.WITHDRAWAL) {
+			change = -amount.getMinorUnits();
+		} else {
+			throw new IllegalArgumentException("Only deposits and withdrawals post to a single account");
+		}
+		LedgerPosting posting;
+		lock.lock();
+		try {
+			long balance = balanceOf(accountId);
+			long balanceAfter = Math.addExact(balance, change);
+			if (balanceAfter < 0) {
+				throw new InsufficientBalanceException("Insufficient balance for withdrawal. Current balance: "
+						+ Money.ofMinor(balance) + ", Withdrawal amount: " + amount);
+			}
+			long sequence = journal.append(accountId, change, balanceAfter, JournalRecord.POSTING,
+					(byte) type.ordinal(), 0);
+			balances.put(accountId, balanceAfter);
+			posting = new LedgerPosting(sequence, accountId, type, change, balanceAfter);
+		} finally {
+			lock.unlock();
+		}
+		reverseOnRollback(List.of(posting));
+		return posting;
+	}
+
+	/**
+	 * Moves the amount between two accounts already in the ledger. Both legs
+	 * form one journal group, so recovery replays both or neither.
+	 *
+	 * @return the debit and the credit posting, in that order
+	 */
+	public List<LedgerPosting> transfer(long fromAccountId, long toAccountId, Money amount) {
+		long value = amount.getMinorUnits();
+		List<LedgerPosting> postings;
+		lock.lock();
+		try {
+			long fromBalance = balanceOf(fromAccountId);
+			long toBalance = balanceOf(toAccountId);
+			if (fromBalance < value) {
+				throw new InsufficientBalanceException("Insufficient balance for transfer. Current balance: "
+						+ Money.ofMinor(fromBalance) + ", Transfer amount: " + amount);
+			}
+			long toBalanceAfter = Math.addExact(toBalance, value);
+			long debit = journal.append(fromAccountId, -value, fromBalance - value, JournalRecord.POSTING,
+					(byte) TransactionType.TRANSFER_OUT.ordinal(), 1);
+			long credit = journal.append(toAccountId, value, toBalanceAfter, JournalRecord.POSTING,
+					(byte) TransactionType.TRANSFER_IN.ordinal(), 0);
+			balances.put(fromAccountId, fromBalance - value);
+			balances.put(toAccountId, toBalanceAfter);
+			postings = List.of(
+					new LedgerPosting(debit, fromAccountId, TransactionType.TRANSFER_OUT, -value, fromBalance - value),
+					new LedgerPosting(credit, toAccountId, TransactionType.TRANSFER_IN, value, toBalanceAfter));
+		} finally {
+			lock.unlock();
+		}
+		reverseOnRollback(postings);
+		return postings;
+	}
+
+	/**
+	 * Blocks until the posting, and every change made before it, is durable.
+	 * Concurrent callers are served by the same flush.
+	 */
+	public void awaitDurable(LedgerPosting posting) {
+		journal.awaitDurable(posting.getSequence());
+	}
+
+	/** Blocks until every change made so far is durable. */
+	public void awaitDurable() {
+		long sequence;
+		lock.lock();
+		try {
+			sequence = journal.lastSequence();
+		} finally {
+			lock.unlock();
+		}
+		journal.awaitDurable(sequence);
+	}
+
+	/**
+	 * Writes every balance as of the last journal record to a new snapshot and
+	 * drops the journal segments it makes redundant.
+	 */
+	public synchronized void snapshot() throws IOException {
+		AccountBalances copy;
+		long sequence;
+		lock.lock();
+		try {
+			copy = balances.copy();
+			sequence = journal.lastSequence();
+		} finally {
+			lock.unlock();
+		}
+		// The snapshot must never be ahead of the journal, or recovery would find records missing
+		journal.awaitDurable(sequence);
+		new LedgerSnapshot(sequence, copy).write(directory);
+		journal.deleteSegmentsThrough(sequence);
+		log.info("Ledger snapshot of {} balances at record {}", copy.size(), sequence);
+	}
+
+	// Callers open an account before posting to it, so a missing one was never seen by this service
+	private long balanceOf(long accountId) {
+		if (!balances.contains(accountId)) {
+			throw new AccountNotFoundException("Account not found with id: " + accountId);
+		}
+		return balances.get(accountId);
+	}
+
+	private void runSnapshot() {
+		try {
+			snapshot();
+		} catch (IOException | RuntimeException e) {
+			log.error("Ledger snapshot failed", e);
+		}
+	}
+
+	private void reverseOnRollback(List<LedgerPosting> postings) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status == STATUS_ROLLED_BACK) {
+					reverse(postings);
+				}
+			}
+		});
+	}
+
+	// Nobody was told of the reversed postings, so nobody waits for the reversal to be durable
+	private void reverse(List<LedgerPosting> postings) {
+		lock.lock();
+		try {
+			for (int i = postings.size() - 1; i >= 0; i--) {
+				LedgerPosting posting = postings.get(i);
+				long balanceAfter = balances.get(posting.getAccountId()) - posting.getChange();
+				journal.append(posting.getAccountId(), -posting.getChange(), balanceAfter, JournalRecord.REVERSAL,
+						(byte) posting.getType().ordinal(), i);
+				balances.put(posting.getAccountId(), balanceAfter);
+			}
+		} catch (RuntimeException e) {
+			log.error("Could not reverse {} ledger postings from record {}", postings.size(),
+					postings.get(0).getSequence(), e);
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,425 @@
+package com.bank.transaction.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of ledger records in memory-mapped segment
+ * files of fixed size, each named after the sequence of its first record.
+ *
+ * <p>Every record is 48 bytes: sequence, account id, change, balance after
+ * and timestamp as longs, then kind and type bytes, the number of records
+ * still to follow in the same group as a short, and a CRC32C of all of that.
+ * A record reaches the mapping in one copy, so a process killed mid-write
+ * leaves at most one torn record, which fails its checksum. Groups never span
+ * segments; recovery replays complete groups only and cuts the log after the
+ * last one.
+ *
+ * <p>Appends only copy into the page cache. With {@code fsync} on, a single
+ * flusher thread forces everything appended since its previous pass in one
+ * call, and {@link #awaitDurable} returns once a pass has covered the
+ * caller's record, so concurrent callers share one flush. With it off,
+ * records survive the process dying but not the machine.
+ *
+ * <p>Appends must not run concurrently; {@link Ledger} makes them under its
+ * lock.
+ */
+final class LedgerJournal implements Closeable {
+
+	static final int RECORD_BYTES = 48;
+	private static final int CHECKSUMMED_BYTES = RECORD_BYTES - 4;
+	private static final int FOLLOWING_OFFSET = 42;
+	private static final String PREFIX = "journal-";
+	private static final String SUFFIX = ".log";
+
+	private final Path directory;
+	private final int segmentBytes;
+	private final boolean fsync;
+	private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_BYTES);
+	private final CRC32C checksum = new CRC32C();
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition appended = lock.newCondition();
+	private final Condition flushed = lock.newCondition();
+	// Guarded by lock: every segment file by first sequence, and retired segments the flusher has yet to finish
+	private final TreeMap<Long, Path> segmentFiles = new TreeMap<>();
+	private final List<Segment> unforced = new ArrayList<>();
+	private Segment current;
+	private long written;
+	private volatile long durable;
+	private volatile Throwable failure;
+	private volatile boolean running;
+	private Thread flusher;
+
+	// Appender state
+	private int writeOffset;
+	private long nextSequence;
+	private int groupRemaining;
+
+	private LedgerJournal(Path directory, int segmentBytes, boolean fsync) {
+		this.directory = directory;
+		this.segmentBytes = segmentBytes / RECORD_BYTES * RECORD_BYTES;
+		this.fsync = fsync;
+	}
+
+	/**
+	 * Opens the journal in {@code directory}, handing every complete record
+	 * after {@code afterSequence} to {@code replay} in order, and positions
+	 * the next append after the last complete group.
+	 */
+	static LedgerJournal open(Path directory, int segmentBytes, boolean fsync, long afterSequence,
+			Consumer<JournalRecord> replay) throws IOException {
+		Files.createDirectories(directory);
+		LedgerJournal journal = new LedgerJournal(directory, segmentBytes, fsync);
+		journal.recover(afterSequence, replay);
+		if (fsync) {
+			journal.running = true;
+			journal.flusher = new Thread(journal::flushLoop, "ledger-journal-flusher");
+			journal.flusher.setDaemon(true);
+			journal.flusher.start();
+		}
+		return journal;
+	}
+
+	/**
+	 * Appends one record and returns its sequence. A record with
+	 * {@code following > 0} opens a group that the next {@code following}
+	 * records complete; the group is only replayed, and only counted as
+	 * written, once its last record is in.
+	 */
+	long append(long accountId, long change, long balanceAfter, byte kind, byte type, int following) {
+		Throwable failed = failure;
+		if (failed != null) {
+			throw new IllegalStateException("Ledger journal has failed", failed);
+		}
+		if (groupRemaining > 0 ? following != groupRemaining - 1 : following < 0) {
+			throw new IllegalStateException("Record does not continue the open group");
+		}
+		if (groupRemaining == 0 && writeOffset + (following + 1) * RECORD_BYTES > current.capacity) {
+			roll();
+		}
+		long sequence = nextSequence++;
+		scratch.clear();
+		scratch.putLong(sequence).putLong(accountId).putLong(change).putLong(balanceAfter)
+				.putLong(System.currentTimeMillis()).put(kind).put(type).putShort((short) following);
+		checksum.reset();
+		checksum.update(scratch.array(), 0, CHECKSUMMED_BYTES);
+		scratch.putInt((int) checksum.getValue());
+		current.buffer.put(writeOffset, scratch.array(), 0, RECORD_BYTES);
+		writeOffset += RECORD_BYTES;
+		groupRemaining = following;
+		if (following == 0 && fsync) {
+			lock.lock();
+			try {
+				written = sequence;
+				current.end = writeOffset;
+				appended.signal();
+			} finally {
+				lock.unlock();
+			}
+		}
+		return sequence;
+	}
+
+	/** Sequence of the last record appended; {@link #append} callers only. */
+	long lastSequence() {
+		return nextSequence - 1;
+	}
+
+	/** Blocks until the record with this sequence, and everything before it, is on disk. */
+	void awaitDurable(long sequence) {
+		if (!fsync || durable >= sequence) {
+			checkFailure();
+			return;
+		}
+		lock.lock();
+		try {
+			while (durable < sequence) {
+				checkFailure();
+				flushed.awaitUninterruptibly();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** Deletes the segments holding only records up to {@code sequence}, which a snapshot now covers. */
+	void deleteSegmentsThrough(long sequence) throws IOException {
+		List<Path> obsolete = new ArrayList<>();
+		lock.lock();
+		try {
+			Iterator<Map.Entry<Long, Path>> segments = segmentFiles.entrySet().iterator();
+			while (segments.hasNext()) {
+				Map.Entry<Long, Path> segment = segments.next();
+				Long successor = segmentFiles.higherKey(segment.getKey());
+				if (successor == null || successor > sequence + 1) {
+					break;
+				}
+				obsolete.add(segment.getValue());
+				segments.remove();
+			}
+		} finally {
+			lock.unlock();
+		}
+		for (Path path : obsolete) {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	int segmentCount() {
+		lock.lock();
+		try {
+			return segmentFiles.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void close() {
+		running = false;
+		lock.lock();
+		try {
+			appended.signal();
+		} finally {
+			lock.unlock();
+		}
+		if (flusher != null) {
+			try {
+				flusher.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	static void forceDirectory(Path directory) throws IOException {
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+	}
+
+	private void recover(long afterSequence, Consumer<JournalRecord> replay) throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				segmentFiles.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())), file);
+			}
+		}
+		long expected = segmentFiles.isEmpty() ? afterSequence + 1 : segmentFiles.firstKey();
+		if (expected > afterSequence + 1) {
+			throw new IOException("Ledger journal starts at record " + expected + " but the snapshot ends at "
+					+ afterSequence);
+		}
+		List<JournalRecord> group = new ArrayList<>();
+		long lastComplete = expected - 1;
+		Iterator<Map.Entry<Long, Path>> segments = segmentFiles.entrySet().iterator();
+		while (segments.hasNext()) {
+			Map.Entry<Long, Path> entry = segments.next();
+			if (entry.getKey() != expected) {
+				throw new IOException("Ledger journal segment " + entry.getValue() + " should start at record "
+						+ expected);
+			}
+			Segment segment = map(entry.getValue(), entry.getKey());
+			int offset = 0;
+			int completeOffset = 0;
+			while (offset + RECORD_BYTES <= segment.capacity) {
+				JournalRecord record = read(segment.buffer, offset, expected);
+				if (record == null) {
+					break;
+				}
+				group.add(record);
+				offset += RECORD_BYTES;
+				expected++;
+				if (scratch.getShort(FOLLOWING_OFFSET) == 0) {
+					for (JournalRecord member : group) {
+						if (member.getSequence() > afterSequence) {
+							replay.accept(member);
+						}
+					}
+					group.clear();
+					completeOffset = offset;
+					lastComplete = record.getSequence();
+				}
+			}
+			if (segments.hasNext()) {
+				if (!group.isEmpty()) {
+					throw new IOException("Ledger journal segment " + entry.getValue() + " ends inside a group");
+				}
+				continue;
+			}
+			// The last segment: drop a torn record or unfinished group and carry on writing where it began
+			expected -= group.size();
+			group.clear();
+			int end = Math.min(offset + RECORD_BYTES, segment.capacity);
+			segment.buffer.put(completeOffset, new byte[end - completeOffset]);
+			if (fsync) {
+				segment.buffer.force(completeOffset, end - completeOffset);
+			}
+			current = segment;
+			writeOffset = completeOffset;
+			segment.end = completeOffset;
+			segment.forcedUpTo = completeOffset;
+		}
+		if (lastComplete < afterSequence) {
+			throw new IOException("Ledger journal ends at record " + lastComplete + " but the snapshot ends at "
+					+ afterSequence);
+		}
+		nextSequence = lastComplete + 1;
+		written = lastComplete;
+		durable = lastComplete;
+		if (current == null) {
+			roll();
+		}
+	}
+
+	// A valid record with the expected sequence, left in scratch, or null where the log ends
+	private JournalRecord read(MappedByteBuffer buffer, int offset, long expectedSequence) {
+		buffer.get(offset, scratch.array(), 0, RECORD_BYTES);
+		checksum.reset();
+		checksum.update(scratch.array(), 0, CHECKSUMMED_BYTES);
+		if ((int) checksum.getValue() != scratch.getInt(CHECKSUMMED_BYTES)) {
+			return null;
+		}
+		long sequence = scratch.getLong(0);
+		if (sequence != expectedSequence) {
+			return null;
+		}
+		return new JournalRecord(sequence, scratch.getLong(8), scratch.getLong(16), scratch.getLong(24),
+				scratch.getLong(32), scratch.get(40), scratch.get(41));
+	}
+
+	private void roll() {
+		Path path = directory.resolve(String.format("%s%020d%s", PREFIX, nextSequence, SUFFIX));
+		Segment next;
+		try {
+			next = map(path, nextSequence);
+			if (fsync) {
+				forceDirectory(directory);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not create ledger journal segment " + path, e);
+		}
+		lock.lock();
+		try {
+			if (current != null) {
+				current.end = writeOffset;
+				unforced.add(current);
+			}
+			current = next;
+			segmentFiles.put(next.firstSequence, path);
+		} finally {
+			lock.unlock();
+		}
+		writeOffset = 0;
+	}
+
+	private Segment map(Path path, long firstSequence) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			long size = Math.max(channel.size(), segmentBytes) / RECORD_BYTES * RECORD_BYTES;
+			return new Segment(firstSequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+		}
+	}
+
+	private void flushLoop() {
+		try {
+			while (true) {
+				long target;
+				List<Segment> retired;
+				Segment active;
+				int end;
+				lock.lock();
+				try {
+					while (running && written == durable) {
+						appended.await();
+					}
+					if (written == durable) {
+						return;
+					}
+					target = written;
+					retired = new ArrayList<>(unforced);
+					unforced.clear();
+					active = current;
+					end = active.end;
+				} finally {
+					lock.unlock();
+				}
+				for (Segment segment : retired) {
+					segment.force(segment.end);
+				}
+				active.force(end);
+				lock.lock();
+				try {
+					durable = target;
+					flushed.signalAll();
+				} finally {
+					lock.unlock();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			fail(e);
+		} catch (RuntimeException | Error e) {
+			fail(e);
+		}
+	}
+
+	// Nothing is acknowledged once a flush has failed: the journal stops and every waiter gets the error
+	private void fail(Throwable cause) {
+		lock.lock();
+		try {
+			failure = cause;
+			flushed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void checkFailure() {
+		Throwable failed = failure;
+		if (failed != null) {
+			throw new IllegalStateException("Ledger journal has failed", failed);
+		}
+	}
+
+	private static final class Segment {
+		private final long firstSequence;
+		private final MappedByteBuffer buffer;
+		private final int capacity;
+		// Published under the journal's lock
+		private int end;
+		// Flusher thread only
+		private int forcedUpTo;
+
+		private Segment(long firstSequence, MappedByteBuffer buffer) {
+			this.firstSequence = firstSequence;
+			this.buffer = buffer;
+			this.capacity = buffer.capacity();
+		}
+
+		private void force(int upTo) {
+			if (upTo > forcedUpTo) {
+				buffer.force(forcedUpTo, upTo - forcedUpTo);
+				forcedUpTo = upTo;
+			}
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.bank.transaction.ledger;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.TransactionType;
+
+/**
+ * One balance change accepted by the {@link Ledger}: the journal sequence it
+ * was written under and the account's balance right after it.
+ */
+public final class LedgerPosting {
+
+	private final long sequence;
+	private final long accountId;
+	private final TransactionType type;
+	private final long change;
+	private final long balanceAfter;
+
+	LedgerPosting(long sequence, long accountId, TransactionType type, long change, long balanceAfter) {
+		this.sequence = sequence;
+		this.accountId = accountId;
+		this.type = type;
+		this.change = change;
+		this.balanceAfter = balanceAfter;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public long getAccountId() {
+		return accountId;
+	}
+
+	public TransactionType getType() {
+		return type;
+	}
+
+	public Money getBalanceAfter() {
+		return Money.ofMinor(balanceAfter);
+	}
+
+	long getChange() {
+		return change;
+	}
+}
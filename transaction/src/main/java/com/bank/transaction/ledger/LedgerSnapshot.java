@@ -0,0 +1,122 @@
+package com.bank.transaction.ledger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.TreeMap;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Every balance as of one journal sequence, in a file named after that
+ * sequence: a magic number, the sequence, the account count, then account id
+ * and balance pairs, closed by a CRC32C of everything before it.
+ *
+ * <p>A snapshot is written to a temporary file, forced and renamed into
+ * place, so the newest snapshot file is always complete; older ones are
+ * deleted once it is.
+ */
+final class LedgerSnapshot {
+
+	private static final int MAGIC = 0x4C475331; // "LGS1"
+	private static final String PREFIX = "snapshot-";
+	private static final String SUFFIX = ".bin";
+
+	private final long sequence;
+	private final AccountBalances balances;
+
+	LedgerSnapshot(long sequence, AccountBalances balances) {
+		this.sequence = sequence;
+		this.balances = balances;
+	}
+
+	long getSequence() {
+		return sequence;
+	}
+
+	AccountBalances getBalances() {
+		return balances;
+	}
+
+	/** The newest snapshot in the directory, or null if none has been taken. */
+	static LedgerSnapshot readLatest(Path directory, int expectedAccounts) throws IOException {
+		TreeMap<Long, Path> snapshots = list(directory);
+		if (snapshots.isEmpty()) {
+			return null;
+		}
+		Path file = snapshots.lastEntry().getValue();
+		CRC32C checksum = new CRC32C();
+		try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+			DataInputStream in = new DataInputStream(new CheckedInputStream(raw, checksum));
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a ledger snapshot: " + file);
+			}
+			long sequence = in.readLong();
+			int count = in.readInt();
+			AccountBalances balances = new AccountBalances(Math.max(count, expectedAccounts));
+			for (int i = 0; i < count; i++) {
+				balances.put(in.readLong(), in.readLong());
+			}
+			int expected = (int) checksum.getValue();
+			if (new DataInputStream(raw).readInt() != expected) {
+				throw new IOException("Ledger snapshot " + file + " fails its checksum");
+			}
+			return new LedgerSnapshot(sequence, balances);
+		}
+	}
+
+	/** Writes this snapshot durably, then removes the ones it supersedes. */
+	void write(Path directory) throws IOException {
+		Path target = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+		Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+		CRC32C checksum = new CRC32C();
+		try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+			BufferedOutputStream buffered = new BufferedOutputStream(file, 1 << 16);
+			DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, checksum));
+			out.writeInt(MAGIC);
+			out.writeLong(sequence);
+			out.writeInt(balances.size());
+			IOException[] failure = new IOException[1];
+			balances.forEach((accountId, balance) -> {
+				try {
+					out.writeLong(accountId);
+					out.writeLong(balance);
+				} catch (IOException e) {
+					failure[0] = e;
+				}
+			});
+			if (failure[0] != null) {
+				throw failure[0];
+			}
+			out.flush();
+			new DataOutputStream(buffered).writeInt((int) checksum.getValue());
+			buffered.flush();
+			file.getChannel().force(true);
+		}
+		Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		LedgerJournal.forceDirectory(directory);
+		for (Path older : list(directory).headMap(sequence).values()) {
+			Files.deleteIfExists(older);
+		}
+	}
+
+	private static TreeMap<Long, Path> list(Path directory) throws IOException {
+		TreeMap<Long, Path> snapshots = new TreeMap<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				snapshots.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())), file);
+			}
+		}
+		return snapshots;
+	}
+}
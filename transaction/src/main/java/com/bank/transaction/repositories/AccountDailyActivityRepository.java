@@ -0,0 +1,29 @@
+package com.bank.transaction.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bank.transaction.entities.AccountDailyActivity;
+
+public interface AccountDailyActivityRepository extends JpaRepository<AccountDailyActivity, AccountDailyActivity.Key> {
+
+    // One statement whether or not the day's row exists yet; concurrent writers serialize on the row lock
+    @Modifying
+    @Query(value = "insert into account_daily_activity (account_id, activity_date, type, transaction_count, total_amount)"
+            + " values (:accountId, :activityDate, :type, :count, :amount)"
+            + " on duplicate key update transaction_count = transaction_count + :count,"
+            + " total_amount = total_amount + :amount", nativeQuery = true)
+    int increment(@Param("accountId") Long accountId, @Param("activityDate") LocalDate activityDate,
+            @Param("type") int type, @Param("count") long count, @Param("amount") BigDecimal amount);
+
+    @Query("select a from AccountDailyActivity a where a.accountId = :accountId"
+            + " and a.activityDate >= :from and a.activityDate <= :to order by a.activityDate")
+    List<AccountDailyActivity> findRange(@Param("accountId") Long accountId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+}
@@ -0,0 +1,31 @@
+package com.bank.transaction.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bank.transaction.entities.BalanceOutboxEntry;
+import com.bank.transaction.entities.OutboxStatus;
+
+public interface BalanceOutboxRepository extends JpaRepository<BalanceOutboxEntry, Long> {
+
+    @Query("select coalesce(sum(o.amount), 0) from BalanceOutboxEntry o"
+            + " where o.accountId = :accountId and o.status = :status")
+    BigDecimal sumAmount(@Param("accountId") Long accountId, @Param("status") OutboxStatus status);
+
+    // Due entries in id order, skipping any account whose earlier entry is still backing off,
+    // so an account's changes always reach the account service in the order they were made
+    @Query("select o from BalanceOutboxEntry o where o.status = :status and o.nextAttemptAt <= :now"
+            + " and not exists (select 1 from BalanceOutboxEntry e where e.accountId = o.accountId"
+            + " and e.status = :status and e.id < o.id and e.nextAttemptAt > :now)"
+            + " order by o.id")
+    List<BalanceOutboxEntry> findDue(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now,
+            Limit limit);
+
+    long countByStatus(OutboxStatus status);
+}
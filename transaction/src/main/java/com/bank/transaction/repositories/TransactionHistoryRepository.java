@@ -0,0 +1,33 @@
+package com.bank.transaction.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+
+import com.bank.transaction.entities.Transaction;
+
+/**
+ * History reads spanning both tiers: months still in the database and
+ * months moved to the {@link com.bank.transaction.archive.TransactionArchive}.
+ * Rows come back newest first, ordered by (timestamp, id) descending.
+ */
+public interface TransactionHistoryRepository {
+
+    List<Transaction> findTop10ByAccountIdOrderByTimestampDesc(Long accountId);
+
+    // Keyset pagination: pages are located by the last (timestamp, id) seen, never by OFFSET
+    List<Transaction> findHistory(Long accountId, LocalDateTime from, LocalDateTime to, Limit limit);
+
+    List<Transaction> findHistoryBefore(Long accountId, LocalDateTime from, LocalDateTime beforeTimestamp,
+            Long beforeId, Limit limit);
+
+    /**
+     * Every row of the account with {@code from <= timestamp < to}, oldest
+     * first, read through a database cursor. Rows are detached as they are
+     * consumed, so memory stays flat however long the range. Must be consumed
+     * and closed inside the caller's transaction.
+     */
+    Stream<Transaction> streamHistory(Long accountId, LocalDateTime from, LocalDateTime to);
+}
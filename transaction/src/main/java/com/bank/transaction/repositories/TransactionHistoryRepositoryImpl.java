@@ -0,0 +1,128 @@
+package com.bank.transaction.repositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+
+import com.bank.transaction.archive.TransactionArchive;
+import com.bank.transaction.entities.Transaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Reads the database first and only opens archived segments when the hot
+ * rows alone do not fill the page. Rows at or after the archive boundary are
+ * read from the database and rows before it from the archive, so the two
+ * results never overlap and are simply concatenated.
+ */
+class TransactionHistoryRepositoryImpl implements TransactionHistoryRepository {
+
+    private static final int LATEST = 10;
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_POSSIBLE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectProvider<TransactionArchive> archive;
+
+    TransactionHistoryRepositoryImpl(ObjectProvider<TransactionArchive> archive) {
+        this.archive = archive;
+    }
+
+    @Override
+    public List<Transaction> findTop10ByAccountIdOrderByTimestampDesc(Long accountId) {
+        return findHistory(accountId, EARLIEST, LATEST_POSSIBLE, Limit.of(LATEST));
+    }
+
+    @Override
+    public List<Transaction> findHistory(Long accountId, LocalDateTime from, LocalDateTime to, Limit limit) {
+        LocalDateTime boundary = archivedBefore();
+        List<Transaction> rows = new ArrayList<>();
+        LocalDateTime hotFrom = boundary != null && boundary.isAfter(from) ? boundary : from;
+        if (hotFrom.isBefore(to)) {
+            rows.addAll(entityManager.createQuery("select t from Transaction t where t.accountId = :accountId"
+                    + " and t.timestamp >= :from and t.timestamp < :to"
+                    + " order by t.timestamp desc, t.id desc", Transaction.class)
+                    .setParameter("accountId", accountId)
+                    .setParameter("from", hotFrom)
+                    .setParameter("to", to)
+                    .setMaxResults(max(limit))
+                    .getResultList());
+        }
+        if (rows.size() < max(limit) && boundary != null && from.isBefore(boundary)) {
+            LocalDateTime coldBefore = to.isBefore(boundary) ? to : boundary;
+            rows.addAll(archive.getObject().findHistory(accountId, from, coldBefore, null, max(limit) - rows.size()));
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Transaction> findHistoryBefore(Long accountId, LocalDateTime from, LocalDateTime beforeTimestamp,
+            Long beforeId, Limit limit) {
+        LocalDateTime boundary = archivedBefore();
+        List<Transaction> rows = new ArrayList<>();
+        LocalDateTime hotFrom = boundary != null && boundary.isAfter(from) ? boundary : from;
+        if (!beforeTimestamp.isBefore(hotFrom)) {
+            rows.addAll(entityManager.createQuery("select t from Transaction t where t.accountId = :accountId"
+                    + " and t.timestamp >= :from"
+                    + " and (t.timestamp < :beforeTimestamp or (t.timestamp = :beforeTimestamp and t.id < :beforeId))"
+                    + " order by t.timestamp desc, t.id desc", Transaction.class)
+                    .setParameter("accountId", accountId)
+                    .setParameter("from", hotFrom)
+                    .setParameter("beforeTimestamp", beforeTimestamp)
+                    .setParameter("beforeId", beforeId)
+                    .setMaxResults(max(limit))
+                    .getResultList());
+        }
+        if (rows.size() < max(limit) && boundary != null && from.isBefore(boundary)) {
+            List<Transaction> cold = beforeTimestamp.isBefore(boundary)
+                    ? archive.getObject().findHistory(accountId, from, beforeTimestamp, beforeId, max(limit) - rows.size())
+                    : archive.getObject().findHistory(accountId, from, boundary, null, max(limit) - rows.size());
+            rows.addAll(cold);
+        }
+        return rows;
+    }
+
+    @Override
+    public Stream<Transaction> streamHistory(Long accountId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime boundary = archivedBefore();
+        boolean archived = boundary != null && from.isBefore(boundary);
+        LocalDateTime hotFrom = archived ? boundary : from;
+        Stream<Transaction> cold = archived
+                ? archive.getObject().streamHistory(accountId, from, to.isBefore(boundary) ? to : boundary)
+                : Stream.empty();
+        if (!hotFrom.isBefore(to)) {
+            return cold;
+        }
+        // Not wrapped in flatMap: iterating a flat-mapped stream buffers the whole inner result
+        Stream<Transaction> hot = entityManager
+                .createQuery("select t from Transaction t where t.accountId = :accountId"
+                        + " and t.timestamp >= :from and t.timestamp < :to"
+                        + " order by t.timestamp, t.id", Transaction.class)
+                .setParameter("accountId", accountId)
+                .setParameter("from", hotFrom)
+                .setParameter("to", to)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+        return Stream.concat(cold, hot);
+    }
+
+    private LocalDateTime archivedBefore() {
+        TransactionArchive transactionArchive = archive.getIfAvailable();
+        return transactionArchive == null ? null : transactionArchive.archivedBefore();
+    }
+
+    private static int max(Limit limit) {
+        return limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+    }
+}
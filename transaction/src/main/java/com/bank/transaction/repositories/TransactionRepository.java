@@ -3,8 +3,6 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.bank.transaction.entities.Transaction;
 
-import java.util.List;
-
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findTop10ByAccountIdOrderByTimestampDesc(Long accountId);
-}
\ No newline at end of file
+// History reads are implemented in TransactionHistoryRepositoryImpl, which also consults the archive
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionHistoryRepository {
+}
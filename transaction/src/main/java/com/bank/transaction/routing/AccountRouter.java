@@ -0,0 +1,51 @@
+package com.bank.transaction.routing;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which instance owns an account. Every instance is configured with
+ * the same member list, builds the same ring and so agrees on the owner
+ * without coordinating. Membership is static: changing it means restarting
+ * every instance with the new list, and only the accounts whose owner changed
+ * are then routed elsewhere.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.sharding.enabled", havingValue = "true")
+public class AccountRouter {
+
+	private final String self;
+	private final ConsistentHashRing ring;
+
+	public AccountRouter(@Value("${transaction.sharding.self}") String self,
+			@Value("${transaction.sharding.members}") String members,
+			@Value("${transaction.sharding.virtual-nodes:128}") int virtualNodes) {
+		this.self = normalize(self);
+		this.ring = new ConsistentHashRing(Arrays.stream(members.split(",")).map(String::trim)
+				.filter(m -> !m.isEmpty()).map(AccountRouter::normalize).toList(), virtualNodes);
+	}
+
+	public String self() {
+		return self;
+	}
+
+	public String ownerOf(Long accountId) {
+		return ring.ownerOf(accountId);
+	}
+
+	public boolean isLocal(Long accountId) {
+		return self.equals(ownerOf(accountId));
+	}
+
+	public List<String> members() {
+		return ring.members();
+	}
+
+	private static String normalize(String member) {
+		return member.endsWith("/") ? member.substring(0, member.length() - 1) : member;
+	}
+}
@@ -0,0 +1,297 @@
+package com.bank.transaction.routing;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.bank.transaction.exceptions.ErrorResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sends every per-account request to the instance that owns the account, so
+ * all changes to one account are serialized by a single instance's locks and
+ * replicas add throughput instead of contention. Requests for accounts owned
+ * here, and requests already forwarded once, are handled locally; the rest
+ * are proxied to the owner and its response is passed back unchanged.
+ *
+ * <p>Batches and transfers are sent to the owner when all their accounts
+ * share one. Otherwise they are handled where they arrive only if the account
+ * service applies balance changes atomically (delta updates without the
+ * outbox); in the other modes no single instance's locks would cover them, so
+ * they are refused with 409.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.sharding.enabled", havingValue = "true")
+public class AccountRoutingFilter extends OncePerRequestFilter {
+
+	static final String FORWARDED_HEADER = "X-Forwarded-By-Shard";
+	static final String SERVED_BY_HEADER = "X-Served-By";
+
+	private static final Logger log = LoggerFactory.getLogger(AccountRoutingFilter.class);
+	private static final Pattern ACCOUNT_PATH = Pattern.compile("/api/transactions/accounts/(\\d+)(/.*)?");
+	private static final String TRANSFER_PATH = "/api/transactions/transfers";
+	private static final String BATCH_PATH = "/api/transactions/batch";
+	// Managed by the HTTP client itself, or meaningless on the next hop
+	private static final Set<String> SKIPPED_HEADERS = Set.of("host", "connection", "content-length", "expect",
+			"upgrade", "keep-alive", "transfer-encoding", "te", "trailer", "proxy-connection", "http2-settings");
+
+	private final AccountRouter router;
+	private final ObjectMapper objectMapper;
+	private final Duration forwardTimeout;
+	private final HttpClient httpClient;
+	private final boolean crossShardAllowed;
+
+	public AccountRoutingFilter(AccountRouter router, ObjectMapper objectMapper,
+			@Value("${transaction.sharding.forward-timeout-ms:5000}") long forwardTimeoutMillis,
+			@Value("${account-service.delta-updates:false}") boolean deltaUpdates,
+			@Value("${account-service.outbox.enabled:false}") boolean outboxEnabled) {
+		this.router = router;
+		this.objectMapper = objectMapper;
+		this.crossShardAllowed = deltaUpdates && !outboxEnabled;
+		this.forwardTimeout = Duration.ofMillis(forwardTimeoutMillis);
+		this.httpClient = HttpClient.newBuilder()
+				.connectTimeout(Duration.ofMillis(Math.min(forwardTimeoutMillis, 1_000)))
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		if (request.getHeader(FORWARDED_HEADER) != null) {
+			serveLocally(request, response, chain);
+			return;
+		}
+		String path = request.getRequestURI();
+		if (TRANSFER_PATH.equals(path) || BATCH_PATH.equals(path)) {
+			routeMultiAccount(request, response, chain);
+			return;
+		}
+		Matcher matcher = ACCOUNT_PATH.matcher(path);
+		if (!matcher.matches()) {
+			serveLocally(request, response, chain);
+			return;
+		}
+		long accountId;
+		try {
+			accountId = Long.parseLong(matcher.group(1));
+		} catch (NumberFormatException e) {
+			writeError(request, response, HttpStatus.BAD_REQUEST, "BAD_REQUEST", "Account id is out of range");
+			return;
+		}
+		String owner = router.ownerOf(accountId);
+		if (owner.equals(router.self())) {
+			serveLocally(request, response, chain);
+			return;
+		}
+		forward(owner, request, request.getInputStream().readAllBytes(), response);
+	}
+
+	private void routeMultiAccount(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		byte[] body = request.getInputStream().readAllBytes();
+		HttpServletRequest buffered = new BufferedBodyRequest(request, body);
+		Set<Long> accountIds = accountIds(request.getRequestURI(), body);
+		if (accountIds == null) {
+			// Malformed; the controller rejects it
+			serveLocally(buffered, response, chain);
+			return;
+		}
+		Set<String> owners = new HashSet<>();
+		for (Long accountId : accountIds) {
+			owners.add(router.ownerOf(accountId));
+		}
+		if (owners.size() == 1 && !owners.contains(router.self())) {
+			forward(owners.iterator().next(), request, body, response);
+		} else if (owners.size() <= 1 || crossShardAllowed) {
+			serveLocally(buffered, response, chain);
+		} else {
+			writeError(request, response, HttpStatus.CONFLICT, "CROSS_SHARD_OPERATION",
+					"Accounts are owned by different instances: " + owners);
+		}
+	}
+
+	// Null when the body does not name its accounts as integers
+	private Set<Long> accountIds(String path, byte[] body) {
+		JsonNode root;
+		try {
+			root = objectMapper.readTree(body);
+		} catch (IOException e) {
+			return null;
+		}
+		if (root == null || !root.isObject()) {
+			return null;
+		}
+		List<JsonNode> ids = new ArrayList<>();
+		if (TRANSFER_PATH.equals(path)) {
+			ids.add(root.get("fromAccountId"));
+			ids.add(root.get("toAccountId"));
+		} else {
+			JsonNode operations = root.get("operations");
+			if (operations == null || !operations.isArray()) {
+				return null;
+			}
+			for (JsonNode operation : operations) {
+				ids.add(operation.get("accountId"));
+			}
+		}
+		Set<Long> accountIds = new HashSet<>();
+		for (JsonNode id : ids) {
+			if (id == null || !id.isIntegralNumber() || !id.canConvertToLong()) {
+				return null;
+			}
+			accountIds.add(id.longValue());
+		}
+		return accountIds;
+	}
+
+	private void serveLocally(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		response.setHeader(SERVED_BY_HEADER, router.self());
+		chain.doFilter(request, response);
+	}
+
+	private void forward(String owner, HttpServletRequest request, byte[] body, HttpServletResponse response)
+			throws IOException {
+		String query = request.getQueryString();
+		URI target = URI.create(owner + request.getRequestURI() + (query == null ? "" : "?" + query));
+		HttpRequest.Builder forwarded = HttpRequest.newBuilder(target)
+				.timeout(forwardTimeout)
+				.method(request.getMethod(), body.length == 0 ? HttpRequest.BodyPublishers.noBody()
+						: HttpRequest.BodyPublishers.ofByteArray(body));
+		for (String name : Collections.list(request.getHeaderNames())) {
+			if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+				for (String value : Collections.list(request.getHeaders(name))) {
+					forwarded.header(name, value);
+				}
+			}
+		}
+		forwarded.header(FORWARDED_HEADER, router.self());
+
+		HttpResponse<byte[]> answer;
+		try {
+			answer = httpClient.send(forwarded.build(), HttpResponse.BodyHandlers.ofByteArray());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			ownerUnavailable(owner, request, response, e);
+			return;
+		} catch (IOException e) {
+			ownerUnavailable(owner, request, response, e);
+			return;
+		}
+
+		response.setStatus(answer.statusCode());
+		for (Map.Entry<String, List<String>> header : answer.headers().map().entrySet()) {
+			String name = header.getKey();
+			if (!name.startsWith(":") && !SKIPPED_HEADERS.contains(name.toLowerCase())) {
+				for (String value : header.getValue()) {
+					response.addHeader(name, value);
+				}
+			}
+		}
+		response.setContentLength(answer.body().length);
+		response.getOutputStream().write(answer.body());
+	}
+
+	private void ownerUnavailable(String owner, HttpServletRequest request, HttpServletResponse response,
+			Exception cause) throws IOException {
+		log.warn("Could not forward {} {} to owner {}", request.getMethod(), request.getRequestURI(), owner, cause);
+		writeError(request, response, HttpStatus.SERVICE_UNAVAILABLE, "SHARD_OWNER_UNAVAILABLE",
+				"Instance owning this account is unavailable: " + owner);
+	}
+
+	private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String code,
+			String message) throws IOException {
+		ErrorResponse error = new ErrorResponse();
+		error.setTimestamp(LocalDateTime.now());
+		error.setStatus(status.value());
+		error.setError(code);
+		error.setMessage(message);
+		error.setPath("uri=" + request.getRequestURI());
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), error);
+	}
+
+	// Replays a body the filter already read, for the controller handling the request locally
+	private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		private BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+			super(request);
+			this.body = body;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream in = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+				@Override
+				public int read() {
+					return in.read();
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) {
+					return in.read(buffer, offset, length);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return in.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener listener) {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+		}
+	}
+}
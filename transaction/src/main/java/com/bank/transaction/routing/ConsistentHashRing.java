@@ -0,0 +1,95 @@
+package com.bank.transaction.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable consistent-hash ring mapping account ids to cluster members. Each
+ * member is placed at many points on the ring so accounts spread evenly, and
+ * adding or removing a member only moves the accounts that hash next to its
+ * points: roughly {@code 1/n} of them rather than nearly all.
+ */
+public final class ConsistentHashRing {
+
+	private final List<String> members;
+	private final long[] points;
+	private final String[] owners;
+
+	public ConsistentHashRing(List<String> members, int virtualNodes) {
+		if (virtualNodes <= 0) {
+			throw new IllegalArgumentException("Virtual node count must be positive");
+		}
+		Set<String> distinct = new LinkedHashSet<>(members);
+		if (distinct.isEmpty()) {
+			throw new IllegalArgumentException("A hash ring needs at least one member");
+		}
+		this.members = List.copyOf(distinct);
+
+		List<Point> placed = new ArrayList<>(distinct.size() * virtualNodes);
+		for (String member : distinct) {
+			for (int i = 0; i < virtualNodes; i++) {
+				placed.add(new Point(hash(member + "#" + i), member));
+			}
+		}
+		// Sort by position, breaking ties by member so every instance builds the same ring
+		placed.sort((a, b) -> a.position != b.position ? Long.compare(a.position, b.position)
+				: a.member.compareTo(b.member));
+		this.points = new long[placed.size()];
+		this.owners = new String[placed.size()];
+		for (int i = 0; i < placed.size(); i++) {
+			points[i] = placed.get(i).position;
+			owners[i] = placed.get(i).member;
+		}
+	}
+
+	public String ownerOf(Long accountId) {
+		int index = Arrays.binarySearch(points, mix(accountId));
+		if (index < 0) {
+			index = -index - 1;
+		}
+		return owners[index == points.length ? 0 : index];
+	}
+
+	public List<String> members() {
+		return members;
+	}
+
+	static long mix(long key) {
+		// 64-bit finalizer from MurmurHash3: sequential ids land far apart on the ring
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+
+	private static long hash(String value) {
+		try {
+			byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+			long hash = 0;
+			for (int i = 0; i < Long.BYTES; i++) {
+				hash = (hash << 8) | (digest[i] & 0xff);
+			}
+			return hash;
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("MD5 is required by every Java platform", e);
+		}
+	}
+
+	private static final class Point {
+		private final long position;
+		private final String member;
+
+		private Point(long position, String member) {
+			this.position = position;
+			this.member = member;
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.bank.transaction.service;
+
+import java.math.BigDecimal;
+
+import com.bank.transaction.entities.TransactionDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+public interface ReactiveTransactionService {
+	Mono<TransactionDTO> deposit(Long accountId, BigDecimal amount);
+	Mono<TransactionDTO> withdraw(Long accountId, BigDecimal amount);
+	Flux<TransactionDTO> getLastTenTransactions(Long accountId);
+
+}
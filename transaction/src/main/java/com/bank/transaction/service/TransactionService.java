@@ -1,14 +1,33 @@
 package com.bank.transaction.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import com.bank.transaction.entities.AccountSummary;
+import com.bank.transaction.entities.BatchOperationRequest;
+import com.bank.transaction.entities.BatchTransactionResponse;
+import com.bank.transaction.entities.ExportFormat;
+import com.bank.transaction.entities.SummaryGranularity;
 import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionPage;
+import com.bank.transaction.entities.TransferDTO;
 
 
 public interface TransactionService {
 	TransactionDTO deposit(Long accountId, BigDecimal amount);
 	TransactionDTO withdraw(Long accountId, BigDecimal amount);
+	TransactionDTO deposit(Long accountId, BigDecimal amount, String idempotencyKey);
+	TransactionDTO withdraw(Long accountId, BigDecimal amount, String idempotencyKey);
+	TransferDTO transfer(Long fromAccountId, Long toAccountId, BigDecimal amount);
 	List<TransactionDTO> getLastTenTransactions(Long accountId);
+	TransactionPage getTransactionHistory(Long accountId, LocalDateTime from, LocalDateTime to, String cursor, int size);
+	void exportTransactions(Long accountId, LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out)
+			throws IOException;
+	AccountSummary getAccountSummary(Long accountId, LocalDate from, LocalDate to, SummaryGranularity granularity);
+	BatchTransactionResponse processBatch(List<BatchOperationRequest> operations);
 
 }
@@ -0,0 +1,67 @@
+package com.bank.transaction.service.impl;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bank.transaction.entities.AccountDailyActivity;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.repositories.AccountDailyActivityRepository;
+
+/**
+ * Adds newly stored transactions to the per-account daily aggregates. Must run
+ * in the database transaction that inserted the rows, so the aggregates and
+ * the rows they count commit or roll back together. The rows also reach
+ * {@link RecentTransactions} once that transaction commits.
+ */
+@Component
+public class AccountActivityRecorder {
+
+	// Rows are upserted in key order so two writers touching the same days cannot deadlock
+	private static final Comparator<AccountDailyActivity.Key> KEY_ORDER = Comparator
+			.comparing(AccountDailyActivity.Key::getAccountId)
+			.thenComparing(AccountDailyActivity.Key::getActivityDate)
+			.thenComparing(AccountDailyActivity.Key::getType);
+
+	private final AccountDailyActivityRepository activityRepository;
+	private final RecentTransactions recentTransactions;
+
+	public AccountActivityRecorder(AccountDailyActivityRepository activityRepository,
+			RecentTransactions recentTransactions) {
+		this.activityRepository = activityRepository;
+		this.recentTransactions = recentTransactions;
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void record(Iterable<Transaction> transactions) {
+		Map<AccountDailyActivity.Key, Totals> increments = new TreeMap<>(KEY_ORDER);
+		for (Transaction transaction : transactions) {
+			AccountDailyActivity.Key key = new AccountDailyActivity.Key(transaction.getAccountId(),
+					transaction.getTimestamp().toLocalDate(), transaction.getType());
+			increments.computeIfAbsent(key, k -> new Totals()).add(transaction.getAmount());
+		}
+		for (Map.Entry<AccountDailyActivity.Key, Totals> entry : increments.entrySet()) {
+			AccountDailyActivity.Key key = entry.getKey();
+			Totals totals = entry.getValue();
+			activityRepository.increment(key.getAccountId(), key.getActivityDate(), key.getType().ordinal(),
+					totals.count, Money.ofMinor(totals.minorUnits).toBigDecimal());
+		}
+		recentTransactions.recordAfterCommit(transactions);
+	}
+
+	private static final class Totals {
+		private long count;
+		private long minorUnits;
+
+		private void add(Money amount) {
+			this.count++;
+			this.minorUnits = Math.addExact(this.minorUnits, amount.getMinorUnits());
+		}
+	}
+}
@@ -1,17 +1,23 @@
 package com.bank.transaction.service.impl;
 
+import java.util.List;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
+import com.bank.transaction.entities.AccountBalanceAdjustment;
 import com.bank.transaction.entities.AccountDTO;
+import com.bank.transaction.entities.BalanceAdjustmentRequest;
 import com.bank.transaction.entities.UpdateBalanceRequest;
 
 
-@FeignClient(url = "http://localhost:8080",value = "Account-Client")
+// Not primary: the service talks to ManagedAccountClient, which wraps this proxy
+@FeignClient(url = "${account-service.url:http://localhost:8080}",value = "Account-Client", qualifiers = "accountFeignClient", primary = false)
 public interface AccountClient {
 	
 	@GetMapping("/api/accounts/{id}")
@@ -20,4 +26,17 @@ public interface AccountClient {
 	@PutMapping("/api/accounts/{id}/balance")
 	AccountDTO updateBalance(@PathVariable Long id,@RequestBody UpdateBalanceRequest request);
 
+	// Applies a signed change in one round trip; a debit that would overdraw the account fails with 422
+	@PostMapping("/api/accounts/{id}/balance/adjustments")
+	AccountDTO adjustBalance(@PathVariable Long id,@RequestBody BalanceAdjustmentRequest request);
+
+	// Same adjustment, applied at most once per key however often it is retried
+	@PostMapping("/api/accounts/{id}/balance/adjustments")
+	AccountDTO adjustBalance(@PathVariable Long id,@RequestHeader("Idempotency-Key") String idempotencyKey,@RequestBody BalanceAdjustmentRequest request);
+
+	// Applies all of the adjustments or none of them in one round trip, answering with the accounts in request order;
+	// 422 if any debit would overdraw its account, 404 if any account is missing
+	@PostMapping("/api/accounts/balance-adjustments")
+	List<AccountDTO> adjustBalances(@RequestBody List<AccountBalanceAdjustment> adjustments);
+
 }
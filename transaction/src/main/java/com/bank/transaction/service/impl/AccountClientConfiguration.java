@@ -0,0 +1,16 @@
+package com.bank.transaction.service.impl;
+
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AccountClientConfiguration {
+
+	// HttpClient 5 retries 429 and 503 responses even for POST, which would apply a balance change twice.
+	// Retrying is decided by the callers that know whether a call is safe to repeat.
+	@Bean
+	HttpClientBuilderCustomizer disableAutomaticRetries() {
+		return builder -> builder.disableAutomaticRetries();
+	}
+}
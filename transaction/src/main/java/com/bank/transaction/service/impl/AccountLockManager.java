@@ -0,0 +1,94 @@
+package com.bank.transaction.service.impl;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Serializes balance changes per account using a fixed set of striped locks.
+ * Operations on the same account always map to the same stripe and run one at
+ * a time, while operations on different accounts almost always land on
+ * different stripes and run in parallel.
+ */
+@Component
+public class AccountLockManager {
+
+	static final int DEFAULT_STRIPES = 1024;
+
+	private final ReentrantLock[] stripes;
+	private final int mask;
+
+	public AccountLockManager() {
+		this(DEFAULT_STRIPES);
+	}
+
+	@Autowired
+	public AccountLockManager(@Value("${transaction.account-locks.stripes:1024}") int stripeCount) {
+		if (stripeCount <= 0) {
+			throw new IllegalArgumentException("Lock stripe count must be positive");
+		}
+		int size = Integer.highestOneBit(stripeCount);
+		if (size < stripeCount) {
+			size <<= 1;
+		}
+		this.stripes = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+		this.mask = size - 1;
+	}
+
+	public <T> T withAccountLock(Long accountId, Supplier<T> action) {
+		ReentrantLock lock = lockFor(accountId);
+		lock.lock();
+		try {
+			return action.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Locks the given accounts until the surrounding transaction has committed
+	 * or rolled back, so the next operation on those accounts sees everything
+	 * written under the lock. Stripes are taken in index order, which keeps two
+	 * callers locking overlapping sets of accounts from deadlocking.
+	 */
+	public void lockUntilCompletion(Collection<Long> accountIds) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("Account locks can only be held until completion inside a transaction");
+		}
+		int[] indices = accountIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+		for (int i = 0; i < indices.length; i++) {
+			stripes[indices[i]].lock();
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				for (int i = indices.length - 1; i >= 0; i--) {
+					stripes[indices[i]].unlock();
+				}
+			}
+		});
+	}
+
+	ReentrantLock lockFor(Long accountId) {
+		return stripes[stripeIndex(accountId)];
+	}
+
+	int stripeIndex(Long accountId) {
+		// Spread the bits so sequential account ids do not cluster on neighbouring stripes
+		long h = accountId * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	int stripeCount() {
+		return stripes.length;
+	}
+}
@@ -0,0 +1,96 @@
+package com.bank.transaction.service.impl;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bank.transaction.exceptions.AccountServiceUnavailableException;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bulkhead and circuit breaker around every remote call to the account
+ * service. The bulkhead caps how many request threads can be waiting on the
+ * account service at once; the circuit breaker opens when calls keep failing
+ * or running slow, after which callers fail fast instead of queueing behind a
+ * dead dependency. Either way the caller gets an
+ * {@link AccountServiceUnavailableException}, as it does when a call times out.
+ *
+ * <p>Only server-side failures count against the breaker: a 404 or 422 is
+ * the account service working correctly.
+ */
+@Component
+public class AccountServiceResilience {
+
+	static final String NAME = "account-service";
+
+	private final Bulkhead bulkhead;
+	private final CircuitBreaker circuitBreaker;
+
+	public AccountServiceResilience(
+			@Value("${account-service.bulkhead.max-concurrent-calls:64}") int maxConcurrentCalls,
+			@Value("${account-service.bulkhead.max-wait-ms:20}") long maxWaitMillis,
+			@Value("${account-service.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+			@Value("${account-service.circuit-breaker.slow-call-duration-ms:1000}") long slowCallMillis,
+			@Value("${account-service.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+			@Value("${account-service.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+			@Value("${account-service.circuit-breaker.minimum-calls:10}") int minimumCalls,
+			@Value("${account-service.circuit-breaker.open-duration-ms:5000}") long openMillis,
+			MeterRegistry meterRegistry) {
+		BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+				.maxConcurrentCalls(maxConcurrentCalls)
+				.maxWaitDuration(Duration.ofMillis(maxWaitMillis))
+				.build());
+		CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+				.failureRateThreshold(failureRateThreshold)
+				.slowCallDurationThreshold(Duration.ofMillis(slowCallMillis))
+				.slowCallRateThreshold(slowCallRateThreshold)
+				.slidingWindowSize(slidingWindowSize)
+				.minimumNumberOfCalls(minimumCalls)
+				.waitDurationInOpenState(Duration.ofMillis(openMillis))
+				.recordException(AccountServiceResilience::isServerFailure)
+				// A call turned away by the bulkhead never reached the account service
+				.ignoreExceptions(BulkheadFullException.class)
+				.build());
+		this.bulkhead = bulkheads.bulkhead(NAME);
+		this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+		TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+		TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+	}
+
+	<T> T call(Supplier<T> remoteCall) {
+		try {
+			return circuitBreaker.executeSupplier(() -> bulkhead.executeSupplier(remoteCall));
+		} catch (CallNotPermittedException e) {
+			throw new AccountServiceUnavailableException("Account service is unavailable; failing fast", e);
+		} catch (BulkheadFullException e) {
+			throw new AccountServiceUnavailableException("Too many concurrent calls to the account service", e);
+		} catch (RetryableException e) {
+			// No response at all: connect or read timeout, refused or reset connection
+			throw new AccountServiceUnavailableException("Account service did not respond", e);
+		}
+	}
+
+	CircuitBreaker.State circuitState() {
+		return circuitBreaker.getState();
+	}
+
+	private static boolean isServerFailure(Throwable failure) {
+		return failure instanceof RetryableException
+				|| (failure instanceof FeignException && ((FeignException) failure).status() >= 500);
+	}
+}
@@ -0,0 +1,182 @@
+package com.bank.transaction.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction.entities.BalanceAdjustmentRequest;
+import com.bank.transaction.entities.BalanceOutboxEntry;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.OutboxStatus;
+import com.bank.transaction.exceptions.AccountServiceUnavailableException;
+import com.bank.transaction.repositories.BalanceOutboxRepository;
+
+import feign.FeignException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Delivers balance changes recorded in the outbox to the account service. A
+ * single background thread claims due entries in batches, sends each with its
+ * idempotency key and deletes the delivered ones. Transient failures (the
+ * account service unavailable, 5xx, 429) are retried with exponential backoff; any other rejection
+ * parks the entry as {@link OutboxStatus#FAILED} for reconciliation.
+ *
+ * <p>Each account's entries are sent and removed while holding that account's
+ * lock, so a request never sees a change both applied remotely and still
+ * pending locally.
+ */
+@Component
+public class BalanceOutboxDispatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(BalanceOutboxDispatcher.class);
+
+	private final BalanceOutboxRepository outboxRepository;
+	private final AccountClient accountClient;
+	private final AccountLockManager accountLockManager;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean enabled;
+	private final int batchSize;
+	private final long pollIntervalMillis;
+	private final long retryBackoffMillis;
+	private final long maxRetryBackoffMillis;
+	private ScheduledExecutorService scheduler;
+
+	public BalanceOutboxDispatcher(BalanceOutboxRepository outboxRepository, AccountClient accountClient,
+			AccountLockManager accountLockManager, PlatformTransactionManager transactionManager,
+			@Value("${account-service.outbox.enabled:false}") boolean enabled,
+			@Value("${account-service.outbox.batch-size:100}") int batchSize,
+			@Value("${account-service.outbox.poll-interval-ms:100}") long pollIntervalMillis,
+			@Value("${account-service.outbox.retry-backoff-ms:500}") long retryBackoffMillis,
+			@Value("${account-service.outbox.max-retry-backoff-ms:60000}") long maxRetryBackoffMillis) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Outbox batch size must be positive");
+		}
+		this.outboxRepository = outboxRepository;
+		this.accountClient = accountClient;
+		this.accountLockManager = accountLockManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+		this.pollIntervalMillis = pollIntervalMillis;
+		this.retryBackoffMillis = retryBackoffMillis;
+		this.maxRetryBackoffMillis = maxRetryBackoffMillis;
+	}
+
+	@PostConstruct
+	void start() {
+		if (!enabled) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "balance-outbox-dispatcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::drain, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException {
+		if (scheduler != null) {
+			scheduler.shutdown();
+			scheduler.awaitTermination(5, TimeUnit.SECONDS);
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Claims one batch of due entries and tries to deliver them.
+	 *
+	 * @return the number of entries delivered
+	 */
+	synchronized int dispatchPending() {
+		List<BalanceOutboxEntry> due = outboxRepository.findDue(OutboxStatus.PENDING, LocalDateTime.now(),
+				Limit.of(batchSize));
+		Map<Long, List<BalanceOutboxEntry>> byAccount = new LinkedHashMap<>();
+		for (BalanceOutboxEntry entry : due) {
+			byAccount.computeIfAbsent(entry.getAccountId(), id -> new ArrayList<>()).add(entry);
+		}
+		int delivered = 0;
+		for (Map.Entry<Long, List<BalanceOutboxEntry>> account : byAccount.entrySet()) {
+			delivered += accountLockManager.withAccountLock(account.getKey(), () -> dispatchAccount(account.getValue()));
+		}
+		return delivered;
+	}
+
+	private void drain() {
+		try {
+			// Keep going while there is progress so a backlog drains without waiting for the next poll
+			int delivered;
+			do {
+				delivered = dispatchPending();
+			} while (delivered > 0);
+		} catch (RuntimeException e) {
+			log.error("Unexpected failure while dispatching the balance outbox", e);
+		}
+	}
+
+	private int dispatchAccount(List<BalanceOutboxEntry> entries) {
+		List<Long> delivered = new ArrayList<>();
+		List<BalanceOutboxEntry> undelivered = new ArrayList<>();
+		for (BalanceOutboxEntry entry : entries) {
+			try {
+				accountClient.adjustBalance(entry.getAccountId(), entry.getIdempotencyKey(),
+						new BalanceAdjustmentRequest(Money.of(entry.getAmount())));
+				delivered.add(entry.getId());
+			} catch (AccountServiceUnavailableException e) {
+				undelivered.add(entry);
+				retryLater(entry, e);
+				// Later changes for this account must wait for this one
+				break;
+			} catch (FeignException e) {
+				undelivered.add(entry);
+				if (isTransient(e)) {
+					retryLater(entry, e);
+					break;
+				}
+				log.error("Account service rejected outbox entry {} for account {} ({}); parked for reconciliation",
+						entry.getId(), entry.getAccountId(), e.status());
+				entry.fail(e.getMessage());
+			}
+		}
+		transactionTemplate.executeWithoutResult(status -> {
+			if (!delivered.isEmpty()) {
+				outboxRepository.deleteAllByIdInBatch(delivered);
+			}
+			outboxRepository.saveAll(undelivered);
+		});
+		return delivered.size();
+	}
+
+	private void retryLater(BalanceOutboxEntry entry, RuntimeException failure) {
+		entry.retryAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoff(entry))),
+				failure.getMessage());
+	}
+
+	private long backoff(BalanceOutboxEntry entry) {
+		int doublings = Math.min(entry.getAttempts(), 20);
+		return Math.min(maxRetryBackoffMillis, retryBackoffMillis << doublings);
+	}
+
+	private static boolean isTransient(FeignException e) {
+		// Negative status: no response at all (connect or read failure)
+		return e.status() < 0 || e.status() >= 500 || e.status() == 429;
+	}
+}
@@ -0,0 +1,51 @@
+package com.bank.transaction.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.bank.transaction.entities.Transaction;
+
+/**
+ * Opaque position in an account's history: the (timestamp, id) of the last
+ * transaction returned, encoded as URL-safe Base64.
+ */
+final class HistoryCursor {
+
+	private final LocalDateTime timestamp;
+	private final Long id;
+
+	HistoryCursor(LocalDateTime timestamp, Long id) {
+		this.timestamp = timestamp;
+		this.id = id;
+	}
+
+	static HistoryCursor after(Transaction transaction) {
+		return new HistoryCursor(transaction.getTimestamp(), transaction.getId());
+	}
+
+	static HistoryCursor decode(String cursor) {
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separator = value.lastIndexOf('|');
+			return new HistoryCursor(LocalDateTime.parse(value.substring(0, separator)),
+					Long.valueOf(value.substring(separator + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid history cursor");
+		}
+	}
+
+	String encode() {
+		String value = timestamp + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	LocalDateTime getTimestamp() {
+		return timestamp;
+	}
+
+	Long getId() {
+		return id;
+	}
+}
@@ -0,0 +1,182 @@
+package com.bank.transaction.service.impl;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction.entities.IdempotencyRecord;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.exceptions.IdempotencyKeyReusedException;
+import com.bank.transaction.repositories.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Remembers the result of every deposit or withdrawal made under an
+ * {@code Idempotency-Key} and hands it back when the key is seen again.
+ *
+ * <p>Replays are answered from a bounded in-memory cache without touching the
+ * account service or the database. Behind the cache, each key is claimed in
+ * the {@code idempotency_record} table in the same transaction as the
+ * operation, so a retry that lands on another instance or after a restart is
+ * still recognised. Concurrent requests with the same key on this instance
+ * wait for the first one instead of racing it. Records expire after the
+ * configured TTL and are purged in the background.
+ */
+@Component
+public class IdempotencyStore {
+
+	private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+	static final int MAX_KEY_LENGTH = 64;
+
+	private final IdempotencyRecordRepository repository;
+	private final TransactionTemplate transactionTemplate;
+	private final Duration ttl;
+	private final long purgeIntervalMillis;
+	private final Cache<String, IdempotencyRecord> results;
+	private final ConcurrentMap<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+	private ScheduledExecutorService purger;
+
+	public IdempotencyStore(IdempotencyRecordRepository repository, PlatformTransactionManager transactionManager,
+			@Value("${transaction.idempotency.cache-size:100000}") long cacheSize,
+			@Value("${transaction.idempotency.ttl-ms:86400000}") long ttlMillis,
+			@Value("${transaction.idempotency.purge-interval-ms:600000}") long purgeIntervalMillis) {
+		this.repository = repository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.ttl = Duration.ofMillis(ttlMillis);
+		this.purgeIntervalMillis = purgeIntervalMillis;
+		this.results = Caffeine.newBuilder()
+				.maximumSize(cacheSize)
+				.expireAfterWrite(ttl)
+				.build();
+	}
+
+	@PostConstruct
+	void start() {
+		purger = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "idempotency-record-purger");
+			thread.setDaemon(true);
+			return thread;
+		});
+		purger.scheduleWithFixedDelay(this::purgeExpired, purgeIntervalMillis, purgeIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() {
+		if (purger != null) {
+			purger.shutdownNow();
+		}
+	}
+
+	/**
+	 * Runs {@code operation} once for {@code idempotencyKey} and returns its
+	 * result; later calls with the same key and request get that result back.
+	 *
+	 * @throws IdempotencyKeyReusedException if the key was used for a different request
+	 */
+	public TransactionDTO execute(String idempotencyKey, Long accountId, TransactionType type, BigDecimal amount,
+			Supplier<TransactionDTO> operation) {
+		if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+			throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+		}
+		IdempotencyRecord cached = results.getIfPresent(idempotencyKey);
+		if (cached != null) {
+			return replay(cached, idempotencyKey, accountId, type, amount);
+		}
+
+		CompletableFuture<IdempotencyRecord> claim = new CompletableFuture<>();
+		CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(idempotencyKey, claim);
+		if (running != null) {
+			return replay(await(running), idempotencyKey, accountId, type, amount);
+		}
+		try {
+			IdempotencyRecord record = loadOrRun(idempotencyKey, accountId, type, amount, operation);
+			results.put(idempotencyKey, record);
+			claim.complete(record);
+			return replay(record, idempotencyKey, accountId, type, amount);
+		} catch (RuntimeException e) {
+			claim.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(idempotencyKey, claim);
+		}
+	}
+
+	int purgeExpired() {
+		try {
+			Integer purged = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+			return purged == null ? 0 : purged;
+		} catch (RuntimeException e) {
+			log.warn("Failed to purge expired idempotency records", e);
+			return 0;
+		}
+	}
+
+	private IdempotencyRecord loadOrRun(String idempotencyKey, Long accountId, TransactionType type,
+			BigDecimal amount, Supplier<TransactionDTO> operation) {
+		try {
+			return transactionTemplate.execute(status -> {
+				LocalDateTime now = LocalDateTime.now();
+				Optional<IdempotencyRecord> existing = repository.findById(idempotencyKey);
+				if (existing.isPresent()) {
+					if (!existing.get().isExpired(now)) {
+						return existing.get();
+					}
+					repository.delete(existing.get());
+					repository.flush();
+				}
+				// Claimed before the operation runs: another instance inserting the same key waits on this row
+				IdempotencyRecord record = repository.saveAndFlush(
+						IdempotencyRecord.claim(idempotencyKey, accountId, type, amount, now.plus(ttl)));
+				record.complete(operation.get());
+				return record;
+			});
+		} catch (DataIntegrityViolationException e) {
+			// Another instance committed the same key first; answer with its result
+			return repository.findById(idempotencyKey).orElseThrow(() -> e);
+		}
+	}
+
+	private static TransactionDTO replay(IdempotencyRecord record, String idempotencyKey, Long accountId,
+			TransactionType type, BigDecimal amount) {
+		if (!record.matches(accountId, type, amount)) {
+			throw new IdempotencyKeyReusedException(
+					"Idempotency-Key " + idempotencyKey + " was already used for a different request");
+		}
+		return record.toDTO();
+	}
+
+	private static IdempotencyRecord await(CompletableFuture<IdempotencyRecord> running) {
+		try {
+			return running.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,253 @@
+package com.bank.transaction.service.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.bank.transaction.entities.AccountBalanceAdjustment;
+import com.bank.transaction.entities.AccountDTO;
+import com.bank.transaction.entities.BalanceAdjustmentRequest;
+import com.bank.transaction.entities.UpdateBalanceRequest;
+import com.bank.transaction.exceptions.AccountServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * The {@link AccountClient} the rest of the service uses. Wraps the Feign
+ * proxy with an optional bounded snapshot cache of accounts: reads are served
+ * from the cache while fresh, every successful balance write refreshes the
+ * entry from the account service's response, and any failed write drops it.
+ *
+ * <p>The cache is only safe when this instance is the sole writer of the
+ * accounts it caches, so it is disabled unless
+ * {@code account-service.cache.enabled} is set. A lookup that was under way
+ * when this instance wrote the account is not cached, since it may have read
+ * the balance from before the write.
+ *
+ * <p>Concurrent lookups of the same account share one call: the first
+ * starts it and the others wait for its result, unless
+ * {@code account-service.coalesce-reads} is off. A lookup never joins a call
+ * that started before this instance last wrote the account.
+ *
+ * <p>Every call that does reach the account service goes through
+ * {@link AccountServiceResilience}; cache hits and shared lookups do not.
+ */
+@Primary
+@Component
+public class ManagedAccountClient implements AccountClient {
+
+	private static final int WRITE_STRIPES = 1024;
+
+	private final AccountClient delegate;
+	private final AccountServiceResilience resilience;
+	private final Cache<Long, AccountDTO> accounts;
+	private final AtomicLongArray writeGenerations;
+	private final ConcurrentHashMap<Long, CompletableFuture<AccountDTO>> readsInFlight;
+	private final Counter remoteReads;
+	private final Counter coalescedReads;
+
+	public ManagedAccountClient(@Qualifier("accountFeignClient") AccountClient delegate,
+			AccountServiceResilience resilience,
+			@Value("${account-service.cache.enabled:false}") boolean cacheEnabled,
+			@Value("${account-service.cache.max-size:10000}") long maxSize,
+			@Value("${account-service.cache.ttl-ms:2000}") long ttlMillis,
+			@Value("${account-service.coalesce-reads:true}") boolean coalesceReads,
+			MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.resilience = resilience;
+		this.accounts = cacheEnabled
+				? Caffeine.newBuilder()
+						.maximumSize(maxSize)
+						.expireAfterWrite(Duration.ofMillis(ttlMillis))
+						.recordStats()
+						.build()
+				: null;
+		this.writeGenerations = cacheEnabled ? new AtomicLongArray(WRITE_STRIPES) : null;
+		if (accounts != null) {
+			CaffeineCacheMetrics.monitor(meterRegistry, accounts, "account-snapshots");
+		}
+		this.readsInFlight = coalesceReads ? new ConcurrentHashMap<>() : null;
+		this.remoteReads = readCounter(meterRegistry, "remote");
+		this.coalescedReads = readCounter(meterRegistry, "coalesced");
+	}
+
+	@Override
+	public AccountDTO getAccount(Long id) {
+		if (accounts == null) {
+			return read(id);
+		}
+		AccountDTO cached = accounts.getIfPresent(id);
+		if (cached != null) {
+			return copy(cached);
+		}
+		long generation = writeGeneration(id);
+		AccountDTO account = read(id);
+		remember(id, account, generation);
+		return account;
+	}
+
+	@Override
+	public AccountDTO updateBalance(Long id, UpdateBalanceRequest request) {
+		try {
+			AccountDTO account = resilience.call(() -> delegate.updateBalance(id, request));
+			wrote(id, account);
+			return account;
+		} catch (FeignException | AccountServiceUnavailableException e) {
+			forget(id);
+			throw e;
+		}
+	}
+
+	@Override
+	public AccountDTO adjustBalance(Long id, BalanceAdjustmentRequest request) {
+		try {
+			AccountDTO account = resilience.call(() -> delegate.adjustBalance(id, request));
+			wrote(id, account);
+			return account;
+		} catch (FeignException | AccountServiceUnavailableException e) {
+			forget(id);
+			throw e;
+		}
+	}
+
+	@Override
+	public AccountDTO adjustBalance(Long id, String idempotencyKey, BalanceAdjustmentRequest request) {
+		try {
+			AccountDTO account = resilience.call(() -> delegate.adjustBalance(id, idempotencyKey, request));
+			wrote(id, account);
+			return account;
+		} catch (FeignException | AccountServiceUnavailableException e) {
+			forget(id);
+			throw e;
+		}
+	}
+
+	@Override
+	public List<AccountDTO> adjustBalances(List<AccountBalanceAdjustment> adjustments) {
+		try {
+			List<AccountDTO> updated = resilience.call(() -> delegate.adjustBalances(adjustments));
+			for (int i = 0; i < adjustments.size(); i++) {
+				wrote(adjustments.get(i).getAccountId(), updated != null && i < updated.size() ? updated.get(i) : null);
+			}
+			return updated;
+		} catch (FeignException | AccountServiceUnavailableException e) {
+			adjustments.forEach(adjustment -> forget(adjustment.getAccountId()));
+			throw e;
+		}
+	}
+
+	public CacheStats cacheStats() {
+		return accounts == null ? CacheStats.empty() : accounts.stats();
+	}
+
+	Cache<Long, AccountDTO> cache() {
+		return accounts;
+	}
+
+	long remoteReads() {
+		return (long) remoteReads.count();
+	}
+
+	long coalescedReads() {
+		return (long) coalescedReads.count();
+	}
+
+	// The first lookup of an account calls the account service; lookups arriving meanwhile wait for its result
+	private AccountDTO read(Long id) {
+		if (readsInFlight == null) {
+			remoteReads.increment();
+			return resilience.call(() -> delegate.getAccount(id));
+		}
+		CompletableFuture<AccountDTO> call = new CompletableFuture<>();
+		CompletableFuture<AccountDTO> inFlight = readsInFlight.putIfAbsent(id, call);
+		if (inFlight != null) {
+			coalescedReads.increment();
+			try {
+				AccountDTO account = inFlight.join();
+				return account == null ? null : copy(account);
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw e;
+			}
+		}
+		remoteReads.increment();
+		try {
+			AccountDTO account = resilience.call(() -> delegate.getAccount(id));
+			call.complete(account);
+			return account;
+		} catch (RuntimeException | Error e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			readsInFlight.remove(id, call);
+		}
+	}
+
+	// A lookup still in flight may have read the account before this write, so later lookups must not join it
+	private void wrote(Long id, AccountDTO account) {
+		if (readsInFlight != null) {
+			readsInFlight.remove(id);
+		}
+		if (accounts == null) {
+			return;
+		}
+		long generation = writeGenerations.incrementAndGet(stripe(id));
+		remember(id, account, generation);
+	}
+
+	// Stores the account unless it was written since the generation was taken; the check and the store are one step
+	private void remember(Long id, AccountDTO account, long generation) {
+		// Without a balance in the response we cannot tell what the account looks like now
+		AccountDTO snapshot = account == null || account.getBalance() == null ? null : copy(account);
+		accounts.asMap().compute(id, (key, current) -> writeGeneration(id) == generation ? snapshot : current);
+	}
+
+	private void forget(Long id) {
+		if (readsInFlight != null) {
+			readsInFlight.remove(id);
+		}
+		if (accounts != null) {
+			writeGenerations.incrementAndGet(stripe(id));
+			accounts.invalidate(id);
+		}
+	}
+
+	private long writeGeneration(Long id) {
+		return writeGenerations.get(stripe(id));
+	}
+
+	private static int stripe(Long id) {
+		return Long.hashCode(id) & (WRITE_STRIPES - 1);
+	}
+
+	private static Counter readCounter(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("account-service.reads")
+				.description("Account lookups that reached the account service, or shared a lookup already in flight")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	private static AccountDTO copy(AccountDTO account) {
+		AccountDTO copy = new AccountDTO();
+		copy.setId(account.getId());
+		copy.setCustomerName(account.getCustomerName());
+		copy.setBalance(account.getBalance());
+		return copy;
+	}
+}
@@ -0,0 +1,44 @@
+package com.bank.transaction.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.bank.transaction.entities.AccountDTO;
+import com.bank.transaction.entities.BalanceAdjustmentRequest;
+import com.bank.transaction.exceptions.AccountNotFoundException;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link AccountClient} for the reactive profile.
+ * Only the atomic adjustment endpoint is exposed: without a thread to hold a
+ * per-account lock, a remote read-modify-write could not be serialized.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAccountClient {
+
+	private final WebClient webClient;
+
+	public ReactiveAccountClient(WebClient.Builder webClientBuilder,
+			@Value("${account-service.url:http://localhost:8080}") String accountServiceUrl) {
+		this.webClient = webClientBuilder.baseUrl(accountServiceUrl).build();
+	}
+
+	public Mono<AccountDTO> adjustBalance(Long id, BalanceAdjustmentRequest request) {
+		return webClient.post()
+				.uri("/api/accounts/{id}/balance/adjustments", id)
+				.bodyValue(request)
+				.retrieve()
+				.bodyToMono(AccountDTO.class)
+				.onErrorMap(WebClientResponseException.NotFound.class,
+						e -> new AccountNotFoundException("Account not found with id: " + id))
+				.onErrorMap(WebClientResponseException.UnprocessableEntity.class,
+						e -> new InsufficientBalanceException("Insufficient balance for withdrawal. Withdrawal amount: "
+								+ request.getAmount().negate()));
+	}
+}
@@ -0,0 +1,96 @@
+package com.bank.transaction.service.impl;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction.entities.BalanceAdjustmentRequest;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.repositories.TransactionRepository;
+import com.bank.transaction.service.ReactiveTransactionService;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive variant of {@link TransactionServiceImpl}. The account service is
+ * called without blocking; the JPA insert and history query still block, so
+ * they run on Reactor's bounded elastic scheduler instead of the caller's
+ * thread.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTransactionServiceImpl implements ReactiveTransactionService {
+	private final TransactionRepository transactionRepository;
+	private final ReactiveAccountClient accountClient;
+	private final AccountActivityRecorder activityRecorder;
+	private final RecentTransactions recentTransactions;
+	private final PlatformTransactionManager transactionManager;
+
+	@Value("${account-service.delta-updates:false}")
+	private boolean deltaUpdates;
+
+	@Value("${transaction.ledger.enabled:false}")
+	private boolean ledgerEnabled;
+
+	@PostConstruct
+	void requireSupportedModes() {
+		if (!deltaUpdates) {
+			throw new IllegalStateException("The reactive profile requires account-service.delta-updates=true");
+		}
+		if (ledgerEnabled) {
+			throw new IllegalStateException("The reactive profile does not support transaction.ledger.enabled=true");
+		}
+	}
+
+	public Mono<TransactionDTO> deposit(Long accountId, BigDecimal amount) {
+		return positive(amount, "Deposit amount must be positive")
+				.flatMap(money -> accountClient.adjustBalance(accountId, new BalanceAdjustmentRequest(money))
+						.flatMap(account -> save(TransactionServiceImpl.newTransaction(accountId, money,
+								TransactionType.DEPOSIT, account.getBalance()))));
+	}
+
+	public Mono<TransactionDTO> withdraw(Long accountId, BigDecimal amount) {
+		return positive(amount, "Withdrawal amount must be positive")
+				.flatMap(money -> accountClient
+						.adjustBalance(accountId, new BalanceAdjustmentRequest(money.negate()))
+						.flatMap(account -> save(TransactionServiceImpl.newTransaction(accountId, money,
+								TransactionType.WITHDRAWAL, account.getBalance()))));
+	}
+
+	public Flux<TransactionDTO> getLastTenTransactions(Long accountId) {
+		return Mono.fromCallable(() -> recentTransactions.read(accountId,
+						() -> transactionRepository.findTop10ByAccountIdOrderByTimestampDesc(accountId)))
+				.subscribeOn(Schedulers.boundedElastic())
+				.flatMapIterable(transactions -> transactions);
+	}
+
+	private static Mono<Money> positive(BigDecimal amount, String message) {
+		return Mono.fromCallable(() -> Money.of(amount))
+				.filter(money -> money.signum() > 0)
+				.switchIfEmpty(Mono.error(() -> new IllegalArgumentException(message)));
+	}
+
+	private Mono<TransactionDTO> save(Transaction transaction) {
+		return Mono.fromCallable(() -> new TransactionTemplate(transactionManager).execute(status -> {
+					Transaction saved = transactionRepository.save(transaction);
+					activityRecorder.record(List.of(saved));
+					return saved;
+				}))
+				.subscribeOn(Schedulers.boundedElastic())
+				.map(TransactionServiceImpl::mapToDTO);
+	}
+
+}
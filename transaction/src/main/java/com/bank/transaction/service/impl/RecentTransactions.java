@@ -0,0 +1,183 @@
+package com.bank.transaction.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.transaction.datasource.DataSourceRouting;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The latest ten transactions of recently read accounts, kept in memory so an
+ * account polled repeatedly is queried once. An account is loaded on its
+ * first read; after that every committed insert for it is merged into the
+ * cached list instead of invalidating it.
+ *
+ * <p>Rows inserted by another instance, or removed from the table other than
+ * by archiving, are not seen, so the cache is disabled unless
+ * {@code transaction.recent-cache.enabled} is set.
+ */
+@Component
+public class RecentTransactions {
+
+	static final int SIZE = 10;
+
+	// Same order as the history queries: newest first, ties broken by id
+	private static final Comparator<TransactionDTO> NEWEST_FIRST = Comparator
+			.comparing(TransactionDTO::getTimestamp, Comparator.reverseOrder())
+			.thenComparing(TransactionDTO::getId, Comparator.reverseOrder());
+
+	private final Cache<Long, Recent> accounts;
+	private final Counter cacheReads;
+	private final Counter databaseReads;
+
+	public RecentTransactions(@Value("${transaction.recent-cache.enabled:false}") boolean enabled,
+			@Value("${transaction.recent-cache.max-accounts:100000}") long maxAccounts,
+			@Value("${transaction.recent-cache.ttl-ms:600000}") long ttlMillis,
+			MeterRegistry meterRegistry) {
+		this.accounts = enabled
+				? Caffeine.newBuilder()
+						.maximumSize(maxAccounts)
+						.expireAfterWrite(Duration.ofMillis(ttlMillis))
+						.build()
+				: null;
+		this.cacheReads = readCounter(meterRegistry, "cache");
+		this.databaseReads = readCounter(meterRegistry, "database");
+	}
+
+	/**
+	 * The account's latest transactions, newest first, from the cache or else
+	 * from {@code query}. A query result is cached only if no insert for the
+	 * account committed while it ran.
+	 */
+	public List<TransactionDTO> read(Long accountId, Supplier<List<Transaction>> query) {
+		if (accounts == null) {
+			databaseReads.increment();
+			return map(query.get());
+		}
+		Recent recent = accounts.getIfPresent(accountId);
+		if (recent != null && recent.rows != null) {
+			cacheReads.increment();
+			return copy(recent.rows);
+		}
+		databaseReads.increment();
+		Recent loading = new Recent(null);
+		boolean loader = recent == null && accounts.asMap().putIfAbsent(accountId, loading) == null;
+		if (!loader) {
+			// Another read is already loading the account
+			return map(query.get());
+		}
+		List<TransactionDTO> rows;
+		try {
+			// A lagging replica would leave an insert out of the cached list for good, so loads go to the primary
+			rows = map(DataSourceRouting.onPrimary(query));
+		} catch (RuntimeException | Error e) {
+			accounts.asMap().remove(accountId, loading);
+			throw e;
+		}
+		accounts.asMap().replace(accountId, loading, new Recent(List.copyOf(copy(rows))));
+		return rows;
+	}
+
+	/**
+	 * Merges newly inserted transactions into the cached lists once the
+	 * transaction that inserted them commits. Must be called in that
+	 * transaction, if there is one.
+	 */
+	public void recordAfterCommit(Iterable<Transaction> transactions) {
+		if (accounts == null) {
+			return;
+		}
+		Map<Long, List<TransactionDTO>> inserted = new LinkedHashMap<>();
+		for (Transaction transaction : transactions) {
+			inserted.computeIfAbsent(transaction.getAccountId(), id -> new ArrayList<>())
+					.add(TransactionServiceImpl.mapToDTO(transaction));
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					merge(inserted);
+				}
+			});
+		} else {
+			merge(inserted);
+		}
+	}
+
+	// Dropping an account that is still loading keeps the load, which may have missed these rows, from being cached
+	private void merge(Map<Long, List<TransactionDTO>> inserted) {
+		for (Map.Entry<Long, List<TransactionDTO>> entry : inserted.entrySet()) {
+			accounts.asMap().computeIfPresent(entry.getKey(),
+					(id, recent) -> recent.rows == null ? null : recent.with(entry.getValue()));
+		}
+	}
+
+	private static List<TransactionDTO> map(List<Transaction> rows) {
+		List<TransactionDTO> mapped = new ArrayList<>(rows.size());
+		for (Transaction row : rows) {
+			mapped.add(TransactionServiceImpl.mapToDTO(row));
+		}
+		return mapped;
+	}
+
+	// Callers get their own DTOs, so nothing they change reaches the cache
+	private static List<TransactionDTO> copy(List<TransactionDTO> rows) {
+		List<TransactionDTO> copies = new ArrayList<>(rows.size());
+		for (TransactionDTO row : rows) {
+			TransactionDTO copy = new TransactionDTO();
+			copy.setId(row.getId());
+			copy.setAmount(row.getAmount());
+			copy.setType(row.getType());
+			copy.setTimestamp(row.getTimestamp());
+			copy.setBalanceAfterTransaction(row.getBalanceAfterTransaction());
+			copies.add(copy);
+		}
+		return copies;
+	}
+
+	private static Counter readCounter(MeterRegistry meterRegistry, String source) {
+		return Counter.builder("transaction.recent.reads")
+				.description("Latest-transactions reads answered from memory, or by querying history")
+				.tag("source", source)
+				.register(meterRegistry);
+	}
+
+	// Rows are null while the account is being loaded
+	private static final class Recent {
+
+		private final List<TransactionDTO> rows;
+
+		private Recent(List<TransactionDTO> rows) {
+			this.rows = rows;
+		}
+
+		private Recent with(List<TransactionDTO> inserted) {
+			List<TransactionDTO> merged = new ArrayList<>(rows.size() + inserted.size());
+			merged.addAll(rows);
+			// A load that ran between the insert's commit and this merge already holds its rows
+			for (TransactionDTO row : inserted) {
+				if (rows.stream().noneMatch(cached -> cached.getId().equals(row.getId()))) {
+					merged.add(row);
+				}
+			}
+			merged.sort(NEWEST_FIRST);
+			return new Recent(List.copyOf(merged.subList(0, Math.min(SIZE, merged.size()))));
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package com.bank.transaction.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.repositories.TransactionRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind stage for {@link Transaction} inserts. Callers hand over a row
+ * and block until it is stored; a single writer thread collects rows from
+ * concurrent requests until the batch is full or the linger time runs out,
+ * and stores the whole group with one JDBC batch in one database transaction.
+ * The database then flushes its log once per group rather than once per
+ * request, and every caller in the group is released by that one commit.
+ *
+ * <p>Rows arriving while a group commits queue up for the next one, so with
+ * a linger time of zero the group size follows the load: one row when idle,
+ * everything that arrived during the last commit when busy. A longer linger
+ * trades latency for larger groups.
+ *
+ * <p>Only callers outside a database transaction are grouped. One inside a
+ * transaction would hold its connection while waiting for the writer, which
+ * needs a connection of its own to commit; its row is inserted in the
+ * caller's transaction instead.
+ */
+@Component
+public class TransactionBatchWriter {
+
+	private static final Logger log = LoggerFactory.getLogger(TransactionBatchWriter.class);
+
+	private final TransactionRepository transactionRepository;
+	private final AccountActivityRecorder activityRecorder;
+	private final TransactionMetrics transactionMetrics;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean enabled;
+	private final int batchSize;
+	private final long maxLingerNanos;
+	private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+	private final AtomicLong batchesWritten = new AtomicLong();
+	private volatile boolean running;
+	private Thread worker;
+
+	public TransactionBatchWriter(TransactionRepository transactionRepository,
+			AccountActivityRecorder activityRecorder,
+			TransactionMetrics transactionMetrics,
+			PlatformTransactionManager transactionManager,
+			@Value("${transaction.write-behind.enabled:false}") boolean enabled,
+			@Value("${transaction.write-behind.batch-size:50}") int batchSize,
+			@Value("${transaction.write-behind.max-linger-ms:0}") long maxLingerMillis) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Write-behind batch size must be positive");
+		}
+		this.transactionRepository = transactionRepository;
+		this.activityRecorder = activityRecorder;
+		this.transactionMetrics = transactionMetrics;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+		this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(maxLingerMillis);
+	}
+
+	@PostConstruct
+	void start() {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		worker = new Thread(this::run, "transaction-batch-writer");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException {
+		running = false;
+		if (worker != null) {
+			worker.join(TimeUnit.SECONDS.toMillis(5));
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public Transaction write(Transaction transaction) {
+		if (!running) {
+			throw new IllegalStateException("Transaction batch writer is not running");
+		}
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return insert(List.of(transaction)).get(0);
+		}
+		PendingWrite pending = new PendingWrite(transaction);
+		queue.add(pending);
+		try {
+			return pending.result.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	long batchesWritten() {
+		return batchesWritten.get();
+	}
+
+	private void run() {
+		List<PendingWrite> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				// The window opens when the oldest row arrived, so rows that queued during the last commit wait no longer
+				long deadline = first.arrivedNanos + maxLingerNanos;
+				while (batch.size() < batchSize) {
+					queue.drainTo(batch, batchSize - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() >= batchSize || remaining <= 0) {
+						break;
+					}
+					PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				flush(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				flush(batch);
+				return;
+			} catch (RuntimeException e) {
+				log.error("Unexpected failure in transaction batch writer", e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void flush(List<PendingWrite> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		List<Transaction> transactions = new ArrayList<>(batch.size());
+		for (PendingWrite pending : batch) {
+			transactions.add(pending.transaction);
+		}
+		try {
+			List<Transaction> saved = transactionMetrics.timeGroupCommit(transactions.size(),
+					() -> transactionTemplate.execute(status -> insert(transactions)));
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).result.complete(saved.get(i));
+			}
+			batchesWritten.incrementAndGet();
+		} catch (RuntimeException e) {
+			// One bad row must not fail the rest of its group, so retry the group row by row
+			log.warn("Batch insert of {} transactions failed, retrying individually", batch.size(), e);
+			for (PendingWrite pending : batch) {
+				// The rolled-back group already assigned an id; with it the row would be merged rather than inserted
+				pending.transaction.setId(null);
+				try {
+					pending.result.complete(transactionTemplate.execute(status -> insert(List.of(pending.transaction)).get(0)));
+				} catch (RuntimeException rowFailure) {
+					pending.result.completeExceptionally(rowFailure);
+				}
+			}
+		}
+	}
+
+	private List<Transaction> insert(List<Transaction> transactions) {
+		List<Transaction> saved = transactionRepository.saveAll(transactions);
+		activityRecorder.record(saved);
+		return saved;
+	}
+
+	private static final class PendingWrite {
+		private final Transaction transaction;
+		private final CompletableFuture<Transaction> result = new CompletableFuture<>();
+		private final long arrivedNanos = System.nanoTime();
+
+		private PendingWrite(Transaction transaction) {
+			this.transaction = transaction;
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.bank.transaction.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+import com.bank.transaction.entities.ExportFormat;
+import com.bank.transaction.entities.Transaction;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes exported transactions one at a time through a fixed-size buffer;
+ * nothing is collected, so the memory used does not depend on the number of
+ * rows. NDJSON lines are the same JSON the API returns for a transaction.
+ */
+abstract class TransactionExportWriter {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	static TransactionExportWriter create(ExportFormat format, OutputStream out, ObjectMapper objectMapper)
+			throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+		return format == ExportFormat.NDJSON ? new Ndjson(writer, objectMapper) : new Csv(writer);
+	}
+
+	abstract void write(Transaction transaction) throws IOException;
+
+	/** Flushes what is buffered; the response stream itself is left open. */
+	abstract void finish() throws IOException;
+
+	private static final class Csv extends TransactionExportWriter {
+		private final Writer writer;
+
+		private Csv(Writer writer) throws IOException {
+			this.writer = writer;
+			writer.write("id,timestamp,type,amount,balance_after_transaction\n");
+		}
+
+		@Override
+		void write(Transaction transaction) throws IOException {
+			writer.write(Long.toString(transaction.getId()));
+			writer.write(',');
+			writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(transaction.getTimestamp()));
+			writer.write(',');
+			writer.write(transaction.getType().name());
+			writer.write(',');
+			writer.write(transaction.getAmount().toString());
+			writer.write(',');
+			writer.write(transaction.getBalanceAfterTransaction().toString());
+			writer.write('\n');
+		}
+
+		@Override
+		void finish() throws IOException {
+			writer.flush();
+		}
+	}
+
+	private static final class Ndjson extends TransactionExportWriter {
+		private final JsonGenerator generator;
+		private final ObjectWriter rowWriter;
+
+		private Ndjson(Writer writer, ObjectMapper objectMapper) throws IOException {
+			this.generator = objectMapper.getFactory().createGenerator(writer)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			this.generator.setRootValueSeparator(null);
+			this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		}
+
+		@Override
+		void write(Transaction transaction) throws IOException {
+			rowWriter.writeValue(generator, TransactionServiceImpl.mapToDTO(transaction));
+			generator.writeRaw('\n');
+		}
+
+		@Override
+		void finish() throws IOException {
+			generator.close();
+		}
+	}
+}
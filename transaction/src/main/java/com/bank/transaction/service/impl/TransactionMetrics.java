@@ -0,0 +1,66 @@
+package com.bank.transaction.service.impl;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latency timers for each stage of a deposit or withdrawal, published as
+ * histograms so p50/p95/p99 can be derived per stage on the Prometheus side.
+ * Timers are created once up front; recording is a lock-free bucket update.
+ */
+@Component
+public class TransactionMetrics {
+
+	private final Timer getAccount;
+	private final Timer updateBalance;
+	private final Timer adjustBalance;
+	private final Timer saveTransaction;
+	private final Timer groupCommit;
+	private final DistributionSummary groupSize;
+
+	public TransactionMetrics(MeterRegistry registry) {
+		this.getAccount = stageTimer(registry, "account.get");
+		this.updateBalance = stageTimer(registry, "account.update-balance");
+		this.adjustBalance = stageTimer(registry, "account.adjust-balance");
+		this.saveTransaction = stageTimer(registry, "repository.save");
+		this.groupCommit = stageTimer(registry, "repository.group-commit");
+		this.groupSize = DistributionSummary.builder("transaction.write-behind.group.size")
+				.description("Transactions committed together by the write-behind writer")
+				.publishPercentileHistogram()
+				.register(registry);
+	}
+
+	<T> T timeGetAccount(Supplier<T> stage) {
+		return getAccount.record(stage);
+	}
+
+	<T> T timeUpdateBalance(Supplier<T> stage) {
+		return updateBalance.record(stage);
+	}
+
+	<T> T timeAdjustBalance(Supplier<T> stage) {
+		return adjustBalance.record(stage);
+	}
+
+	<T> T timeSave(Supplier<T> stage) {
+		return saveTransaction.record(stage);
+	}
+
+	<T> T timeGroupCommit(int transactions, Supplier<T> stage) {
+		groupSize.record(transactions);
+		return groupCommit.record(stage);
+	}
+
+	private static Timer stageTimer(MeterRegistry registry, String stage) {
+		return Timer.builder("transaction.stage")
+				.description("Time spent in one stage of a deposit or withdrawal")
+				.tag("stage", stage)
+				.publishPercentileHistogram()
+				.register(registry);
+	}
+}
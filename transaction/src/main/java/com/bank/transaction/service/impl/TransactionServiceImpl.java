@@ -1,102 +1,628 @@
 package com.bank.transaction.service.impl;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
+import com.bank.transaction.datasource.ReadYourWrites;
+import com.bank.transaction.entities.AccountBalanceAdjustment;
 import com.bank.transaction.entities.AccountDTO;
+import com.bank.transaction.entities.AccountDailyActivity;
+import com.bank.transaction.entities.AccountSummary;
+import com.bank.transaction.entities.ActivityPeriod;
+import com.bank.transaction.entities.ActivityTotals;
+import com.bank.transaction.entities.BalanceAdjustmentRequest;
+import com.bank.transaction.entities.BalanceOutboxEntry;
+import com.bank.transaction.entities.BatchOperationRequest;
+import com.bank.transaction.entities.BatchOperationResult;
+import com.bank.transaction.entities.BatchTransactionResponse;
+import com.bank.transaction.entities.ExportFormat;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.SummaryGranularity;
 import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.OutboxStatus;
 import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionPage;
 import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.entities.TransferDTO;
 import com.bank.transaction.entities.UpdateBalanceRequest;
+import com.bank.transaction.exceptions.AccountNotFoundException;
+import com.bank.transaction.exceptions.AccountServiceUnavailableException;
 import com.bank.transaction.exceptions.InsufficientBalanceException;
+import com.bank.transaction.ledger.Ledger;
+import com.bank.transaction.ledger.LedgerPosting;
+import com.bank.transaction.repositories.AccountDailyActivityRepository;
+import com.bank.transaction.repositories.BalanceOutboxRepository;
 import com.bank.transaction.repositories.TransactionRepository;
 import com.bank.transaction.service.TransactionService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
-	@Autowired
-	private TransactionRepository transactionRepository;
-	@Autowired
-	
-	private AccountClient accountClient;
+	private final TransactionRepository transactionRepository;
+	private final AccountClient accountClient;
+	private final AccountLockManager accountLockManager;
+	private final TransactionBatchWriter transactionBatchWriter;
+	private final TransactionMetrics transactionMetrics;
+	private final BalanceOutboxRepository balanceOutboxRepository;
+	private final IdempotencyStore idempotencyStore;
+	private final ReadYourWrites readYourWrites;
+	private final AccountActivityRecorder activityRecorder;
+	private final AccountDailyActivityRepository activityRepository;
+	private final ObjectMapper objectMapper;
+	private final Ledger ledger;
+	private final RecentTransactions recentTransactions;
+	private final TransactionTemplate transactionTemplate;
+	private static final int MAX_HISTORY_PAGE_SIZE = 500;
+	private static final int MAX_SUMMARY_DAYS = 3660;
+	private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+	private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
 
-	@Transactional
-	public TransactionDTO deposit(Long accountId, BigDecimal amount) {
-		if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+	@Value("${account-service.delta-updates:false}")
+	private boolean deltaUpdates;
+
+	@Value("${account-service.outbox.enabled:false}")
+	private boolean outboxEnabled;
+
+	void setDeltaUpdates(boolean deltaUpdates) {
+		this.deltaUpdates = deltaUpdates;
+	}
+
+	/**
+	 * Only the ledger and outbox modes run in one database transaction. The
+	 * others store a single row, and hold no connection while the account
+	 * service is called or while the write-behind writer commits that row.
+	 */
+	public TransactionDTO deposit(Long accountId, BigDecimal requestedAmount) {
+		Money amount = Money.of(requestedAmount);
+		if (amount.signum() <= 0) {
 			throw new IllegalArgumentException("Deposit amount must be positive");
 		}
 
-		AccountDTO account = getAccount(accountId);
-		BigDecimal newBalance = account.getBalance().add(amount);
+		// The ledger holds the balance; the account service is only asked for it the first time the account is used
+		if (ledger.isEnabled()) {
+			return inTransaction(accountId, () -> mapToDTO(postToLedger(accountId, TransactionType.DEPOSIT, amount)));
+		}
+
+		// Only local rows are written; BalanceOutboxDispatcher delivers the change after commit
+		if (outboxEnabled) {
+			return inTransaction(accountId, () -> {
+				accountLockManager.lockUntilCompletion(List.of(accountId));
+				Money newBalance = availableBalance(accountId).plus(amount);
+				return mapToDTO(recordWithOutbox(
+						newTransaction(accountId, amount, TransactionType.DEPOSIT, newBalance), amount));
+			});
+		}
 
-		Transaction transaction = new Transaction();
-		transaction.setAccountId(accountId);
-		transaction.setAmount(amount);
-		transaction.setType(TransactionType.DEPOSIT);
-		transaction.setBalanceAfterTransaction(newBalance);
+		// The account service applies a delta atomically, so neither a prior read nor the local lock is needed
+		if (deltaUpdates) {
+			AccountDTO account = adjustAccountBalance(accountId, amount);
+			return mapToDTO(saveTransaction(
+					newTransaction(accountId, amount, TransactionType.DEPOSIT, account.getBalance())));
+		}
+
+		// The balance is read, changed and written back remotely, so same-account operations must not interleave
+		return accountLockManager.withAccountLock(accountId, () -> {
+			Money newBalance = getAccount(accountId).getBalance().plus(amount);
 
-		updateAccountBalance(accountId, newBalance);
-		return mapToDTO(transactionRepository.save(transaction));
+			updateAccountBalance(accountId, newBalance);
+			return mapToDTO(saveTransaction(
+					newTransaction(accountId, amount, TransactionType.DEPOSIT, newBalance)));
+		});
 	}
 
-	@Transactional
-	public TransactionDTO withdraw(Long accountId, BigDecimal amount) {
-		if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+	public TransactionDTO withdraw(Long accountId, BigDecimal requestedAmount) {
+		Money amount = Money.of(requestedAmount);
+		if (amount.signum() <= 0) {
 			throw new IllegalArgumentException("Withdrawal amount must be positive");
 		}
 
-		AccountDTO account = getAccount(accountId);
-		if (account.getBalance().compareTo(amount) < 0) {
-			throw new InsufficientBalanceException("Insufficient balance for withdrawal. Current balance: " 
-                    + account.getBalance() + ", Withdrawal amount: " + amount);
+		if (ledger.isEnabled()) {
+			return inTransaction(accountId, () -> mapToDTO(postToLedger(accountId, TransactionType.WITHDRAWAL, amount)));
 		}
 
-		BigDecimal newBalance = account.getBalance().subtract(amount);
+		if (outboxEnabled) {
+			return inTransaction(accountId, () -> {
+				accountLockManager.lockUntilCompletion(List.of(accountId));
+				Money balance = availableBalance(accountId);
+				if (balance.isLessThan(amount)) {
+					throw new InsufficientBalanceException("Insufficient balance for withdrawal. Current balance: "
+							+ balance + ", Withdrawal amount: " + amount);
+				}
+				return mapToDTO(recordWithOutbox(
+						newTransaction(accountId, amount, TransactionType.WITHDRAWAL, balance.minus(amount)),
+						amount.negate()));
+			});
+		}
 
-		Transaction transaction = new Transaction();
-		transaction.setAccountId(accountId);
-		transaction.setAmount(amount);
-		transaction.setType(TransactionType.WITHDRAWAL);
-		transaction.setBalanceAfterTransaction(newBalance);
+		if (deltaUpdates) {
+			AccountDTO account = adjustAccountBalance(accountId, amount.negate());
+			return mapToDTO(saveTransaction(
+					newTransaction(accountId, amount, TransactionType.WITHDRAWAL, account.getBalance())));
+		}
+
+		return accountLockManager.withAccountLock(accountId, () -> {
+			Money balance = getAccount(accountId).getBalance();
+			if (balance.isLessThan(amount)) {
+				throw new InsufficientBalanceException("Insufficient balance for withdrawal. Current balance: " 
+	                    + balance + ", Withdrawal amount: " + amount);
+			}
+
+			Money newBalance = balance.minus(amount);
+
+			updateAccountBalance(accountId, newBalance);
+			return mapToDTO(saveTransaction(
+					newTransaction(accountId, amount, TransactionType.WITHDRAWAL, newBalance)));
+		});
+	}
+
+	// The store opens the transaction itself, after its cache lookup, so replays never touch the database
+	public TransactionDTO deposit(Long accountId, BigDecimal amount, String idempotencyKey) {
+		return idempotencyStore.execute(idempotencyKey, accountId, TransactionType.DEPOSIT, amount,
+				() -> deposit(accountId, amount));
+	}
+
+	public TransactionDTO withdraw(Long accountId, BigDecimal amount, String idempotencyKey) {
+		return idempotencyStore.execute(idempotencyKey, accountId, TransactionType.WITHDRAWAL, amount,
+				() -> withdraw(accountId, amount));
+	}
+
+	/**
+	 * Moves money between two accounts as one operation: both legs are written
+	 * in this transaction, and both balance changes reach the account service
+	 * in a single call that applies all of them or none.
+	 */
+	@Transactional
+	public TransferDTO transfer(Long fromAccountId, Long toAccountId, BigDecimal requestedAmount) {
+		Money amount = Money.of(requestedAmount);
+		if (amount.signum() <= 0) {
+			throw new IllegalArgumentException("Transfer amount must be positive");
+		}
+		if (fromAccountId.equals(toAccountId)) {
+			throw new IllegalArgumentException("Source and destination accounts must differ");
+		}
+		List<Long> accountIds = List.of(fromAccountId, toAccountId);
+		accountIds.forEach(readYourWrites::recordWrite);
+
+		Money fromBalance;
+		Money toBalance;
+		if (ledger.isEnabled()) {
+			accountLockManager.lockUntilCompletion(accountIds);
+			openInLedger(fromAccountId);
+			openInLedger(toAccountId);
+			List<LedgerPosting> postings = ledger.transfer(fromAccountId, toAccountId, amount);
+			ledger.awaitDurable(postings.get(1));
+			fromBalance = postings.get(0).getBalanceAfter();
+			toBalance = postings.get(1).getBalanceAfter();
+		} else if (outboxEnabled) {
+			accountLockManager.lockUntilCompletion(accountIds);
+			fromBalance = availableBalance(fromAccountId);
+			if (fromBalance.isLessThan(amount)) {
+				throw new InsufficientBalanceException("Insufficient balance for transfer. Current balance: "
+						+ fromBalance + ", Transfer amount: " + amount);
+			}
+			fromBalance = fromBalance.minus(amount);
+			toBalance = availableBalance(toAccountId).plus(amount);
+		} else {
+			if (!deltaUpdates) {
+				// Deposits and withdrawals here write back balances read under the account lock, so both accounts stay
+				// locked until commit. Stripes are taken in a fixed order: opposing transfers cannot deadlock
+				accountLockManager.lockUntilCompletion(accountIds);
+			}
+			List<AccountDTO> accounts = adjustAccountBalances(fromAccountId, toAccountId, amount);
+			fromBalance = accounts.get(0).getBalance();
+			toBalance = accounts.get(1).getBalance();
+		}
+
+		// Both legs must commit together, so the write-behind writer is bypassed
+		List<Transaction> legs = List.of(
+				newTransaction(fromAccountId, amount, TransactionType.TRANSFER_OUT, fromBalance),
+				newTransaction(toAccountId, amount, TransactionType.TRANSFER_IN, toBalance));
+		List<Transaction> saved = transactionMetrics.timeSave(() -> transactionRepository.saveAll(legs));
+		activityRecorder.record(saved);
+		if (outboxEnabled && !ledger.isEnabled()) {
+			balanceOutboxRepository.saveAll(List.of(
+					BalanceOutboxEntry.pending(fromAccountId, amount.negate().toBigDecimal()),
+					BalanceOutboxEntry.pending(toAccountId, amount.toBigDecimal())));
+		}
+		return new TransferDTO(mapToDTO(saved.get(0)), mapToDTO(saved.get(1)));
+	}
+
+	@Transactional
+	public BatchTransactionResponse processBatch(List<BatchOperationRequest> operations) {
+		BatchOperationResult[] results = new BatchOperationResult[operations.size()];
+		Money[] amounts = new Money[operations.size()];
+		Map<Long, List<Integer>> indicesByAccount = new LinkedHashMap<>();
+		for (int i = 0; i < operations.size(); i++) {
+			BatchOperationRequest operation = operations.get(i);
+			String invalid = null;
+			try {
+				amounts[i] = Money.of(operation.getAmount());
+				if (amounts[i].signum() <= 0) {
+					invalid = "Amount must be positive";
+				}
+			} catch (IllegalArgumentException e) {
+				invalid = e.getMessage();
+			}
+			if (operation.getType() != TransactionType.DEPOSIT && operation.getType() != TransactionType.WITHDRAWAL) {
+				invalid = "Batches only hold deposits and withdrawals";
+			}
+			if (invalid != null) {
+				results[i] = BatchOperationResult.failure(i, operation.getAccountId(), "BAD_REQUEST", invalid);
+			} else {
+				indicesByAccount.computeIfAbsent(operation.getAccountId(), id -> new ArrayList<>()).add(i);
+			}
+		}
+
+		indicesByAccount.keySet().forEach(readYourWrites::recordWrite);
+		if (outboxEnabled || ledger.isEnabled()) {
+			// Held until commit; the per-account locks below then re-enter stripes this thread already owns
+			accountLockManager.lockUntilCompletion(indicesByAccount.keySet());
+		}
+		List<Transaction> transactions = new ArrayList<>();
+		List<Integer> transactionIndices = new ArrayList<>();
+		for (Map.Entry<Long, List<Integer>> entry : indicesByAccount.entrySet()) {
+			Long accountId = entry.getKey();
+			List<Integer> indices = entry.getValue();
+			try {
+				accountLockManager.withAccountLock(accountId, () -> applyAccountBatch(accountId, indices, operations,
+						amounts, results, transactions, transactionIndices));
+			} catch (AccountNotFoundException e) {
+				failRemaining(indices, accountId, results, "ACCOUNT_NOT_FOUND", e.getMessage());
+			} catch (InsufficientBalanceException e) {
+				failRemaining(indices, accountId, results, "INSUFFICIENT_BALANCE", e.getMessage());
+			} catch (AccountServiceUnavailableException e) {
+				failRemaining(indices, accountId, results, "ACCOUNT_SERVICE_UNAVAILABLE", e.getMessage());
+			} catch (FeignException e) {
+				failRemaining(indices, accountId, results, "ACCOUNT_SERVICE_ERROR", e.getMessage());
+			}
+		}
+
+		if (ledger.isEnabled()) {
+			// One wait covers every posting of the batch
+			ledger.awaitDurable();
+		}
+
+		// One batched insert for every successful operation across all accounts
+		List<Transaction> saved = transactionMetrics.timeSave(() -> transactionRepository.saveAll(transactions));
+		activityRecorder.record(saved);
+		for (int i = 0; i < saved.size(); i++) {
+			Transaction transaction = saved.get(i);
+			int index = transactionIndices.get(i);
+			results[index] = BatchOperationResult.success(index, transaction.getAccountId(), mapToDTO(transaction));
+		}
+		return new BatchTransactionResponse(Arrays.asList(results));
+	}
+
+	@Transactional(readOnly = true)
+	public TransactionPage getTransactionHistory(Long accountId, LocalDateTime from, LocalDateTime to, String cursor,
+			int size) {
+		if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+			throw new IllegalArgumentException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+		}
+		LocalDateTime lowerBound = from != null ? from : HISTORY_START;
+		LocalDateTime upperBound = to != null ? to : HISTORY_END;
+		if (!lowerBound.isBefore(upperBound)) {
+			throw new IllegalArgumentException("History range start must be before its end");
+		}
+
+		// Fetch one extra row to learn whether another page exists
+		Limit limit = Limit.of(size + 1);
+		List<Transaction> rows;
+		if (cursor == null) {
+			rows = readYourWrites.read(accountId,
+					() -> transactionRepository.findHistory(accountId, lowerBound, upperBound, limit));
+		} else {
+			HistoryCursor position = HistoryCursor.decode(cursor);
+			rows = readYourWrites.read(accountId, () -> transactionRepository.findHistoryBefore(accountId, lowerBound,
+					position.getTimestamp(), position.getId(), limit));
+		}
 
-		updateAccountBalance(accountId, newBalance);
-		return mapToDTO(transactionRepository.save(transaction));
+		String nextCursor = null;
+		if (rows.size() > size) {
+			rows = rows.subList(0, size);
+			nextCursor = HistoryCursor.after(rows.get(size - 1)).encode();
+		}
+		return new TransactionPage(rows.stream().map(TransactionServiceImpl::mapToDTO).collect(Collectors.toList()), nextCursor);
 	}
 
+	@Transactional(readOnly = true)
 	public List<TransactionDTO> getLastTenTransactions(Long accountId) {
-		return transactionRepository.findTop10ByAccountIdOrderByTimestampDesc(accountId).stream().map(this::mapToDTO)
-				.collect(Collectors.toList());
+		return recentTransactions.read(accountId,
+				() -> readYourWrites.read(accountId, () -> transactionRepository.findTop10ByAccountIdOrderByTimestampDesc(accountId)));
+	}
+
+	/**
+	 * Streams every transaction of the account in the range, oldest first,
+	 * from a database cursor (and the archive for older months) straight to
+	 * {@code out}.
+	 */
+	@Transactional(readOnly = true)
+	public void exportTransactions(Long accountId, LocalDateTime from, LocalDateTime to, ExportFormat format,
+			OutputStream out) throws IOException {
+		LocalDateTime lowerBound = from != null ? from : HISTORY_START;
+		LocalDateTime upperBound = to != null ? to : HISTORY_END;
+		if (!lowerBound.isBefore(upperBound)) {
+			throw new IllegalArgumentException("Export range start must be before its end");
+		}
+		try {
+			// The whole export is one read, so a recently written account stays on the primary throughout
+			readYourWrites.read(accountId, () -> {
+				try (Stream<Transaction> rows = transactionRepository.streamHistory(accountId, lowerBound, upperBound)) {
+					TransactionExportWriter writer = TransactionExportWriter.create(format, out, objectMapper);
+					for (Transaction transaction : (Iterable<Transaction>) rows::iterator) {
+						writer.write(transaction);
+					}
+					writer.finish();
+					return null;
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Totals per transaction type over the given days, read from the daily
+	 * aggregates: the cost grows with the number of active days in the range,
+	 * not with the number of transactions.
+	 */
+	@Transactional(readOnly = true)
+	public AccountSummary getAccountSummary(Long accountId, LocalDate from, LocalDate to,
+			SummaryGranularity granularity) {
+		if (from.isAfter(to)) {
+			throw new IllegalArgumentException("Summary range start must not be after its end");
+		}
+		if (ChronoUnit.DAYS.between(from, to) >= MAX_SUMMARY_DAYS) {
+			throw new IllegalArgumentException("Summary range must not exceed " + MAX_SUMMARY_DAYS + " days");
+		}
+		List<AccountDailyActivity> days = readYourWrites.read(accountId,
+				() -> activityRepository.findRange(accountId, from, to));
+
+		AccountSummary summary = new AccountSummary(accountId, from, to, granularity);
+		ActivityPeriod period = null;
+		for (AccountDailyActivity day : days) {
+			LocalDate start = granularity.periodStart(day.getActivityDate());
+			if (period == null || !period.getStart().equals(start)) {
+				period = new ActivityPeriod(start);
+				summary.getPeriods().add(period);
+			}
+			period.getTotals().computeIfAbsent(day.getType(), type -> new ActivityTotals())
+					.add(day.getTransactionCount(), day.getTotalAmount());
+			summary.getTotals().computeIfAbsent(day.getType(), type -> new ActivityTotals())
+					.add(day.getTransactionCount(), day.getTotalAmount());
+		}
+		return summary;
+	}
+
+	/**
+	 * Applies one account's share of a batch in request order against a single
+	 * balance read, rejecting individual withdrawals that would overdraw, and
+	 * pushes the net result to the account service in one call.
+	 */
+	private Void applyAccountBatch(Long accountId, List<Integer> indices, List<BatchOperationRequest> operations,
+			Money[] amounts, BatchOperationResult[] results, List<Transaction> transactions,
+			List<Integer> transactionIndices) {
+		if (ledger.isEnabled()) {
+			return applyLedgerBatch(accountId, indices, operations, amounts, results, transactions, transactionIndices);
+		}
+		Money startingBalance = outboxEnabled ? availableBalance(accountId) : getAccount(accountId).getBalance();
+		Money balance = startingBalance;
+		List<Transaction> applied = new ArrayList<>();
+		List<Integer> appliedIndices = new ArrayList<>();
+		for (int index : indices) {
+			BatchOperationRequest operation = operations.get(index);
+			Money amount = amounts[index];
+			if (operation.getType() == TransactionType.WITHDRAWAL) {
+				if (balance.isLessThan(amount)) {
+					results[index] = BatchOperationResult.failure(index, accountId, "INSUFFICIENT_BALANCE",
+							"Insufficient balance for withdrawal. Current balance: " + balance
+									+ ", Withdrawal amount: " + amount);
+					continue;
+				}
+				balance = balance.minus(amount);
+			} else {
+				balance = balance.plus(amount);
+			}
+			applied.add(newTransaction(accountId, amount, operation.getType(), balance));
+			appliedIndices.add(index);
+		}
+		if (applied.isEmpty()) {
+			return null;
+		}
+
+		Money netChange = balance.minus(startingBalance);
+		Money drift = Money.ZERO;
+		if (netChange.signum() != 0) {
+			if (outboxEnabled) {
+				balanceOutboxRepository.save(BalanceOutboxEntry.pending(accountId, netChange.toBigDecimal()));
+			} else if (deltaUpdates) {
+				// Another writer may have moved the balance since our read; shift the reported balances accordingly
+				drift = adjustAccountBalance(accountId, netChange).getBalance().minus(balance);
+			} else {
+				updateAccountBalance(accountId, balance);
+			}
+		}
+		if (drift.signum() != 0) {
+			for (Transaction transaction : applied) {
+				transaction.setBalanceAfterTransaction(transaction.getBalanceAfterTransaction().plus(drift));
+			}
+		}
+		transactions.addAll(applied);
+		transactionIndices.addAll(appliedIndices);
+		return null;
+	}
+
+	// The ledger checks every withdrawal against the balance it holds, so operations post one by one
+	private Void applyLedgerBatch(Long accountId, List<Integer> indices, List<BatchOperationRequest> operations,
+			Money[] amounts, BatchOperationResult[] results, List<Transaction> transactions,
+			List<Integer> transactionIndices) {
+		openInLedger(accountId);
+		for (int index : indices) {
+			TransactionType type = operations.get(index).getType();
+			try {
+				LedgerPosting posting = ledger.post(accountId, type, amounts[index]);
+				transactions.add(newTransaction(accountId, amounts[index], type, posting.getBalanceAfter()));
+				transactionIndices.add(index);
+			} catch (InsufficientBalanceException e) {
+				results[index] = BatchOperationResult.failure(index, accountId, "INSUFFICIENT_BALANCE", e.getMessage());
+			}
+		}
+		return null;
+	}
+
+	private void failRemaining(List<Integer> indices, Long accountId, BatchOperationResult[] results, String error,
+			String message) {
+		for (int index : indices) {
+			if (results[index] == null) {
+				results[index] = BatchOperationResult.failure(index, accountId, error, message);
+			}
+		}
 	}
 
 	private AccountDTO getAccount(Long accountId) {
 		 try {
-	            return accountClient.getAccount(accountId);
+	            return transactionMetrics.timeGetAccount(() -> accountClient.getAccount(accountId));
 	        } catch (FeignException.NotFound e) {
-	            throw new com.bank.transaction.exceptions.AccountNotFoundException("Account not found with id: " + accountId);
+	            throw new AccountNotFoundException("Account not found with id: " + accountId);
 	        }
 		
 	}
 
-	private void updateAccountBalance(Long accountId, BigDecimal newBalance) {
+	private void updateAccountBalance(Long accountId, Money newBalance) {
 		
 		try {
             UpdateBalanceRequest request = new UpdateBalanceRequest(newBalance);
-            accountClient.updateBalance(accountId, request);
+            transactionMetrics.timeUpdateBalance(() -> accountClient.updateBalance(accountId, request));
         } catch (FeignException.NotFound e) {
-            throw new com.bank.transaction.exceptions.AccountNotFoundException("Account not found with id: " + accountId);
+            throw new AccountNotFoundException("Account not found with id: " + accountId);
         }
 	}
 
-	private TransactionDTO mapToDTO(Transaction transaction) {
+	private AccountDTO adjustAccountBalance(Long accountId, Money delta) {
+		try {
+			return transactionMetrics.timeAdjustBalance(
+					() -> accountClient.adjustBalance(accountId, new BalanceAdjustmentRequest(delta)));
+		} catch (FeignException.NotFound e) {
+			throw new AccountNotFoundException("Account not found with id: " + accountId);
+		} catch (FeignException.UnprocessableEntity e) {
+			throw new InsufficientBalanceException("Insufficient balance for withdrawal. Withdrawal amount: " + delta.negate());
+		}
+	}
+
+	// One all-or-nothing call; the accounts come back in the order of the adjustments
+	private List<AccountDTO> adjustAccountBalances(Long fromAccountId, Long toAccountId, Money amount) {
+		List<AccountBalanceAdjustment> adjustments = List.of(
+				new AccountBalanceAdjustment(fromAccountId, amount.negate()),
+				new AccountBalanceAdjustment(toAccountId, amount));
+		try {
+			return transactionMetrics.timeAdjustBalance(() -> accountClient.adjustBalances(adjustments));
+		} catch (FeignException.NotFound e) {
+			throw new AccountNotFoundException(
+					"Account not found with id: " + fromAccountId + " or " + toAccountId);
+		} catch (FeignException.UnprocessableEntity e) {
+			throw new InsufficientBalanceException("Insufficient balance for transfer. Transfer amount: " + amount);
+		}
+	}
+
+	/**
+	 * The account service's balance plus every change still waiting in the
+	 * outbox. Only meaningful while the account is locked until commit.
+	 */
+	private Money availableBalance(Long accountId) {
+		return getAccount(accountId).getBalance()
+				.plus(Money.of(balanceOutboxRepository.sumAmount(accountId, OutboxStatus.PENDING)));
+	}
+
+	/**
+	 * Posts to the ledger and records the transaction once the posting is
+	 * durable. The account stays locked until commit, so a posting reversed by
+	 * a rollback cannot have been spent in the meantime. The row bypasses the
+	 * write-behind writer: it must roll back with the request, as the posting
+	 * does.
+	 */
+	private Transaction postToLedger(Long accountId, TransactionType type, Money amount) {
+		accountLockManager.lockUntilCompletion(List.of(accountId));
+		openInLedger(accountId);
+		LedgerPosting posting = ledger.post(accountId, type, amount);
+		ledger.awaitDurable(posting);
+		Transaction transaction = newTransaction(accountId, amount, type, posting.getBalanceAfter());
+		Transaction saved = transactionMetrics.timeSave(() -> transactionRepository.save(transaction));
+		activityRecorder.record(List.of(saved));
+		return saved;
+	}
+
+	private void openInLedger(Long accountId) {
+		if (ledger.balance(accountId) == null) {
+			ledger.open(accountId, getAccount(accountId).getBalance());
+		}
+	}
+
+	// Bypasses the write-behind writer: the row must commit in this transaction, together with its outbox entry
+	private Transaction recordWithOutbox(Transaction transaction, Money balanceChange) {
+		Transaction saved = transactionMetrics.timeSave(() -> transactionRepository.save(transaction));
+		activityRecorder.record(List.of(saved));
+		balanceOutboxRepository.save(BalanceOutboxEntry.pending(transaction.getAccountId(), balanceChange.toBigDecimal()));
+		return saved;
+	}
+
+	private TransactionDTO inTransaction(Long accountId, Supplier<TransactionDTO> work) {
+		return transactionTemplate.execute(status -> {
+			readYourWrites.recordWrite(accountId);
+			return work.get();
+		});
+	}
+
+	// The batch writer updates the daily aggregates in its own transaction, alongside the rows it inserts
+	private Transaction saveTransaction(Transaction transaction) {
+		if (transactionBatchWriter.isEnabled()) {
+			Transaction saved = transactionMetrics.timeSave(() -> transactionBatchWriter.write(transaction));
+			readYourWrites.recordWrite(saved.getAccountId());
+			return saved;
+		}
+		return transactionTemplate.execute(status -> {
+			readYourWrites.recordWrite(transaction.getAccountId());
+			Transaction saved = transactionMetrics.timeSave(() -> transactionRepository.save(transaction));
+			activityRecorder.record(List.of(saved));
+			return saved;
+		});
+	}
+
+	static Transaction newTransaction(Long accountId, Money amount, TransactionType type, Money balanceAfter) {
+		Transaction transaction = new Transaction();
+		transaction.setAccountId(accountId);
+		transaction.setAmount(amount);
+		transaction.setType(type);
+		transaction.setBalanceAfterTransaction(balanceAfter);
+		return transaction;
+	}
+
+	static TransactionDTO mapToDTO(Transaction transaction) {
 		TransactionDTO dto = new TransactionDTO();
 		dto.setId(transaction.getId());
 		dto.setAmount(transaction.getAmount());
@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS transaction (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    account_id BIGINT,
+    amount DECIMAL(38, 2),
+    balance_after_transaction DECIMAL(38, 2),
+    timestamp TIMESTAMP(6),
+    type TINYINT,
+    PRIMARY KEY (id)
+);
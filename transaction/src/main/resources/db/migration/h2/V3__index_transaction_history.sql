@@ -0,0 +1 @@
+CREATE INDEX idx_transaction_account_history ON transaction (account_id, timestamp DESC, id DESC);
@@ -0,0 +1,16 @@
+CREATE TABLE balance_outbox (
+    id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    amount DECIMAL(38, 2) NOT NULL,
+    idempotency_key VARCHAR(36) NOT NULL,
+    status TINYINT NOT NULL,
+    attempts INT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_balance_outbox_idempotency_key UNIQUE (idempotency_key)
+);
+CREATE INDEX idx_balance_outbox_due ON balance_outbox (status, next_attempt_at, id);
+CREATE INDEX idx_balance_outbox_account ON balance_outbox (account_id, status, id);
+CREATE SEQUENCE balance_outbox_seq START WITH 1 INCREMENT BY 50;
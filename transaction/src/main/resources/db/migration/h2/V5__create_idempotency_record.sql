@@ -0,0 +1,12 @@
+CREATE TABLE idempotency_record (
+    idempotency_key VARCHAR(64) NOT NULL,
+    account_id BIGINT NOT NULL,
+    type TINYINT NOT NULL,
+    amount DECIMAL(38, 2) NOT NULL,
+    transaction_id BIGINT,
+    balance_after_transaction DECIMAL(38, 2),
+    transaction_timestamp TIMESTAMP(6),
+    expires_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+CREATE INDEX idx_idempotency_record_expires_at ON idempotency_record (expires_at);
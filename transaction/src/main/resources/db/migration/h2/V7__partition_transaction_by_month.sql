@@ -0,0 +1,3 @@
+-- H2 has no table partitioning; only the NOT NULL timestamp the archiver relies on applies here.
+UPDATE transaction SET timestamp = TIMESTAMP '1970-01-01 00:00:00' WHERE timestamp IS NULL;
+ALTER TABLE transaction ALTER COLUMN timestamp SET NOT NULL;
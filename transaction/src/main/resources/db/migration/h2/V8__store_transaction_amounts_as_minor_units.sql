@@ -0,0 +1,4 @@
+-- Amounts and balances become whole numbers of minor units (cents), mapped to Money by the entity.
+UPDATE transaction SET amount = amount * 100, balance_after_transaction = balance_after_transaction * 100;
+ALTER TABLE transaction ALTER COLUMN amount BIGINT;
+ALTER TABLE transaction ALTER COLUMN balance_after_transaction BIGINT;
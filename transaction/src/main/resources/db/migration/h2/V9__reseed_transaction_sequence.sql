@@ -0,0 +1,7 @@
+-- Hibernate's pooled optimizer reads each value as the top of a 50-id block and hands out value - 49 .. value,
+-- so V2's START WITH 1 reissued existing ids on a table that already held rows. Never moves the value back.
+ALTER SEQUENCE transaction_seq RESTART WITH (
+    SELECT GREATEST(BASE_VALUE, (SELECT COALESCE(MAX(id), 0) + 50 FROM transaction))
+    FROM INFORMATION_SCHEMA.SEQUENCES
+    WHERE UPPER(SEQUENCE_NAME) = 'TRANSACTION_SEQ'
+);
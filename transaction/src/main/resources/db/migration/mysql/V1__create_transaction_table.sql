@@ -0,0 +1,11 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version and skip this script.
+CREATE TABLE IF NOT EXISTS transaction (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    account_id BIGINT,
+    amount DECIMAL(38, 2),
+    balance_after_transaction DECIMAL(38, 2),
+    timestamp DATETIME(6),
+    type TINYINT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,8 @@
+-- MySQL has no sequences; Hibernate emulates transaction_seq with a single-row table.
+CREATE TABLE IF NOT EXISTS transaction_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO transaction_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 1 FROM transaction
+WHERE NOT EXISTS (SELECT 1 FROM transaction_seq);
@@ -0,0 +1,3 @@
+-- Serves both the latest-ten query and keyset history pages:
+-- equality on account_id, then rows come back already in (timestamp, id) descending order.
+CREATE INDEX idx_transaction_account_history ON transaction (account_id, timestamp DESC, id DESC);
@@ -0,0 +1,23 @@
+-- Balance changes waiting to be delivered to the account service.
+-- Written in the same local transaction as the transaction rows they belong to.
+CREATE TABLE balance_outbox (
+    id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    amount DECIMAL(38, 2) NOT NULL,
+    idempotency_key VARCHAR(36) NOT NULL,
+    status TINYINT NOT NULL,
+    attempts INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    next_attempt_at DATETIME(6) NOT NULL,
+    last_error VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_balance_outbox_idempotency_key UNIQUE (idempotency_key),
+    INDEX idx_balance_outbox_due (status, next_attempt_at, id),
+    INDEX idx_balance_outbox_account (account_id, status, id)
+) ENGINE = InnoDB;
+
+CREATE TABLE balance_outbox_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO balance_outbox_seq (next_val) VALUES (1);
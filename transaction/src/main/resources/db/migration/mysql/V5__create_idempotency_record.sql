@@ -0,0 +1,13 @@
+-- Results of deposits and withdrawals made under an Idempotency-Key, kept until expires_at.
+CREATE TABLE idempotency_record (
+    idempotency_key VARCHAR(64) NOT NULL,
+    account_id BIGINT NOT NULL,
+    type TINYINT NOT NULL,
+    amount DECIMAL(38, 2) NOT NULL,
+    transaction_id BIGINT,
+    balance_after_transaction DECIMAL(38, 2),
+    transaction_timestamp DATETIME(6),
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
+) ENGINE = InnoDB;
+CREATE INDEX idx_idempotency_record_expires_at ON idempotency_record (expires_at);
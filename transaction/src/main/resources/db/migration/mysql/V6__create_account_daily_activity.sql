@@ -0,0 +1,16 @@
+-- Per-account, per-day, per-type running totals maintained alongside every transaction insert.
+-- Summary reads scan one row per active day instead of every transaction.
+CREATE TABLE account_daily_activity (
+    account_id BIGINT NOT NULL,
+    activity_date DATE NOT NULL,
+    type TINYINT NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    total_amount DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (account_id, activity_date, type)
+) ENGINE = InnoDB;
+
+-- Backfill from the history recorded so far
+INSERT INTO account_daily_activity (account_id, activity_date, type, transaction_count, total_amount)
+SELECT account_id, CAST(timestamp AS DATE), type, COUNT(*), SUM(amount)
+FROM transaction
+GROUP BY account_id, CAST(timestamp AS DATE), type;
@@ -0,0 +1,10 @@
+-- Range-partition transaction by timestamp so months can be archived and dropped as a whole.
+-- MySQL requires the partitioning column in every unique key, hence the (id, timestamp) primary key.
+-- Everything starts in p_future; TransactionArchiver splits monthly partitions off it ahead of time
+-- and drops them once their rows have been moved to the archive.
+UPDATE transaction SET timestamp = '1970-01-01 00:00:00' WHERE timestamp IS NULL;
+ALTER TABLE transaction MODIFY timestamp DATETIME(6) NOT NULL;
+ALTER TABLE transaction DROP PRIMARY KEY, ADD PRIMARY KEY (id, timestamp);
+ALTER TABLE transaction PARTITION BY RANGE COLUMNS (timestamp) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,4 @@
+-- Amounts and balances become whole numbers of minor units (cents), mapped to Money by the entity.
+-- The values are scaled while still DECIMAL so the type change itself never rounds.
+UPDATE transaction SET amount = amount * 100, balance_after_transaction = balance_after_transaction * 100;
+ALTER TABLE transaction MODIFY amount BIGINT, MODIFY balance_after_transaction BIGINT;
@@ -0,0 +1,4 @@
+-- Hibernate's pooled optimizer reads next_val as the top of a 50-id block and hands out next_val - 49 .. next_val,
+-- so V2's seed of MAX(id) + 1 reissued up to 49 existing ids. Never moves the value back.
+UPDATE transaction_seq
+SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM transaction));
@@ -0,0 +1,156 @@
+package com.bank.transaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bank.transaction.routing.AccountRouter;
+import com.bank.transaction.support.StubAccountServer;
+
+/**
+ * Runs three instances of the service on localhost sharing one database and
+ * one account service, and checks that requests entering at any instance are
+ * served by the account's owner, so concurrent read-modify-write deposits to
+ * one account never lose updates across instances.
+ */
+class ShardedClusterTest {
+
+	private static final int INSTANCES = 3;
+
+	private static StubAccountServer accountServer;
+	private static final List<String> members = new ArrayList<>();
+	private static final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@BeforeAll
+	static void startCluster() throws IOException {
+		accountServer = new StubAccountServer();
+		List<Integer> ports = new ArrayList<>();
+		for (int i = 0; i < INSTANCES; i++) {
+			try (ServerSocket socket = new ServerSocket(0)) {
+				ports.add(socket.getLocalPort());
+			}
+		}
+		ports.forEach(port -> members.add("http://localhost:" + port));
+		for (int port : ports) {
+			instances.add(new SpringApplicationBuilder(TransactionServiceApplication.class).run(
+					"--server.port=" + port,
+					"--account-service.url=" + accountServer.url(),
+					"--transaction.sharding.enabled=true",
+					"--transaction.sharding.self=http://localhost:" + port,
+					"--transaction.sharding.members=" + String.join(",", members),
+					// Sixty deposits to one account queue up behind each other at its owner
+					"--transaction.sharding.forward-timeout-ms=60000"));
+		}
+	}
+
+	@AfterAll
+	static void stopCluster() {
+		instances.forEach(ConfigurableApplicationContext::close);
+		accountServer.close();
+	}
+
+	@Test
+	void requests_AreServedByTheAccountOwner() throws Exception {
+		AccountRouter router = instances.get(0).getBean(AccountRouter.class);
+		for (long id = 100; id < 130; id++) {
+			accountServer.putAccount(id, new BigDecimal("100.00"));
+			String entry = members.get((int) (id % INSTANCES));
+
+			HttpResponse<String> response = client.send(deposit(entry, id), HttpResponse.BodyHandlers.ofString());
+
+			assertEquals(200, response.statusCode(), response.body());
+			assertEquals(router.ownerOf(id), response.headers().firstValue("X-Served-By").orElseThrow());
+		}
+	}
+
+	@Test
+	void concurrentDepositsThroughEveryInstance_AreNotLost() {
+		accountServer.putAccount(1L, new BigDecimal("0.00"));
+		int deposits = 60;
+
+		List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+		for (int i = 0; i < deposits; i++) {
+			responses.add(client.sendAsync(deposit(members.get(i % INSTANCES), 1L), HttpResponse.BodyHandlers.ofString()));
+		}
+		List<String> outcomes = responses.stream().map(CompletableFuture::join).map(r -> r.statusCode() + " " + r.body())
+				.collect(Collectors.toList());
+
+		assertEquals(deposits, outcomes.stream().filter(outcome -> outcome.startsWith("200 ")).count(), outcomes.toString());
+		assertEquals(0, new BigDecimal("600.00").compareTo(accountServer.balance(1L)));
+	}
+
+	@Test
+	void transferBetweenOneOwnersAccounts_IsServedByThatOwner() throws Exception {
+		AccountRouter router = instances.get(0).getBean(AccountRouter.class);
+		long from = 200;
+		long to = from + 1;
+		while (!router.ownerOf(to).equals(router.ownerOf(from))) {
+			to++;
+		}
+		accountServer.putAccount(from, new BigDecimal("100.00"));
+		accountServer.putAccount(to, new BigDecimal("0.00"));
+		String entry = members.stream().filter(member -> !member.equals(router.ownerOf(200L))).findFirst().orElseThrow();
+
+		HttpResponse<String> response = client.send(transfer(entry, from, to), HttpResponse.BodyHandlers.ofString());
+
+		assertEquals(200, response.statusCode(), response.body());
+		assertEquals(router.ownerOf(from), response.headers().firstValue("X-Served-By").orElseThrow());
+	}
+
+	@Test
+	void transferAcrossOwners_IsRefusedWithoutDeltaUpdates() throws Exception {
+		AccountRouter router = instances.get(0).getBean(AccountRouter.class);
+		long from = 300;
+		long to = from + 1;
+		while (router.ownerOf(to).equals(router.ownerOf(from))) {
+			to++;
+		}
+		accountServer.putAccount(from, new BigDecimal("100.00"));
+		accountServer.putAccount(to, new BigDecimal("0.00"));
+
+		HttpResponse<String> response = client.send(transfer(members.get(0), from, to), HttpResponse.BodyHandlers.ofString());
+
+		assertEquals(409, response.statusCode(), response.body());
+		assertEquals(0, new BigDecimal("100.00").compareTo(accountServer.balance(from)));
+	}
+
+	@Test
+	void accountIdBeyondLongRange_IsABadRequest() throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(
+				URI.create(members.get(0) + "/api/transactions/accounts/99999999999999999999")).GET().build();
+
+		assertEquals(400, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+	}
+
+	private static HttpRequest transfer(String instance, long from, long to) {
+		return HttpRequest.newBuilder(URI.create(instance + "/api/transactions/transfers"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(
+						"{\"fromAccountId\": " + from + ", \"toAccountId\": " + to + ", \"amount\": 25}"))
+				.build();
+	}
+
+	private static HttpRequest deposit(String instance, long accountId) {
+		return HttpRequest.newBuilder(URI.create(instance + "/api/transactions/accounts/" + accountId + "/deposit"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"amount\": 10}"))
+				.build();
+	}
+}
@@ -0,0 +1,73 @@
+package com.bank.transaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Exports two million rows of one account while surefire runs this class
+ * alone with a heap far smaller than the rows would take if collected (see
+ * the {@code capped-heap} execution in the pom). A file database keeps the
+ * table itself off the heap.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class StatementExportCappedHeapTest {
+
+	private static final int ROWS = 2_000_000;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path directory = Files.createTempDirectory("export-heap-test");
+		registry.add("spring.datasource.url",
+				() -> "jdbc:h2:file:" + directory.resolve("db") + ";MODE=MySQL;CACHE_SIZE=8192");
+	}
+
+	@Test
+	void millionsOfRows_StreamWithinACappedHeap() throws Exception {
+		jdbcTemplate.update("INSERT INTO transaction (account_id, amount, balance_after_transaction, timestamp, type)"
+				+ " SELECT 77, 125, X * 125, DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), 0"
+				+ " FROM SYSTEM_RANGE(1, " + ROWS + ")");
+
+		HttpRequest request = HttpRequest.newBuilder(
+				URI.create("http://localhost:" + port + "/api/transactions/accounts/77/export?format=csv")).build();
+		HttpResponse<InputStream> response = HttpClient.newHttpClient()
+				.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+		assertEquals(200, response.statusCode());
+		long lines = 0;
+		String last = null;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				lines++;
+				last = line;
+			}
+		}
+		assertEquals(ROWS + 1, lines);
+		assertEquals(ROWS + ",2024-01-24T03:33:20,DEPOSIT,1.25,2500000.00", last);
+	}
+}
@@ -0,0 +1,100 @@
+package com.bank.transaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.support.StubAccountServer;
+
+/**
+ * Drives many concurrent deposits through the HTTP stack against a slow
+ * account service and checks that, with virtual threads enabled, in-flight
+ * requests do not each hold a platform thread.
+ */
+// Bulkhead, breaker, timeouts and connection pool are sized to let every client through: this test is
+// about thread usage, and on a small machine 500 queued calls are legitimately slow
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.threads.virtual.enabled=true",
+		"spring.cloud.openfeign.client.config.Account-Client.read-timeout=60000",
+		"account-service.bulkhead.max-concurrent-calls=500",
+		"account-service.circuit-breaker.slow-call-duration-ms=60000",
+		"spring.cloud.openfeign.httpclient.max-connections=500",
+		"spring.cloud.openfeign.httpclient.max-connections-per-route=500" })
+class VirtualThreadLoadTest {
+
+	private static final int CLIENTS = 500;
+	private static final long ACCOUNT_SERVICE_LATENCY_MILLIS = 50;
+
+	private static final StubAccountServer accountServer = startStub();
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@Test
+	void concurrentDeposits_DoNotRequireOneOsThreadEach() {
+		for (long id = 1; id <= CLIENTS; id++) {
+			accountServer.putAccount(id, new BigDecimal("100.00"));
+		}
+		accountServer.setLatencyMillis(ACCOUNT_SERVICE_LATENCY_MILLIS);
+		HttpClient client = HttpClient.newBuilder()
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		int platformThreadsBefore = threads.getThreadCount();
+		threads.resetPeakThreadCount();
+
+		List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+		for (long id = 1; id <= CLIENTS; id++) {
+			HttpRequest request = HttpRequest.newBuilder(
+					URI.create("http://localhost:" + port + "/api/transactions/accounts/" + id + "/deposit"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString("{\"amount\": 10}"))
+					.build();
+			responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+		}
+		long succeeded = responses.stream().map(CompletableFuture::join).filter(r -> r.statusCode() == 200).count();
+
+		int extraPlatformThreads = threads.getPeakThreadCount() - platformThreadsBefore;
+		assertEquals(CLIENTS, succeeded);
+		// A platform-thread Tomcat would grow towards its 200 worker threads here
+		assertTrue(extraPlatformThreads < 100, "peak extra platform threads: " + extraPlatformThreads);
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.bank.transaction.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionPage;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.repositories.TransactionRepository;
+import com.bank.transaction.service.TransactionService;
+
+// The scheduled pass is disabled; tests call the archiver directly
+@SpringBootTest(properties = "transaction.archive.hot-months=1")
+class TransactionArchiverTest {
+
+	private static final LocalDateTime JANUARY = LocalDateTime.of(2023, 1, 10, 9, 30);
+	private static final LocalDateTime FEBRUARY = LocalDateTime.of(2023, 2, 3, 14, 0);
+
+	@Autowired
+	private TransactionArchiver archiver;
+
+	@Autowired
+	private TransactionArchive archive;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@DynamicPropertySource
+	static void archiveDirectory(DynamicPropertyRegistry registry) throws IOException {
+		Path directory = Files.createTempDirectory("transaction-archive");
+		registry.add("transaction.archive.directory", directory::toString);
+	}
+
+	@BeforeEach
+	void setUp() {
+		transactionRepository.deleteAll();
+	}
+
+	@Test
+	void oldMonths_MoveToSegmentsAndHistoryStillSeesEveryRow() {
+		List<Transaction> rows = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			rows.add(transaction(31L, JANUARY.plusDays(i)));
+			rows.add(transaction(32L, JANUARY.plusHours(i)));
+		}
+		rows.add(transaction(31L, FEBRUARY));
+		rows.add(transaction(31L, FEBRUARY));
+		for (int i = 0; i < 12; i++) {
+			rows.add(transaction(31L, LocalDateTime.now().minusSeconds(i)));
+		}
+		transactionRepository.saveAll(rows);
+
+		assertEquals(2, archiver.archiveDue());
+
+		assertEquals(12, transactionRepository.count());
+		assertEquals(LocalDateTime.of(2023, 3, 1, 0, 0), archive.archivedBefore());
+		List<TransactionDTO> seen = allPages(31L, 4);
+		assertEquals(17, seen.size());
+		Set<Long> ids = new HashSet<>();
+		for (int i = 0; i < seen.size(); i++) {
+			assertTrue(ids.add(seen.get(i).getId()));
+			if (i > 0) {
+				assertTrue(!seen.get(i).getTimestamp().isAfter(seen.get(i - 1).getTimestamp()));
+			}
+		}
+		assertEquals(3, transactionService.getLastTenTransactions(32L).size());
+		assertEquals(2, transactionRepository.findHistory(31L, LocalDateTime.of(2023, 2, 1, 0, 0),
+				LocalDateTime.of(2023, 3, 1, 0, 0), Limit.of(10)).size());
+	}
+
+	@Test
+	void rowsLeftInAnArchivedMonth_AreMergedIntoItsSegment() {
+		transactionRepository.saveAll(List.of(transaction(33L, JANUARY), transaction(34L, JANUARY)));
+		archiver.archiveDue();
+		transactionRepository.save(transaction(33L, JANUARY.plusMinutes(5)));
+
+		assertEquals(1, archiver.archiveDue());
+
+		assertEquals(0, transactionRepository.count());
+		assertEquals(2, transactionRepository.findTop10ByAccountIdOrderByTimestampDesc(33L).size());
+		assertEquals(1, transactionRepository.findTop10ByAccountIdOrderByTimestampDesc(34L).size());
+	}
+
+	@Test
+	void rowCommittedAfterTheMonthWasRead_IsNotDeleted(@TempDir Path directory) throws IOException {
+		transactionRepository.saveAll(List.of(transaction(35L, JANUARY), transaction(35L, JANUARY.plusDays(1))));
+		TransactionArchive racingArchive = new TransactionArchive(directory.toString()) {
+			@Override
+			void publish(TransactionSegment segment) {
+				// Lands after the month's rows were streamed into the segment, before any are deleted
+				transactionRepository.save(transaction(35L, JANUARY.plusDays(2)));
+				super.publish(segment);
+			}
+		};
+		TransactionArchiver racingArchiver = new TransactionArchiver(racingArchive, dataSource, false, 1, 0, 1, 3_600_000, false);
+
+		assertEquals(1, racingArchiver.archiveDue());
+
+		assertEquals(1, transactionRepository.count());
+		assertEquals(JANUARY.plusDays(2), transactionRepository.findAll().get(0).getTimestamp());
+		assertEquals(2, racingArchive.findHistory(35L, JANUARY.minusDays(1), JANUARY.plusMonths(1), null, 10).size());
+		racingArchive.close();
+	}
+
+	@Test
+	void shardedDeployment_RefusesToStart(@TempDir Path directory) throws IOException {
+		TransactionArchive localArchive = new TransactionArchive(directory.toString());
+		TransactionArchiver shardedArchiver = new TransactionArchiver(localArchive, dataSource, true, 1, 0, 1, 3_600_000, true);
+
+		assertThrows(IllegalStateException.class, shardedArchiver::start);
+		localArchive.close();
+	}
+
+	private List<TransactionDTO> allPages(Long accountId, int size) {
+		List<TransactionDTO> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			TransactionPage page = transactionService.getTransactionHistory(accountId, null, null, cursor, size);
+			seen.addAll(page.getTransactions());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return seen;
+	}
+
+	private static Transaction transaction(Long accountId, LocalDateTime timestamp) {
+		Transaction transaction = new Transaction();
+		transaction.setAccountId(accountId);
+		transaction.setAmount(Money.of(new BigDecimal("12.34")));
+		transaction.setType(TransactionType.DEPOSIT);
+		transaction.setBalanceAfterTransaction(Money.of(new BigDecimal("100.00")));
+		transaction.setTimestamp(timestamp);
+		return transaction;
+	}
+}
@@ -0,0 +1,88 @@
+package com.bank.transaction.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionType;
+
+class TransactionSegmentTest {
+
+	private static final YearMonth MONTH = YearMonth.of(2024, 3);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void accountsRoundTrip_WithEveryColumnIntact() throws Exception {
+		Path file = directory.resolve("segment.seg");
+		List<Transaction> first = rows(7L, 1_000);
+		List<Transaction> second = rows(42L, 3);
+		try (TransactionSegment.Writer writer = new TransactionSegment.Writer(file, MONTH)) {
+			writer.append(7L, first);
+			writer.append(42L, second);
+			writer.finish();
+		}
+
+		try (TransactionSegment segment = TransactionSegment.open(file)) {
+			assertEquals(MONTH, segment.getMonth());
+			assertEquals(1_003, segment.getRowCount());
+			assertSameRows(first, segment.read(7L));
+			assertSameRows(second, segment.read(42L));
+			assertTrue(segment.read(8L).isEmpty());
+			// Columnar deltas plus Deflate keep a row well under its size as a database row
+			assertTrue(segment.sizeBytes() < 1_003 * 12, "segment is " + segment.sizeBytes() + " bytes");
+		}
+	}
+
+	@Test
+	void accountsOutOfOrder_AreRejected() throws Exception {
+		try (TransactionSegment.Writer writer = new TransactionSegment.Writer(directory.resolve("bad.seg"), MONTH)) {
+			writer.append(9L, rows(9L, 1));
+			assertThrows(IllegalArgumentException.class, () -> writer.append(3L, rows(3L, 1)));
+		}
+	}
+
+	private static void assertSameRows(List<Transaction> expected, List<Transaction> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Transaction e = expected.get(i);
+			Transaction a = actual.get(i);
+			assertEquals(e.getId(), a.getId());
+			assertEquals(e.getAccountId(), a.getAccountId());
+			assertEquals(e.getTimestamp(), a.getTimestamp());
+			assertEquals(e.getType(), a.getType());
+			assertEquals(e.getAmount(), a.getAmount());
+			assertEquals(e.getBalanceAfterTransaction(), a.getBalanceAfterTransaction());
+		}
+	}
+
+	// Newest first, as the archiver writes them; sub-second timestamps and negative balances included
+	private static List<Transaction> rows(long accountId, int count) {
+		List<Transaction> rows = new ArrayList<>();
+		LocalDateTime newest = MONTH.atEndOfMonth().atTime(23, 59, 59, 999_999_000);
+		for (int i = 0; i < count; i++) {
+			Transaction transaction = new Transaction();
+			transaction.setId(accountId * 1_000_000 + count - i);
+			transaction.setAccountId(accountId);
+			transaction.setTimestamp(newest.minusSeconds(i * 37L).minusNanos(i * 1_000L));
+			transaction.setType(i % 3 == 0 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT);
+			transaction.setAmount(Money.of(new BigDecimal(i % 500 + ".25")));
+			transaction.setBalanceAfterTransaction(Money.of(new BigDecimal((i - 20) * 3 + ".10")));
+			rows.add(transaction);
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,112 @@
+package com.bank.transaction.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.support.StubAccountServer;
+
+/**
+ * Two embedded databases stand in for primary and replica. Replication is
+ * never applied, so which database answered a read shows where it was routed.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"transaction.datasource.replicas.enabled=true",
+		"transaction.datasource.replica.urls=" + ReplicaRoutingTest.REPLICA_URL,
+		"transaction.datasource.read-your-writes-window-ms=1500" })
+class ReplicaRoutingTest {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+	private static final StubAccountServer accountServer = startStub();
+	private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+		replica.update("delete from transaction");
+		new JdbcTemplate(primaryDataSource).update("delete from transaction");
+		accountServer.putAccount(5L, new BigDecimal("100.00"));
+		accountServer.putAccount(6L, new BigDecimal("100.00"));
+	}
+
+	@Test
+	void reads_GoToReplica() {
+		replica.update("insert into transaction (id, account_id, amount, balance_after_transaction, timestamp, type)"
+				+ " values (1000000, 5, 1.00, 101.00, current_timestamp, 0)");
+
+		List<TransactionDTO> latest = transactionService.getLastTenTransactions(5L);
+
+		assertEquals(1, latest.size());
+		assertEquals(1_000_000L, latest.get(0).getId());
+	}
+
+	@Test
+	void writes_GoToPrimary() {
+		transactionService.deposit(6L, new BigDecimal("10.00"));
+
+		assertEquals(1, new JdbcTemplate(primaryDataSource).queryForObject("select count(*) from transaction", Integer.class));
+		assertEquals(0, replica.queryForObject("select count(*) from transaction", Integer.class));
+	}
+
+	@Test
+	void readAfterOwnWrite_GoesToPrimaryUntilWindowPasses() throws InterruptedException {
+		TransactionDTO deposit = transactionService.deposit(6L, new BigDecimal("10.00"));
+
+		List<TransactionDTO> latest = transactionService.getLastTenTransactions(6L);
+		assertEquals(1, latest.size());
+		assertEquals(deposit.getId(), latest.get(0).getId());
+		assertEquals(deposit.getId(),
+				transactionService.getTransactionHistory(6L, null, null, null, 10).getTransactions().get(0).getId());
+		// Other accounts are not pinned
+		assertTrue(transactionService.getLastTenTransactions(5L).isEmpty());
+
+		Thread.sleep(2_000);
+		assertTrue(transactionService.getLastTenTransactions(6L).isEmpty());
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.bank.transaction.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class MoneyTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void of_ConvertsExactlyAndBack() {
+		assertEquals(12345, Money.of(new BigDecimal("123.45")).getMinorUnits());
+		assertEquals(100, Money.of(BigDecimal.ONE).getMinorUnits());
+		assertEquals(-5, Money.of(new BigDecimal("-0.050")).getMinorUnits());
+		assertEquals(new BigDecimal("123.45"), Money.ofMinor(12345).toBigDecimal());
+	}
+
+	@Test
+	void of_RejectsFractionsOfAMinorUnitAndValuesBeyondALong() {
+		assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("10.005")));
+		assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1e17")));
+	}
+
+	@Test
+	void arithmetic_ThrowsInsteadOfOverflowing() {
+		Money max = Money.ofMinor(Long.MAX_VALUE);
+
+		assertEquals(Money.ofMinor(150), Money.ofMinor(100).plus(Money.ofMinor(50)));
+		assertEquals(Money.ofMinor(-50), Money.ofMinor(50).minus(Money.ofMinor(100)));
+		assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+		assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).minus(Money.ofMinor(1)));
+		assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+	}
+
+	@Test
+	void comparisonAndText_MatchBigDecimal() {
+		assertTrue(Money.ofMinor(99).isLessThan(Money.ofMinor(100)));
+		assertEquals(0, Money.ofMinor(100).compareTo(Money.of(new BigDecimal("1.00"))));
+		for (long minorUnits : new long[] { 0, 5, -5, 100, -100, 123456, -123456, Long.MAX_VALUE, Long.MIN_VALUE }) {
+			assertEquals(BigDecimal.valueOf(minorUnits, Money.SCALE).toPlainString(),
+					Money.ofMinor(minorUnits).toString());
+		}
+	}
+
+	@Test
+	void json_IsAPlainDecimalNumber() throws JsonProcessingException {
+		AccountDTO account = new AccountDTO();
+		account.setBalance(Money.ofMinor(975104));
+		assertTrue(objectMapper.writeValueAsString(account).contains("\"balance\":9751.04"));
+		for (long minorUnits : new long[] { 0, 5, -5, 50, -105, Long.MIN_VALUE }) {
+			assertEquals("[" + Money.ofMinor(minorUnits) + "]",
+					objectMapper.writeValueAsString(new Money[] { Money.ofMinor(minorUnits) }));
+		}
+
+		assertEquals(Money.ofMinor(975104), balance("9751.04"));
+		assertEquals(Money.ofMinor(10000), balance("100"));
+		assertEquals(Money.ofMinor(10000), balance("100.0"));
+		assertEquals(Money.ofMinor(-5), balance("-0.050"));
+		assertEquals(Money.ofMinor(15000), balance("1.5E2"));
+		assertEquals(Money.ofMinor(1234), balance("\"12.34\""));
+		assertThrows(JsonProcessingException.class, () -> balance("10.005"));
+		assertThrows(JsonProcessingException.class, () -> balance("100000000000000000000"));
+	}
+
+	@Test
+	void json_IsASingleNumberToken() throws JsonProcessingException {
+		AccountDTO account = new AccountDTO();
+		account.setBalance(Money.ofMinor(1234));
+
+		JsonNode tree = objectMapper.valueToTree(account);
+		assertEquals(new BigDecimal("12.34"), tree.get("balance").decimalValue());
+		assertEquals(Money.ofMinor(1234), objectMapper.convertValue(account, AccountDTO.class).getBalance());
+		assertEquals(Money.ofMinor(-5), objectMapper.convertValue(new Money[] { Money.ofMinor(-5) }, Money[].class)[0]);
+		assertTrue(objectMapper.writer().with(JsonWriteFeature.WRITE_NUMBERS_AS_STRINGS).writeValueAsString(account)
+				.contains("\"balance\":\"12.34\""));
+	}
+
+	private Money balance(String json) throws JsonProcessingException {
+		return objectMapper.readValue("{\"balance\": " + json + "}", AccountDTO.class).getBalance();
+	}
+}
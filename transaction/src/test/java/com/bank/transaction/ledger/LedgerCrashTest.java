@@ -0,0 +1,130 @@
+package com.bank.transaction.ledger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+
+/**
+ * Kills a process writing to the ledger with SIGKILL, several times over, and
+ * checks that recovery keeps every acknowledged transfer and never half of
+ * one.
+ */
+class LedgerCrashTest {
+
+	private static final int ACCOUNTS = 20;
+	private static final long OPENING_BALANCE = 100_000;
+	private static final int SEGMENT_BYTES = 1024 * LedgerJournal.RECORD_BYTES;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void killedMidWrite_RecoversEveryAcknowledgedTransfer() throws Exception {
+		List<long[]> acknowledged = new ArrayList<>();
+		for (int round = 0; round < 3; round++) {
+			Process writer = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+					"-cp", System.getProperty("java.class.path"), Writer.class.getName(), directory.toString())
+					.redirectError(ProcessBuilder.Redirect.INHERIT)
+					.start();
+			try (BufferedReader out = new BufferedReader(
+					new InputStreamReader(writer.getInputStream(), StandardCharsets.US_ASCII))) {
+				int acknowledgedThisRound = 0;
+				String line;
+				while (acknowledgedThisRound < 2_000 && (line = out.readLine()) != null) {
+					String[] fields = line.split(" ");
+					// Output is cut wherever the kill lands, so a last partial line is expected
+					if (fields.length == 5) {
+						long[] transfer = new long[5];
+						for (int i = 0; i < 5; i++) {
+							transfer[i] = Long.parseLong(fields[i]);
+						}
+						acknowledged.add(transfer);
+						acknowledgedThisRound++;
+					}
+				}
+				assertEquals(2_000, acknowledgedThisRound, "writer stopped early in round " + round);
+				writer.destroyForcibly();
+				assertTrue(writer.waitFor(30, TimeUnit.SECONDS));
+			}
+		}
+
+		Map<Long, JournalRecord> records = new HashMap<>();
+		LedgerJournal.open(directory, SEGMENT_BYTES, false, 0, record -> records.put(record.getSequence(), record))
+				.close();
+		// Each line is the credit's sequence, both accounts and both balances after; the debit is the record before
+		for (long[] transfer : acknowledged) {
+			JournalRecord debit = records.get(transfer[0] - 1);
+			JournalRecord credit = records.get(transfer[0]);
+			assertNotNull(credit, "acknowledged record " + transfer[0] + " was lost");
+			assertEquals(transfer[1], debit.getAccountId());
+			assertEquals(transfer[2], credit.getAccountId());
+			assertEquals(transfer[3], debit.getBalanceAfter());
+			assertEquals(transfer[4], credit.getBalanceAfter());
+		}
+
+		Ledger ledger = new Ledger(true, directory.toString(), SEGMENT_BYTES, true, 0, ACCOUNTS, false);
+		ledger.start();
+		long total = 0;
+		for (long account = 1; account <= ACCOUNTS; account++) {
+			long balance = ledger.balance(account).getMinorUnits();
+			assertTrue(balance >= 0, "account " + account + " is overdrawn");
+			total += balance;
+		}
+		// Transfers only move money, so a replayed half of one would show up here
+		assertEquals(ACCOUNTS * OPENING_BALANCE, total);
+		ledger.closeJournal();
+	}
+
+	/**
+	 * Runs random transfers on four threads until killed, printing each one
+	 * once it is durable.
+	 */
+	public static final class Writer {
+
+		public static void main(String[] args) throws Exception {
+			Ledger ledger = new Ledger(true, args[0], SEGMENT_BYTES, true, 0, ACCOUNTS, false);
+			ledger.start();
+			for (long account = 1; account <= ACCOUNTS; account++) {
+				ledger.open(account, Money.ofMinor(OPENING_BALANCE));
+			}
+			for (int i = 0; i < 4; i++) {
+				new Thread(() -> transferForever(ledger)).start();
+			}
+		}
+
+		private static void transferForever(Ledger ledger) {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			while (true) {
+				long from = random.nextInt(ACCOUNTS) + 1;
+				long to = (from + random.nextInt(1, ACCOUNTS) - 1) % ACCOUNTS + 1;
+				try {
+					List<LedgerPosting> postings = ledger.transfer(from, to, Money.ofMinor(random.nextInt(1, 5_000)));
+					ledger.awaitDurable(postings.get(1));
+					System.out.println(postings.get(1).getSequence() + " " + from + " " + to + " "
+							+ postings.get(0).getBalanceAfter().getMinorUnits() + " "
+							+ postings.get(1).getBalanceAfter().getMinorUnits());
+				} catch (InsufficientBalanceException e) {
+					// Try another pair
+				}
+			}
+		}
+	}
+}
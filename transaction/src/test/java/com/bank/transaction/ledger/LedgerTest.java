@@ -0,0 +1,239 @@
+package com.bank.transaction.ledger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.exceptions.AccountNotFoundException;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+
+class LedgerTest {
+
+	private static final int SMALL_SEGMENT = 1024 * LedgerJournal.RECORD_BYTES;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void balances_SurviveRestart() throws Exception {
+		Ledger ledger = start(64 << 20);
+		ledger.open(1L, Money.ofMinor(10_000));
+		ledger.open(2L, Money.ZERO);
+		ledger.post(1L, TransactionType.DEPOSIT, Money.ofMinor(550));
+		List<LedgerPosting> transfer = ledger.transfer(1L, 2L, Money.ofMinor(2_500));
+		ledger.awaitDurable(transfer.get(1));
+		LedgerPosting withdrawal = ledger.post(2L, TransactionType.WITHDRAWAL, Money.ofMinor(100));
+
+		assertEquals(Money.ofMinor(8_050), transfer.get(0).getBalanceAfter());
+		assertEquals(Money.ofMinor(2_400), withdrawal.getBalanceAfter());
+		ledger.stop();
+
+		Ledger restarted = start(64 << 20);
+		assertEquals(Money.ofMinor(8_050), restarted.balance(1L));
+		assertEquals(Money.ofMinor(2_400), restarted.balance(2L));
+		assertNull(restarted.balance(3L));
+		restarted.stop();
+	}
+
+	@Test
+	void overdraft_IsRejectedWithoutJournaling() throws Exception {
+		Ledger ledger = start(64 << 20);
+		ledger.open(1L, Money.ofMinor(100));
+		ledger.open(2L, Money.ZERO);
+
+		InsufficientBalanceException e = assertThrows(InsufficientBalanceException.class,
+				() -> ledger.post(1L, TransactionType.WITHDRAWAL, Money.ofMinor(101)));
+		assertTrue(e.getMessage().contains("Current balance: 1.00"), e.getMessage());
+		assertThrows(InsufficientBalanceException.class, () -> ledger.transfer(1L, 2L, Money.ofMinor(101)));
+		assertThrows(AccountNotFoundException.class, () -> ledger.post(3L, TransactionType.DEPOSIT, Money.ofMinor(1)));
+		assertThrows(AccountNotFoundException.class, () -> ledger.transfer(1L, 3L, Money.ofMinor(1)));
+		assertThrows(AccountNotFoundException.class, () -> ledger.transfer(3L, 1L, Money.ofMinor(1)));
+		assertEquals(2, replay(0).size());
+		ledger.stop();
+	}
+
+	@Test
+	void depositPastTheLargestBalance_FailsAsOverflowNotOverdraft() throws Exception {
+		Ledger ledger = start(64 << 20);
+		ledger.open(1L, Money.ofMinor(Long.MAX_VALUE - 1));
+
+		assertThrows(ArithmeticException.class, () -> ledger.post(1L, TransactionType.DEPOSIT, Money.ofMinor(2)));
+		assertEquals(Money.ofMinor(Long.MAX_VALUE - 1), ledger.balance(1L));
+		assertEquals(1, replay(0).size());
+		ledger.stop();
+	}
+
+	@Test
+	void rolledBackPostings_AreReversed() throws Exception {
+		Ledger ledger = start(64 << 20);
+		ledger.open(1L, Money.ofMinor(1_000));
+		ledger.open(2L, Money.ofMinor(1_000));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			ledger.post(1L, TransactionType.WITHDRAWAL, Money.ofMinor(300));
+			ledger.transfer(2L, 1L, Money.ofMinor(200));
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertEquals(Money.ofMinor(1_000), ledger.balance(1L));
+		assertEquals(Money.ofMinor(1_000), ledger.balance(2L));
+		ledger.stop();
+		Ledger restarted = start(64 << 20);
+		assertEquals(Money.ofMinor(1_000), restarted.balance(1L));
+		assertEquals(Money.ofMinor(1_000), restarted.balance(2L));
+		restarted.stop();
+	}
+
+	@Test
+	void snapshot_DropsCoveredSegmentsAndRecoveryReplaysOnlyTheRest() throws Exception {
+		Ledger ledger = start(SMALL_SEGMENT);
+		for (long account = 0; account < 100; account++) {
+			ledger.open(account, Money.ZERO);
+		}
+		for (int i = 0; i < 5_000; i++) {
+			ledger.post(i % 100, TransactionType.DEPOSIT, Money.ofMinor(i));
+		}
+		assertTrue(segments().size() >= 5, "segments: " + segments());
+
+		ledger.snapshot();
+		assertEquals(1, segments().size());
+		for (int i = 0; i < 50; i++) {
+			ledger.post(7L, TransactionType.WITHDRAWAL, Money.ofMinor(1));
+		}
+		ledger.awaitDurable();
+		Money expected = ledger.balance(7L);
+		// Crash without the shutdown snapshot: recovery must combine the snapshot with the journal after it
+		ledger.closeJournal();
+
+		Ledger restarted = start(SMALL_SEGMENT);
+		assertEquals(expected, restarted.balance(7L));
+		long total = 0;
+		for (long account = 0; account < 100; account++) {
+			total += restarted.balance(account).getMinorUnits();
+		}
+		assertEquals(4_999L * 5_000 / 2 - 50, total);
+		restarted.stop();
+	}
+
+	@Test
+	void tornTail_IsCutAndWritingResumesAfterTheLastCompleteGroup() throws Exception {
+		Ledger ledger = start(64 << 20);
+		ledger.open(1L, Money.ofMinor(1_000));
+		ledger.open(2L, Money.ofMinor(1_000));
+		ledger.post(1L, TransactionType.DEPOSIT, Money.ofMinor(1));
+		ledger.transfer(1L, 2L, Money.ofMinor(500));
+		ledger.awaitDurable();
+		ledger.closeJournal();
+
+		// Tear the transfer's credit leg, as a process killed halfway through the copy would
+		Path segment = segments().get(0);
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 0x7f, 0x7f, 0x7f }), 4L * LedgerJournal.RECORD_BYTES + 20);
+		}
+
+		Ledger recovered = start(64 << 20);
+		assertEquals(Money.ofMinor(1_001), recovered.balance(1L));
+		assertEquals(Money.ofMinor(1_000), recovered.balance(2L));
+		recovered.post(2L, TransactionType.DEPOSIT, Money.ofMinor(5));
+		recovered.awaitDurable();
+		recovered.closeJournal();
+
+		List<JournalRecord> records = replay(0);
+		assertEquals(4, records.size());
+		assertEquals(4L, records.get(3).getSequence());
+		assertEquals(1_005L, records.get(3).getBalanceAfter());
+		Ledger restarted = start(64 << 20);
+		assertEquals(Money.ofMinor(1_005), restarted.balance(2L));
+		restarted.stop();
+	}
+
+	@Test
+	void corruptionBeforeTheLastSegment_FailsRecovery() throws Exception {
+		Ledger ledger = start(SMALL_SEGMENT);
+		ledger.open(1L, Money.ZERO);
+		for (int i = 0; i < 1_500; i++) {
+			ledger.post(1L, TransactionType.DEPOSIT, Money.ofMinor(1));
+		}
+		ledger.awaitDurable();
+		ledger.closeJournal();
+
+		try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 1 }), 100L * LedgerJournal.RECORD_BYTES + 9);
+		}
+
+		assertThrows(IOException.class, () -> start(SMALL_SEGMENT));
+	}
+
+	@Test
+	void accountBalances_GrowAndKeepAccountZero() {
+		AccountBalances balances = new AccountBalances(4);
+		for (long account = 0; account < 10_000; account++) {
+			balances.put(account * 31, -account);
+		}
+		balances.put(0L, 42L);
+
+		assertEquals(10_000, balances.size());
+		assertEquals(42L, balances.get(0L));
+		assertEquals(-9_999L, balances.get(9_999L * 31));
+		assertFalse(balances.contains(5L));
+		AccountBalances copy = balances.copy();
+		balances.put(31L, 7L);
+		assertEquals(-1L, copy.get(31L));
+		long[] sum = new long[1];
+		copy.forEach((account, balance) -> sum[0] += balance);
+		assertEquals(42L - 9_999L * 10_000 / 2, sum[0]);
+	}
+
+	@Test
+	void shardedDeployment_RefusesToStart() {
+		Ledger ledger = new Ledger(true, directory.toString(), SMALL_SEGMENT, true, 0, 16, true);
+
+		assertThrows(IllegalStateException.class, ledger::start);
+		assertFalse(Files.exists(directory.resolve(String.format("journal-%020d.log", 1))));
+	}
+
+	private Ledger start(int segmentBytes) throws IOException {
+		Ledger ledger = new Ledger(true, directory.toString(), segmentBytes, true, 0, 16, false);
+		ledger.start();
+		return ledger;
+	}
+
+	private List<JournalRecord> replay(long afterSequence) throws IOException {
+		List<JournalRecord> records = new ArrayList<>();
+		LedgerJournal.open(directory, 64 << 20, false, afterSequence, records::add).close();
+		return records;
+	}
+
+	private List<Path> segments() throws IOException {
+		TreeMap<String, Path> segments = new TreeMap<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "journal-*.log")) {
+			files.forEach(file -> segments.put(file.getFileName().toString(), file));
+		}
+		return new ArrayList<>(segments.values());
+	}
+}
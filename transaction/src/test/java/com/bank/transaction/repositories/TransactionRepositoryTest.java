@@ -0,0 +1,101 @@
+package com.bank.transaction.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionType;
+
+@DataJpaTest
+class TransactionRepositoryTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+	private static final LocalDateTime END = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		List<Transaction> rows = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			// Pairs of rows share a timestamp so the id tie-breaker is exercised
+			rows.add(transaction(1L, START.plusDays(i / 2)));
+			rows.add(transaction(2L, START.plusDays(i)));
+		}
+		transactionRepository.saveAll(rows);
+	}
+
+	@Test
+	void keysetPages_VisitEveryRowOnceInOrder() {
+		List<Transaction> seen = new ArrayList<>();
+		List<Transaction> page = transactionRepository.findHistory(1L, START, END, Limit.of(7));
+		while (!page.isEmpty()) {
+			seen.addAll(page);
+			Transaction last = page.get(page.size() - 1);
+			page = transactionRepository.findHistoryBefore(1L, START, last.getTimestamp(), last.getId(), Limit.of(7));
+		}
+
+		assertEquals(25, seen.size());
+		for (int i = 1; i < seen.size(); i++) {
+			Transaction previous = seen.get(i - 1);
+			Transaction current = seen.get(i);
+			assertEquals(1L, current.getAccountId());
+			assertTrue(previous.getTimestamp().isAfter(current.getTimestamp())
+					|| (previous.getTimestamp().equals(current.getTimestamp()) && previous.getId() > current.getId()));
+		}
+	}
+
+	@Test
+	void history_RespectsDateRange() {
+		List<Transaction> rows = transactionRepository.findHistory(2L, START.plusDays(5), START.plusDays(10), Limit.of(100));
+
+		assertEquals(5, rows.size());
+		assertEquals(START.plusDays(9), rows.get(0).getTimestamp());
+		assertEquals(START.plusDays(5), rows.get(4).getTimestamp());
+	}
+
+	@Test
+	void historyQueries_UseAccountHistoryIndex() {
+		String latestTen = explain("SELECT * FROM transaction WHERE account_id = 1"
+				+ " ORDER BY timestamp DESC, id DESC LIMIT 10");
+		String keysetPage = explain("SELECT * FROM transaction WHERE account_id = 1"
+				+ " AND timestamp >= TIMESTAMP '2024-01-01 00:00:00'"
+				+ " AND (timestamp < TIMESTAMP '2024-06-01 00:00:00'"
+				+ " OR (timestamp = TIMESTAMP '2024-06-01 00:00:00' AND id < 100))"
+				+ " ORDER BY timestamp DESC, id DESC LIMIT 50");
+
+		assertTrue(latestTen.contains("IDX_TRANSACTION_ACCOUNT_HISTORY"), latestTen);
+		assertTrue(keysetPage.contains("IDX_TRANSACTION_ACCOUNT_HISTORY"), keysetPage);
+	}
+
+	private String explain(String sql) {
+		return String.valueOf(entityManager.getEntityManager().createNativeQuery("EXPLAIN " + sql).getSingleResult());
+	}
+
+	private static Transaction transaction(Long accountId, LocalDateTime timestamp) {
+		Transaction transaction = new Transaction();
+		transaction.setAccountId(accountId);
+		transaction.setAmount(Money.of(BigDecimal.ONE));
+		transaction.setType(TransactionType.DEPOSIT);
+		transaction.setBalanceAfterTransaction(Money.of(BigDecimal.ONE));
+		transaction.setTimestamp(timestamp);
+		return transaction;
+	}
+}
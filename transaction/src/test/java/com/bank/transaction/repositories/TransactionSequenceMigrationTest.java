@@ -0,0 +1,36 @@
+package com.bank.transaction.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class TransactionSequenceMigrationTest {
+
+	@Test
+	void upgradedTable_SequenceStartsAboveEveryExistingIdBlock() throws SQLException {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:sequence-upgrade;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		dataSource.setUser("sa");
+		Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").target("1").load().migrate();
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO transaction (id, account_id, amount, balance_after_transaction, timestamp, type)"
+					+ " SELECT x, 1, 1, 1, CURRENT_TIMESTAMP, 0 FROM SYSTEM_RANGE(1, 120)");
+
+			Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+
+			// Hibernate hands out value - 49 .. value from each value it reads
+			try (ResultSet next = statement.executeQuery("SELECT NEXT VALUE FOR transaction_seq")) {
+				next.next();
+				assertTrue(next.getLong(1) - 49 > 120, "sequence returned " + next.getLong(1));
+			}
+			statement.execute("DROP ALL OBJECTS");
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.bank.transaction.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ConsistentHashRingTest {
+
+	private static final int ACCOUNTS = 100_000;
+
+	@Test
+	void ownership_IsIndependentOfMemberOrder() {
+		ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+		ConsistentHashRing reordered = new ConsistentHashRing(List.of("c", "a", "b"), 128);
+
+		for (long id = 1; id <= 1_000; id++) {
+			assertEquals(ring.ownerOf(id), reordered.ownerOf(id));
+		}
+	}
+
+	@Test
+	void accounts_AreSpreadEvenly() {
+		ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+		Map<String, Integer> owned = new HashMap<>();
+		for (long id = 1; id <= ACCOUNTS; id++) {
+			owned.merge(ring.ownerOf(id), 1, Integer::sum);
+		}
+
+		for (int count : owned.values()) {
+			assertTrue(Math.abs(count - ACCOUNTS / 4) < ACCOUNTS / 4 * 0.2, "owned: " + owned);
+		}
+	}
+
+	@Test
+	void addingMember_MovesOnlyItsShareOfAccounts() {
+		ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+		ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+
+		int moved = 0;
+		for (long id = 1; id <= ACCOUNTS; id++) {
+			String owner = after.ownerOf(id);
+			if (!owner.equals(before.ownerOf(id))) {
+				assertEquals("d", owner);
+				moved++;
+			}
+		}
+		assertTrue(moved > ACCOUNTS / 4 * 0.8 && moved < ACCOUNTS / 4 * 1.2, "moved: " + moved);
+	}
+
+	@Test
+	void removingMember_MovesOnlyItsAccounts() {
+		ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+		ConsistentHashRing after = new ConsistentHashRing(List.of("a", "c"), 128);
+
+		for (long id = 1; id <= ACCOUNTS; id++) {
+			String owner = before.ownerOf(id);
+			if (!owner.equals("b")) {
+				assertEquals(owner, after.ownerOf(id));
+			}
+		}
+	}
+}
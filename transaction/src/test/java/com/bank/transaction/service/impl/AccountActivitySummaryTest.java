@@ -0,0 +1,158 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction.entities.AccountSummary;
+import com.bank.transaction.entities.ActivityPeriod;
+import com.bank.transaction.entities.BatchOperationRequest;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.SummaryGranularity;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+import com.bank.transaction.repositories.AccountDailyActivityRepository;
+import com.bank.transaction.repositories.TransactionRepository;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.support.StubAccountServer;
+
+@SpringBootTest
+class AccountActivitySummaryTest {
+
+	private static final StubAccountServer accountServer = startStub();
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private AccountDailyActivityRepository activityRepository;
+
+	@Autowired
+	private AccountActivityRecorder activityRecorder;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		transactionRepository.deleteAll();
+		activityRepository.deleteAll();
+		accountServer.putAccount(21L, new BigDecimal("100.00"));
+	}
+
+	@Test
+	void everyWritePath_UpdatesTodaysTotals() {
+		transactionService.deposit(21L, new BigDecimal("40.00"));
+		transactionService.withdraw(21L, new BigDecimal("15.00"));
+		transactionService.processBatch(List.of(
+				operation("5.00"), operation("7.50")));
+		LocalDate today = LocalDate.now();
+
+		AccountSummary summary = transactionService.getAccountSummary(21L, today.minusDays(1), today,
+				SummaryGranularity.DAY);
+
+		assertEquals(3, summary.getTotals().get(TransactionType.DEPOSIT).getCount());
+		assertEquals(0, new BigDecimal("52.50").compareTo(summary.getTotals().get(TransactionType.DEPOSIT).getAmount()));
+		assertEquals(1, summary.getTotals().get(TransactionType.WITHDRAWAL).getCount());
+		assertEquals(0, new BigDecimal("15.00").compareTo(summary.getTotals().get(TransactionType.WITHDRAWAL).getAmount()));
+		assertEquals(1, summary.getPeriods().size());
+		assertEquals(today, summary.getPeriods().get(0).getStart());
+	}
+
+	@Test
+	void rejectedWithdrawal_LeavesTotalsUntouched() {
+		transactionService.deposit(21L, new BigDecimal("10.00"));
+
+		assertThrows(InsufficientBalanceException.class,
+				() -> transactionService.withdraw(21L, new BigDecimal("1000.00")));
+
+		AccountSummary summary = transactionService.getAccountSummary(21L, LocalDate.now(), LocalDate.now(),
+				SummaryGranularity.DAY);
+		assertEquals(1, summary.getTotals().get(TransactionType.DEPOSIT).getCount());
+		assertTrue(!summary.getTotals().containsKey(TransactionType.WITHDRAWAL));
+	}
+
+	@Test
+	void monthlySummary_MatchesAScanOfTheRows() {
+		LocalDateTime start = LocalDateTime.of(2024, 1, 25, 12, 0);
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			for (int day = 0; day < 20; day++) {
+				List<Transaction> saved = transactionRepository.saveAll(List.of(
+						transaction(TransactionType.DEPOSIT, "10.00", start.plusDays(day)),
+						transaction(TransactionType.WITHDRAWAL, "3.00", start.plusDays(day))));
+				activityRecorder.record(saved);
+			}
+		});
+
+		AccountSummary summary = transactionService.getAccountSummary(21L, LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 2, 29), SummaryGranularity.MONTH);
+
+		List<ActivityPeriod> periods = summary.getPeriods();
+		assertEquals(2, periods.size());
+		assertEquals(LocalDate.of(2024, 1, 1), periods.get(0).getStart());
+		assertEquals(7, periods.get(0).getTotals().get(TransactionType.DEPOSIT).getCount());
+		assertEquals(LocalDate.of(2024, 2, 1), periods.get(1).getStart());
+		assertEquals(13, periods.get(1).getTotals().get(TransactionType.WITHDRAWAL).getCount());
+		assertEquals(0, new BigDecimal("200.00").compareTo(summary.getTotals().get(TransactionType.DEPOSIT).getAmount()));
+		assertEquals(0, new BigDecimal("60.00").compareTo(summary.getTotals().get(TransactionType.WITHDRAWAL).getAmount()));
+	}
+
+	@Test
+	void invertedRange_IsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> transactionService.getAccountSummary(21L,
+				LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), SummaryGranularity.DAY));
+	}
+
+	private static BatchOperationRequest operation(String amount) {
+		BatchOperationRequest operation = new BatchOperationRequest();
+		operation.setAccountId(21L);
+		operation.setType(TransactionType.DEPOSIT);
+		operation.setAmount(new BigDecimal(amount));
+		return operation;
+	}
+
+	private static Transaction transaction(TransactionType type, String amount, LocalDateTime timestamp) {
+		Transaction transaction = TransactionServiceImpl.newTransaction(21L, Money.of(new BigDecimal(amount)), type,
+				Money.ZERO);
+		transaction.setTimestamp(timestamp);
+		return transaction;
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
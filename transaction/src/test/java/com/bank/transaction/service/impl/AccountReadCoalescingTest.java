@@ -0,0 +1,127 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.entities.AccountDTO;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.support.StubAccountServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+class AccountReadCoalescingTest {
+
+	private static final StubAccountServer accountServer = startStub();
+	private static final int BURST = 32;
+
+	@Autowired
+	private ManagedAccountClient accountClient;
+
+	@Autowired
+	@Qualifier("accountFeignClient")
+	private AccountClient feignClient;
+
+	@Autowired
+	private AccountServiceResilience resilience;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		accountServer.putAccount(51L, new BigDecimal("100.00"));
+		accountServer.resetCounters();
+		accountServer.setLatencyMillis(200);
+	}
+
+	@AfterEach
+	void tearDown() {
+		accountServer.setLatencyMillis(0);
+	}
+
+	@Test
+	void burstOfLookups_SharesOneCall() throws Exception {
+		long remoteBefore = accountClient.remoteReads();
+		long coalescedBefore = accountClient.coalescedReads();
+
+		List<AccountDTO> accounts = burst(accountClient);
+
+		// A thread scheduled only after the first call returns starts a new one, which a loaded machine can cause
+		assertTrue(accountServer.getCalls() <= 3, "account service saw " + accountServer.getCalls() + " lookups");
+		assertEquals(accountServer.getCalls(), accountClient.remoteReads() - remoteBefore);
+		assertEquals(BURST - accountServer.getCalls(), accountClient.coalescedReads() - coalescedBefore);
+		for (AccountDTO account : accounts) {
+			assertEquals(Money.of(new BigDecimal("100.00")), account.getBalance());
+		}
+	}
+
+	@Test
+	void burstOfLookups_WithoutCoalescing_CallsOncePerLookup() throws Exception {
+		ManagedAccountClient uncoalesced = new ManagedAccountClient(feignClient, resilience, false, 100, 60_000, false,
+				new SimpleMeterRegistry());
+
+		burst(uncoalesced);
+
+		assertEquals(BURST, accountServer.getCalls());
+		assertEquals(BURST, uncoalesced.remoteReads());
+		assertEquals(0, uncoalesced.coalescedReads());
+	}
+
+	// Every thread looks up the same account at once
+	private static List<AccountDTO> burst(AccountClient client) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(BURST);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<AccountDTO>> lookups = new ArrayList<>();
+			for (int i = 0; i < BURST; i++) {
+				lookups.add(executor.submit(() -> {
+					start.await();
+					return client.getAccount(51L);
+				}));
+			}
+			start.countDown();
+			List<AccountDTO> accounts = new ArrayList<>();
+			for (Future<AccountDTO> lookup : lookups) {
+				accounts.add(lookup.get());
+			}
+			return accounts;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.exceptions.AccountServiceUnavailableException;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.support.StubAccountServer;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+/**
+ * Chaos test against an account service that answers far slower than the
+ * configured read timeout: callers must get an answer within bounded time,
+ * only the bulkhead's worth of threads may wait on the account service, and
+ * once the breaker opens calls must fail without reaching it at all.
+ */
+@SpringBootTest(properties = {
+		"spring.cloud.openfeign.client.config.Account-Client.read-timeout=200",
+		"account-service.bulkhead.max-concurrent-calls=4",
+		"account-service.bulkhead.max-wait-ms=0",
+		"account-service.circuit-breaker.sliding-window-size=8",
+		"account-service.circuit-breaker.minimum-calls=4",
+		"account-service.circuit-breaker.open-duration-ms=60000" })
+class AccountServiceResilienceTest {
+
+	private static final int CLIENTS = 32;
+	private static final long ACCOUNT_SERVICE_LATENCY_MILLIS = 2_000;
+
+	private static final StubAccountServer accountServer = startStub();
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountServiceResilience resilience;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@Test
+	void slowAccountService_IsCutOffAndThenSkipped() throws Exception {
+		for (long id = 1; id <= CLIENTS; id++) {
+			accountServer.putAccount(id, new BigDecimal("100.00"));
+		}
+		accountServer.setLatencyMillis(ACCOUNT_SERVICE_LATENCY_MILLIS);
+
+		ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+		List<Future<Long>> latencies = new ArrayList<>();
+		try {
+			for (long id = 1; id <= CLIENTS; id++) {
+				long accountId = id;
+				latencies.add(executor.submit(() -> timedDeposit(accountId)));
+			}
+			for (Future<Long> latency : latencies) {
+				long millis = latency.get();
+				assertTrue(millis < 1_000, "deposit took " + millis + " ms against a " + ACCOUNT_SERVICE_LATENCY_MILLIS
+						+ " ms account service");
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertTrue(accountServer.maxInFlight() <= 4, "in flight: " + accountServer.maxInFlight());
+
+		// Wait for the timed-out calls to be recorded, then keep failing until the breaker trips
+		for (int i = 0; i < 8 && resilience.circuitState() != CircuitBreaker.State.OPEN; i++) {
+			timedDeposit(1L);
+		}
+		assertEquals(CircuitBreaker.State.OPEN, resilience.circuitState());
+
+		int receivedBefore = accountServer.receivedCalls();
+		long millis = timedDeposit(2L);
+		assertTrue(millis < 100, "fail-fast deposit took " + millis + " ms");
+		assertEquals(receivedBefore, accountServer.receivedCalls());
+	}
+
+	private long timedDeposit(long accountId) {
+		long start = System.nanoTime();
+		assertThrows(AccountServiceUnavailableException.class,
+				() -> transactionService.deposit(accountId, new BigDecimal("10.00")));
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
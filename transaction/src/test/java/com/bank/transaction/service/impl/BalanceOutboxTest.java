@@ -0,0 +1,183 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction.entities.BalanceOutboxEntry;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.OutboxStatus;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+import com.bank.transaction.repositories.BalanceOutboxRepository;
+import com.bank.transaction.repositories.TransactionRepository;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.support.StubAccountServer;
+
+// The background poll is pushed out of the way; tests drive the dispatcher directly
+@SpringBootTest(properties = {
+		"account-service.outbox.enabled=true",
+		"account-service.outbox.poll-interval-ms=3600000",
+		"account-service.outbox.retry-backoff-ms=0" })
+class BalanceOutboxTest {
+
+	private static final StubAccountServer accountServer = startStub();
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private BalanceOutboxDispatcher dispatcher;
+
+	@Autowired
+	private BalanceOutboxRepository outboxRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		accountServer.putAccount(9L, new BigDecimal("100.00"));
+		accountServer.resetCounters();
+		outboxRepository.deleteAll();
+		transactionRepository.deleteAll();
+	}
+
+	@Test
+	void deposit_CommitsLocallyAndIsDeliveredAfterwards() {
+		TransactionDTO result = transactionService.deposit(9L, new BigDecimal("25.00"));
+
+		assertEquals(Money.of(new BigDecimal("125.00")), result.getBalanceAfterTransaction());
+		assertEquals(0, accountServer.adjustCalls());
+		assertEquals(new BigDecimal("100.00"), accountServer.balance(9L));
+		assertEquals(1, outboxRepository.count());
+
+		assertEquals(1, dispatcher.dispatchPending());
+
+		assertEquals(new BigDecimal("125.00"), accountServer.balance(9L));
+		assertEquals(0, outboxRepository.count());
+	}
+
+	@Test
+	void withdraw_ChecksBalanceIncludingUndeliveredChanges() {
+		transactionService.deposit(9L, new BigDecimal("50.00"));
+
+		TransactionDTO result = transactionService.withdraw(9L, new BigDecimal("140.00"));
+		assertEquals(Money.of(new BigDecimal("10.00")), result.getBalanceAfterTransaction());
+		assertThrows(InsufficientBalanceException.class,
+				() -> transactionService.withdraw(9L, new BigDecimal("10.01")));
+
+		assertEquals(2, dispatcher.dispatchPending());
+		assertEquals(new BigDecimal("10.00"), accountServer.balance(9L));
+	}
+
+	@Test
+	void rolledBackTransaction_LeavesNoOutboxEntry() {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.executeWithoutResult(status -> {
+			transactionService.deposit(9L, new BigDecimal("25.00"));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(0, outboxRepository.count());
+		assertEquals(0, transactionRepository.count());
+		assertEquals(0, dispatcher.dispatchPending());
+		assertEquals(new BigDecimal("100.00"), accountServer.balance(9L));
+	}
+
+	@Test
+	void unavailableAccountService_IsRetriedInOrder() {
+		transactionService.deposit(9L, new BigDecimal("25.00"));
+		transactionService.withdraw(9L, new BigDecimal("120.00"));
+		accountServer.rejectNextAdjustments(1);
+
+		assertEquals(0, dispatcher.dispatchPending());
+		List<BalanceOutboxEntry> pending = outboxRepository.findAll();
+		assertEquals(2, pending.size());
+		assertEquals(1, pending.stream().mapToInt(BalanceOutboxEntry::getAttempts).sum());
+		assertEquals(new BigDecimal("100.00"), accountServer.balance(9L));
+
+		assertEquals(2, dispatcher.dispatchPending());
+		assertEquals(new BigDecimal("5.00"), accountServer.balance(9L));
+		assertEquals(0, outboxRepository.count());
+	}
+
+	@Test
+	void lostResponse_IsRetriedWithSameKeyAndAppliedOnce() {
+		transactionService.deposit(9L, new BigDecimal("25.00"));
+		accountServer.dropNextAdjustmentResponses(1);
+
+		assertEquals(0, dispatcher.dispatchPending());
+		assertEquals(new BigDecimal("125.00"), accountServer.balance(9L));
+
+		assertEquals(1, dispatcher.dispatchPending());
+		assertEquals(2, accountServer.adjustCalls());
+		assertEquals(new BigDecimal("125.00"), accountServer.balance(9L));
+		assertEquals(0, outboxRepository.count());
+	}
+
+	@Test
+	void rejectedChange_IsParkedAndDoesNotBlockTheAccount() {
+		accountServer.putAccount(9L, new BigDecimal("100.00"));
+		transactionService.withdraw(9L, new BigDecimal("80.00"));
+		// Someone else drains the account before the withdrawal is delivered
+		accountServer.putAccount(9L, new BigDecimal("10.00"));
+		transactionService.deposit(9L, new BigDecimal("5.00"));
+
+		assertEquals(1, dispatcher.dispatchPending());
+
+		assertEquals(new BigDecimal("15.00"), accountServer.balance(9L));
+		assertEquals(1, outboxRepository.countByStatus(OutboxStatus.FAILED));
+		assertEquals(0, outboxRepository.countByStatus(OutboxStatus.PENDING));
+	}
+
+	@Test
+	void transfer_QueuesBothChangesAndCallsOnlyToRead() {
+		accountServer.putAccount(10L, new BigDecimal("5.00"));
+		transactionService.deposit(9L, new BigDecimal("25.00"));
+
+		transactionService.transfer(9L, 10L, new BigDecimal("125.00"));
+		assertThrows(InsufficientBalanceException.class,
+				() -> transactionService.transfer(9L, 10L, new BigDecimal("0.01")));
+
+		assertEquals(0, accountServer.adjustCalls());
+		assertEquals(0, accountServer.multiAdjustCalls());
+		assertEquals(3, dispatcher.dispatchPending());
+		assertEquals(new BigDecimal("0.00"), accountServer.balance(9L));
+		assertEquals(new BigDecimal("130.00"), accountServer.balance(10L));
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
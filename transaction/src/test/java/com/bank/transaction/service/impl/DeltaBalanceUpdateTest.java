@@ -0,0 +1,94 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransferDTO;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+import com.bank.transaction.repositories.TransactionRepository;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.support.StubAccountServer;
+
+@SpringBootTest(properties = "account-service.delta-updates=true")
+class DeltaBalanceUpdateTest {
+
+	private static final StubAccountServer accountServer = startStub();
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		accountServer.putAccount(7L, new BigDecimal("100.00"));
+		accountServer.resetCounters();
+		transactionRepository.deleteAll();
+	}
+
+	@Test
+	void deposit_UsesSingleRemoteCall() {
+		TransactionDTO result = transactionService.deposit(7L, new BigDecimal("25.00"));
+
+		assertEquals(Money.of(new BigDecimal("125.00")), result.getBalanceAfterTransaction());
+		assertEquals(new BigDecimal("125.00"), accountServer.balance(7L));
+		assertEquals(1, accountServer.adjustCalls());
+		assertEquals(0, accountServer.getCalls());
+		assertEquals(0, accountServer.updateCalls());
+	}
+
+	@Test
+	void withdraw_Overdraft_RejectedByAccountService() {
+		assertThrows(InsufficientBalanceException.class,
+				() -> transactionService.withdraw(7L, new BigDecimal("150.00")));
+
+		assertEquals(new BigDecimal("100.00"), accountServer.balance(7L));
+		assertEquals(1, accountServer.adjustCalls());
+		assertEquals(0, transactionRepository.count());
+	}
+
+	@Test
+	void transfer_NeitherReadsNorLocksBeforeItsSingleCall() {
+		accountServer.putAccount(8L, BigDecimal.ZERO);
+
+		TransferDTO result = transactionService.transfer(7L, 8L, new BigDecimal("40.00"));
+
+		assertEquals(Money.of(new BigDecimal("60.00")), result.getDebit().getBalanceAfterTransaction());
+		assertEquals(Money.of(new BigDecimal("40.00")), result.getCredit().getBalanceAfterTransaction());
+		assertEquals(1, accountServer.multiAdjustCalls());
+		assertEquals(0, accountServer.getCalls());
+		assertEquals(0, accountServer.adjustCalls());
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.entities.IdempotencyRecord;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.exceptions.IdempotencyKeyReusedException;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+import com.bank.transaction.repositories.IdempotencyRecordRepository;
+import com.bank.transaction.repositories.TransactionRepository;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.support.StubAccountServer;
+
+@SpringBootTest
+class IdempotencyStoreTest {
+
+	private static final StubAccountServer accountServer = startStub();
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		accountServer.putAccount(11L, new BigDecimal("100.00"));
+		accountServer.resetCounters();
+		transactionRepository.deleteAll();
+	}
+
+	@Test
+	void replay_ReturnsOriginalResultWithoutRemoteCallsOrInserts() {
+		TransactionDTO first = transactionService.deposit(11L, new BigDecimal("25.00"), "replay-1");
+		int remoteCalls = accountServer.getCalls() + accountServer.updateCalls();
+
+		TransactionDTO replayed = transactionService.deposit(11L, new BigDecimal("25"), "replay-1");
+
+		assertEquals(first.getId(), replayed.getId());
+		assertEquals(first.getBalanceAfterTransaction(), replayed.getBalanceAfterTransaction());
+		assertEquals(first.getTimestamp(), replayed.getTimestamp());
+		assertEquals(remoteCalls, accountServer.getCalls() + accountServer.updateCalls());
+		assertEquals(1, transactionRepository.count());
+		assertEquals(0, new BigDecimal("125.00").compareTo(accountServer.balance(11L)));
+	}
+
+	@Test
+	void reusedKey_ForDifferentRequest_IsRejected() {
+		transactionService.deposit(11L, new BigDecimal("25.00"), "reused-1");
+
+		assertThrows(IdempotencyKeyReusedException.class,
+				() -> transactionService.withdraw(11L, new BigDecimal("25.00"), "reused-1"));
+		assertThrows(IdempotencyKeyReusedException.class,
+				() -> transactionService.deposit(11L, new BigDecimal("30.00"), "reused-1"));
+		assertEquals(1, transactionRepository.count());
+	}
+
+	@Test
+	void failedOperation_IsNotRemembered() {
+		assertThrows(InsufficientBalanceException.class,
+				() -> transactionService.withdraw(11L, new BigDecimal("150.00"), "failed-1"));
+		accountServer.putAccount(11L, new BigDecimal("200.00"));
+
+		TransactionDTO retried = transactionService.withdraw(11L, new BigDecimal("150.00"), "failed-1");
+
+		assertEquals(Money.of(new BigDecimal("50.00")), retried.getBalanceAfterTransaction());
+		assertEquals(1, transactionRepository.count());
+	}
+
+	@Test
+	void concurrentRetries_ExecuteOnce() throws Exception {
+		accountServer.setLatencyMillis(50);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<TransactionDTO>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> transactionService.deposit(11L, new BigDecimal("10.00"), "burst-1")));
+			}
+			Long id = results.get(0).get().getId();
+			for (Future<TransactionDTO> result : results) {
+				assertEquals(id, result.get().getId());
+			}
+		} finally {
+			executor.shutdown();
+			accountServer.setLatencyMillis(0);
+		}
+
+		assertEquals(1, transactionRepository.count());
+		assertEquals(0, new BigDecimal("110.00").compareTo(accountServer.balance(11L)));
+	}
+
+	@Test
+	void purge_RemovesOnlyExpiredRecords() {
+		LocalDateTime now = LocalDateTime.now();
+		idempotencyRecordRepository.save(IdempotencyRecord.claim("expired-1", 11L, TransactionType.DEPOSIT,
+				BigDecimal.ONE, now.minusMinutes(1)));
+		idempotencyRecordRepository.save(IdempotencyRecord.claim("live-1", 11L, TransactionType.DEPOSIT,
+				BigDecimal.ONE, now.plusMinutes(1)));
+
+		idempotencyStore.purgeExpired();
+
+		assertEquals(false, idempotencyRecordRepository.existsById("expired-1"));
+		assertEquals(true, idempotencyRecordRepository.existsById("live-1"));
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction.entities.BatchOperationRequest;
+import com.bank.transaction.entities.BatchTransactionResponse;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.entities.TransferDTO;
+import com.bank.transaction.exceptions.AccountNotFoundException;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+import com.bank.transaction.ledger.Ledger;
+import com.bank.transaction.repositories.TransactionRepository;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.support.StubAccountServer;
+
+// Ledger balances outlive each test, so every test uses accounts of its own. The write-behind writer is on to
+// check that ledger postings bypass it
+@SpringBootTest(properties = {
+		"transaction.ledger.enabled=true",
+		"transaction.ledger.snapshot-interval-ms=0",
+		"transaction.write-behind.enabled=true" })
+class LedgerModeTest {
+
+	private static final StubAccountServer accountServer = startStub();
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private Ledger ledger;
+
+	@DynamicPropertySource
+	static void ledgerSettings(DynamicPropertyRegistry registry) throws IOException {
+		registry.add("account-service.url", accountServer::url);
+		String directory = Files.createTempDirectory("transaction-ledger").toString();
+		registry.add("transaction.ledger.directory", () -> directory);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		accountServer.resetCounters();
+		transactionRepository.deleteAll();
+	}
+
+	@Test
+	void withdrawals_AreCheckedAgainstTheLedgerAfterOneRead() {
+		accountServer.putAccount(41L, new BigDecimal("100.00"));
+
+		transactionService.deposit(41L, new BigDecimal("25.00"));
+		TransactionDTO result = transactionService.withdraw(41L, new BigDecimal("120.00"));
+		assertThrows(InsufficientBalanceException.class,
+				() -> transactionService.withdraw(41L, new BigDecimal("5.01")));
+
+		assertEquals(Money.of(new BigDecimal("5.00")), result.getBalanceAfterTransaction());
+		assertEquals(Money.of(new BigDecimal("5.00")), ledger.balance(41L));
+		assertEquals(1, accountServer.getCalls());
+		assertEquals(0, accountServer.updateCalls());
+		assertEquals(0, accountServer.adjustCalls());
+		assertEquals(2, transactionRepository.count());
+	}
+
+	@Test
+	void unknownAccount_NeverEntersTheLedger() {
+		assertThrows(AccountNotFoundException.class,
+				() -> transactionService.deposit(404L, new BigDecimal("1.00")));
+
+		assertNull(ledger.balance(404L));
+		assertEquals(0, transactionRepository.count());
+	}
+
+	@Test
+	void transfer_MovesLedgerBalancesWithoutAdjustingRemotely() {
+		accountServer.putAccount(42L, new BigDecimal("50.00"));
+		accountServer.putAccount(43L, BigDecimal.ZERO);
+
+		TransferDTO result = transactionService.transfer(42L, 43L, new BigDecimal("30.00"));
+		assertThrows(InsufficientBalanceException.class,
+				() -> transactionService.transfer(42L, 43L, new BigDecimal("20.01")));
+
+		assertEquals(Money.of(new BigDecimal("20.00")), result.getDebit().getBalanceAfterTransaction());
+		assertEquals(Money.of(new BigDecimal("30.00")), result.getCredit().getBalanceAfterTransaction());
+		assertEquals(0, accountServer.multiAdjustCalls());
+		assertEquals(2, accountServer.getCalls());
+		assertEquals(2, transactionRepository.count());
+	}
+
+	@Test
+	void batch_RejectsOnlyTheWithdrawalsThatWouldOverdraw() {
+		accountServer.putAccount(44L, new BigDecimal("10.00"));
+
+		BatchTransactionResponse response = transactionService.processBatch(List.of(
+				operation(44L, TransactionType.WITHDRAWAL, "15.00"),
+				operation(44L, TransactionType.DEPOSIT, "10.00"),
+				operation(44L, TransactionType.WITHDRAWAL, "15.00")));
+
+		assertEquals(2, response.getSucceeded());
+		assertEquals("INSUFFICIENT_BALANCE", response.getResults().get(0).getError());
+		assertEquals(Money.of(new BigDecimal("5.00")),
+				response.getResults().get(2).getTransaction().getBalanceAfterTransaction());
+		assertEquals(Money.of(new BigDecimal("5.00")), ledger.balance(44L));
+		assertEquals(1, accountServer.getCalls());
+	}
+
+	@Test
+	void rolledBackTransaction_LeavesTheLedgerBalanceUnchanged() {
+		accountServer.putAccount(45L, new BigDecimal("100.00"));
+		transactionService.deposit(45L, new BigDecimal("1.00"));
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			transactionService.withdraw(45L, new BigDecimal("101.00"));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(Money.of(new BigDecimal("101.00")), ledger.balance(45L));
+		assertEquals(1, transactionRepository.count());
+	}
+
+	private static BatchOperationRequest operation(Long accountId, TransactionType type, String amount) {
+		BatchOperationRequest operation = new BatchOperationRequest();
+		operation.setAccountId(accountId);
+		operation.setType(type);
+		operation.setAmount(new BigDecimal(amount));
+		return operation;
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
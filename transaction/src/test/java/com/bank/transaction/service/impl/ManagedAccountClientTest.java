@@ -0,0 +1,180 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bank.transaction.entities.AccountDTO;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.UpdateBalanceRequest;
+import com.bank.transaction.exceptions.AccountServiceUnavailableException;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ManagedAccountClientTest {
+
+	private AccountClient feignClient;
+	private ManagedAccountClient accountClient;
+
+	@BeforeEach
+	void setUp() {
+		feignClient = mock(AccountClient.class);
+		accountClient = new ManagedAccountClient(feignClient, resilience(), true, 100, 60_000, true, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void getAccount_ServedFromCacheAfterFirstRead() {
+		when(feignClient.getAccount(1L)).thenReturn(account(1L, "100.00"));
+
+		accountClient.getAccount(1L);
+		AccountDTO second = accountClient.getAccount(1L);
+
+		assertEquals(Money.of(new BigDecimal("100.00")), second.getBalance());
+		verify(feignClient, times(1)).getAccount(1L);
+		assertEquals(1, accountClient.cacheStats().hitCount());
+		assertEquals(1, accountClient.cacheStats().missCount());
+	}
+
+	@Test
+	void updateBalance_RefreshesCacheFromResponse() {
+		when(feignClient.getAccount(1L)).thenReturn(account(1L, "100.00"));
+		when(feignClient.updateBalance(eq(1L), any(UpdateBalanceRequest.class))).thenReturn(account(1L, "150.00"));
+
+		accountClient.getAccount(1L);
+		accountClient.updateBalance(1L, new UpdateBalanceRequest(Money.of(new BigDecimal("150.00"))));
+
+		assertEquals(Money.of(new BigDecimal("150.00")), accountClient.getAccount(1L).getBalance());
+		verify(feignClient, times(1)).getAccount(1L);
+	}
+
+	@Test
+	void failedUpdate_InvalidatesCachedAccount() {
+		when(feignClient.getAccount(1L)).thenReturn(account(1L, "100.00"));
+		when(feignClient.updateBalance(eq(1L), any(UpdateBalanceRequest.class))).thenThrow(FeignException.Conflict.class);
+
+		accountClient.getAccount(1L);
+		assertThrows(FeignException.class,
+				() -> accountClient.updateBalance(1L, new UpdateBalanceRequest(Money.of(new BigDecimal("150.00")))));
+		accountClient.getAccount(1L);
+
+		verify(feignClient, times(2)).getAccount(1L);
+	}
+
+	@Test
+	void disabledCache_AlwaysCallsAccountService() {
+		ManagedAccountClient uncached = new ManagedAccountClient(feignClient, resilience(), false, 100, 60_000, true, new SimpleMeterRegistry());
+		when(feignClient.getAccount(1L)).thenReturn(account(1L, "100.00"));
+
+		uncached.getAccount(1L);
+		uncached.getAccount(1L);
+
+		verify(feignClient, times(2)).getAccount(1L);
+	}
+
+	@Test
+	void lookupAfterWrite_DoesNotJoinEarlierLookup() throws Exception {
+		ManagedAccountClient uncached = new ManagedAccountClient(feignClient, resilience(), false, 100, 60_000, true, new SimpleMeterRegistry());
+		CountDownLatch firstLookupStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirstLookup = new CountDownLatch(1);
+		when(feignClient.getAccount(1L))
+				.thenAnswer(invocation -> {
+					firstLookupStarted.countDown();
+					releaseFirstLookup.await();
+					return account(1L, "100.00");
+				})
+				.thenReturn(account(1L, "150.00"));
+		when(feignClient.updateBalance(eq(1L), any(UpdateBalanceRequest.class))).thenReturn(account(1L, "150.00"));
+
+		CompletableFuture<AccountDTO> firstLookup = CompletableFuture.supplyAsync(() -> uncached.getAccount(1L));
+		firstLookupStarted.await();
+		uncached.updateBalance(1L, new UpdateBalanceRequest(Money.of(new BigDecimal("150.00"))));
+		AccountDTO afterWrite = uncached.getAccount(1L);
+		releaseFirstLookup.countDown();
+
+		assertEquals(Money.of(new BigDecimal("150.00")), afterWrite.getBalance());
+		assertEquals(Money.of(new BigDecimal("100.00")), firstLookup.get().getBalance());
+		verify(feignClient, times(2)).getAccount(1L);
+		assertEquals(0, uncached.coalescedReads());
+	}
+
+	@Test
+	void lookupOverlappingAWrite_DoesNotCacheItsStaleBalance() throws Exception {
+		CountDownLatch lookupStarted = new CountDownLatch(1);
+		CountDownLatch releaseLookup = new CountDownLatch(1);
+		when(feignClient.getAccount(1L)).thenAnswer(invocation -> {
+			lookupStarted.countDown();
+			releaseLookup.await();
+			return account(1L, "100.00");
+		});
+		when(feignClient.updateBalance(eq(1L), any(UpdateBalanceRequest.class))).thenReturn(account(1L, "150.00"));
+
+		CompletableFuture<AccountDTO> lookup = CompletableFuture.supplyAsync(() -> accountClient.getAccount(1L));
+		lookupStarted.await();
+		accountClient.updateBalance(1L, new UpdateBalanceRequest(Money.of(new BigDecimal("150.00"))));
+		releaseLookup.countDown();
+
+		assertEquals(Money.of(new BigDecimal("100.00")), lookup.get().getBalance());
+		assertEquals(Money.of(new BigDecimal("150.00")), accountClient.getAccount(1L).getBalance());
+		verify(feignClient, times(1)).getAccount(1L);
+	}
+
+	@Test
+	void serverErrors_OpenCircuitAndFailFast() {
+		when(feignClient.getAccount(1L)).thenThrow(failure(503));
+
+		for (int i = 0; i < 4; i++) {
+			assertThrows(FeignException.class, () -> accountClient.getAccount(1L));
+		}
+		assertThrows(AccountServiceUnavailableException.class, () -> accountClient.getAccount(1L));
+
+		verify(feignClient, times(4)).getAccount(1L);
+	}
+
+	@Test
+	void clientErrors_DoNotOpenCircuit() {
+		when(feignClient.getAccount(1L)).thenThrow(failure(404));
+
+		for (int i = 0; i < 6; i++) {
+			assertThrows(FeignException.NotFound.class, () -> accountClient.getAccount(1L));
+		}
+
+		verify(feignClient, times(6)).getAccount(1L);
+	}
+
+	private static AccountServiceResilience resilience() {
+		return new AccountServiceResilience(4, 0, 50, 60_000, 100, 4, 4, 60_000, new SimpleMeterRegistry());
+	}
+
+	private static FeignException failure(int status) {
+		Request request = Request.create(Request.HttpMethod.GET, "/api/accounts/1", Map.of(), null,
+				StandardCharsets.UTF_8, null);
+		return FeignException.errorStatus("AccountClient#getAccount(Long)", feign.Response.builder()
+				.status(status)
+				.request(request)
+				.headers(Map.of())
+				.build());
+	}
+
+	private static AccountDTO account(Long id, String balance) {
+		AccountDTO account = new AccountDTO();
+		account.setId(id);
+		account.setBalance(Money.of(new BigDecimal(balance)));
+		return account;
+	}
+}
@@ -0,0 +1,86 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.repositories.TransactionRepository;
+import com.bank.transaction.support.StubAccountServer;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "account-service.delta-updates=true")
+@ActiveProfiles("reactive")
+class ReactiveTransactionServiceImplTest {
+
+	private static final StubAccountServer accountServer = startStub();
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		transactionRepository.deleteAll();
+		accountServer.putAccount(3L, new BigDecimal("100.00"));
+		accountServer.resetCounters();
+	}
+
+	@Test
+	void depositThenHistory_ThroughReactiveEndpoints() {
+		ResponseEntity<TransactionDTO> deposit = restTemplate.postForEntity(
+				"/api/reactive/transactions/accounts/3/deposit", Map.of("amount", 40), TransactionDTO.class);
+		ResponseEntity<TransactionDTO[]> history = restTemplate.getForEntity(
+				"/api/reactive/transactions/accounts/3", TransactionDTO[].class);
+
+		assertEquals(HttpStatus.OK, deposit.getStatusCode());
+		assertEquals(Money.of(new BigDecimal("140.00")), deposit.getBody().getBalanceAfterTransaction());
+		assertEquals(1, accountServer.adjustCalls());
+		assertEquals(List.of(deposit.getBody().getId()), List.of(history.getBody()[0].getId()));
+	}
+
+	@Test
+	void overdraft_MapsToUnprocessableEntity() {
+		ResponseEntity<String> response = restTemplate.postForEntity(
+				"/api/reactive/transactions/accounts/3/withdraw", Map.of("amount", 500), String.class);
+
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+		assertEquals(0, transactionRepository.count());
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction.entities.BatchOperationRequest;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.support.StubAccountServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// The cache outlives each test, so every test uses accounts of its own
+@SpringBootTest(properties = "transaction.recent-cache.enabled=true")
+class RecentTransactionsCacheTest {
+
+	private static final StubAccountServer accountServer = startStub();
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@Test
+	void polling_QueriesOnceAndSeesEveryWritePath() {
+		accountServer.putAccount(61L, new BigDecimal("100.00"));
+		transactionService.deposit(61L, new BigDecimal("10.00"));
+		double queriesBefore = databaseReads();
+
+		for (int i = 0; i < 5; i++) {
+			transactionService.getLastTenTransactions(61L);
+		}
+		TransactionDTO withdrawal = transactionService.withdraw(61L, new BigDecimal("5.00"));
+		transactionService.processBatch(List.of(operation(61L, "1.00")));
+		List<TransactionDTO> latest = transactionService.getLastTenTransactions(61L);
+
+		assertEquals(1, databaseReads() - queriesBefore);
+		assertEquals(3, latest.size());
+		assertEquals(TransactionType.DEPOSIT, latest.get(0).getType());
+		assertEquals(Money.of(new BigDecimal("106.00")), latest.get(0).getBalanceAfterTransaction());
+		assertEquals(withdrawal.getId(), latest.get(1).getId());
+	}
+
+	@Test
+	void rolledBackDeposit_NeverAppears() {
+		accountServer.putAccount(62L, new BigDecimal("100.00"));
+		transactionService.deposit(62L, new BigDecimal("10.00"));
+		transactionService.getLastTenTransactions(62L);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			transactionService.deposit(62L, new BigDecimal("20.00"));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(List.of(Money.of(new BigDecimal("10.00"))), amounts(transactionService.getLastTenTransactions(62L)));
+	}
+
+	@Test
+	void transfer_ReachesBothAccounts() {
+		accountServer.putAccount(63L, new BigDecimal("100.00"));
+		accountServer.putAccount(64L, BigDecimal.ZERO);
+		transactionService.getLastTenTransactions(63L);
+		transactionService.getLastTenTransactions(64L);
+
+		transactionService.transfer(63L, 64L, new BigDecimal("30.00"));
+
+		assertEquals(TransactionType.TRANSFER_OUT, transactionService.getLastTenTransactions(63L).get(0).getType());
+		assertEquals(TransactionType.TRANSFER_IN, transactionService.getLastTenTransactions(64L).get(0).getType());
+	}
+
+	private double databaseReads() {
+		return meterRegistry.get("transaction.recent.reads").tag("source", "database").counter().count();
+	}
+
+	private static List<Money> amounts(List<TransactionDTO> transactions) {
+		List<Money> amounts = new ArrayList<>();
+		for (TransactionDTO transaction : transactions) {
+			amounts.add(transaction.getAmount());
+		}
+		return amounts;
+	}
+
+	private static BatchOperationRequest operation(Long accountId, String amount) {
+		BatchOperationRequest operation = new BatchOperationRequest();
+		operation.setAccountId(accountId);
+		operation.setType(TransactionType.DEPOSIT);
+		operation.setAmount(new BigDecimal(amount));
+		return operation;
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
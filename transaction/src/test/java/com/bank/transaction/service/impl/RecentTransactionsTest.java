@@ -0,0 +1,145 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecentTransactionsTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	private RecentTransactions recentTransactions;
+	private List<Transaction> table;
+	private AtomicInteger queries;
+
+	@BeforeEach
+	void setUp() {
+		recentTransactions = new RecentTransactions(true, 100, 60_000, new SimpleMeterRegistry());
+		table = new ArrayList<>();
+		queries = new AtomicInteger();
+	}
+
+	@Test
+	void repeatedReads_QueryOnce() {
+		table.add(row(1, 0));
+
+		recentTransactions.read(1L, this::latestTen);
+		List<TransactionDTO> second = recentTransactions.read(1L, this::latestTen);
+
+		assertEquals(1, queries.get());
+		assertEquals(List.of(1L), ids(second));
+	}
+
+	@Test
+	void committedInserts_AreMergedNewestFirstAndTrimmed() {
+		for (int i = 1; i <= 10; i++) {
+			table.add(row(i, i));
+		}
+		recentTransactions.read(1L, this::latestTen);
+
+		// Committed out of timestamp order, as concurrent writers may
+		insert(row(12, 12));
+		insert(row(11, 11));
+
+		assertEquals(List.of(12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L), ids(recentTransactions.read(1L, this::latestTen)));
+		assertEquals(1, queries.get());
+	}
+
+	@Test
+	void insertCommittedDuringLoad_KeepsTheLoadOutOfTheCache() {
+		table.add(row(1, 1));
+
+		recentTransactions.read(1L, () -> {
+			List<Transaction> rows = latestTen();
+			insert(row(2, 2));
+			return rows;
+		});
+		List<TransactionDTO> afterInsert = recentTransactions.read(1L, this::latestTen);
+
+		assertEquals(List.of(2L, 1L), ids(afterInsert));
+		assertEquals(2, queries.get());
+	}
+
+	@Test
+	void rolledBackInsert_IsNeverMerged() {
+		table.add(row(1, 1));
+		recentTransactions.read(1L, this::latestTen);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			recentTransactions.recordAfterCommit(List.of(row(2, 2)));
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertEquals(List.of(1L), ids(recentTransactions.read(1L, this::latestTen)));
+	}
+
+	@Test
+	void changesToReturnedRows_DoNotReachTheCache() {
+		table.add(row(1, 1));
+		recentTransactions.read(1L, this::latestTen);
+
+		recentTransactions.read(1L, this::latestTen).get(0).setAmount(Money.ZERO);
+
+		assertEquals(Money.of(new BigDecimal("1.00")), recentTransactions.read(1L, this::latestTen).get(0).getAmount());
+	}
+
+	@Test
+	void disabledCache_AlwaysQueries() {
+		RecentTransactions disabled = new RecentTransactions(false, 100, 60_000, new SimpleMeterRegistry());
+		table.add(row(1, 1));
+
+		disabled.read(1L, this::latestTen);
+		disabled.read(1L, this::latestTen);
+
+		assertEquals(2, queries.get());
+	}
+
+	private void insert(Transaction transaction) {
+		table.add(transaction);
+		recentTransactions.recordAfterCommit(List.of(transaction));
+	}
+
+	private List<Transaction> latestTen() {
+		queries.incrementAndGet();
+		List<Transaction> rows = new ArrayList<>(table);
+		rows.sort((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()));
+		return rows.subList(0, Math.min(10, rows.size()));
+	}
+
+	private static Transaction row(long id, int minutes) {
+		Transaction transaction = TransactionServiceImpl.newTransaction(1L, Money.of(new BigDecimal("1.00")),
+				TransactionType.DEPOSIT, Money.of(new BigDecimal(id)));
+		transaction.setId(id);
+		transaction.setTimestamp(START.plusMinutes(minutes));
+		return transaction;
+	}
+
+	private static List<Long> ids(List<TransactionDTO> rows) {
+		List<Long> ids = new ArrayList<>();
+		for (TransactionDTO row : rows) {
+			ids.add(row.getId());
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,147 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.h2.api.Trigger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bank.transaction.entities.AccountDailyActivity;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.repositories.AccountDailyActivityRepository;
+import com.bank.transaction.repositories.TransactionRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+		"transaction.write-behind.enabled=true",
+		"transaction.write-behind.batch-size=32",
+		"transaction.write-behind.max-linger-ms=20" })
+class TransactionBatchWriterTest {
+
+	@Autowired
+	private TransactionBatchWriter transactionBatchWriter;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private AccountDailyActivityRepository activityRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@BeforeEach
+	void setUp() {
+		transactionRepository.deleteAll();
+		activityRepository.deleteAll();
+	}
+
+	@Test
+	void concurrentWrites_AreCoalescedIntoBatches() throws Exception {
+		int writes = 256;
+		long batchesBefore = transactionBatchWriter.batchesWritten();
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		List<Future<Transaction>> results = new ArrayList<>();
+		for (int i = 0; i < writes; i++) {
+			long accountId = i % 8;
+			results.add(executor.submit(() -> transactionBatchWriter.write(deposit(accountId))));
+		}
+
+		Set<Long> ids = new HashSet<>();
+		for (Future<Transaction> result : results) {
+			Transaction saved = result.get();
+			ids.add(saved.getId());
+		}
+		executor.shutdown();
+
+		assertEquals(writes, ids.size());
+		assertEquals(writes, transactionRepository.count());
+		assertEquals(writes, activityRepository.findAll().stream().mapToLong(AccountDailyActivity::getTransactionCount).sum());
+		long batches = transactionBatchWriter.batchesWritten() - batchesBefore;
+		assertTrue(batches < writes, "expected inserts to be grouped, got " + batches + " batches");
+	}
+
+	@Test
+	void groupSizes_ArePublished() throws Exception {
+		DistributionSummary groupSize = meterRegistry.get("transaction.write-behind.group.size").summary();
+		long groupsBefore = groupSize.count();
+		double rowsBefore = groupSize.totalAmount();
+
+		transactionBatchWriter.write(deposit(1L));
+		transactionBatchWriter.write(deposit(2L));
+
+		assertEquals(2, groupSize.count() - groupsBefore);
+		assertEquals(2.0, groupSize.totalAmount() - rowsBefore);
+	}
+
+	@Test
+	void failedGroup_RetriesEachRowAsAFreshInsert() throws Exception {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TRIGGER reject_account BEFORE INSERT ON transaction FOR EACH ROW CALL \""
+					+ RejectAccount.class.getName() + "\"");
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Transaction good = deposit(1L);
+			Future<Transaction> goodResult = executor.submit(() -> transactionBatchWriter.write(good));
+			Future<Transaction> badResult = executor.submit(() -> transactionBatchWriter.write(deposit(RejectAccount.ACCOUNT)));
+
+			assertSame(good, goodResult.get());
+			assertThrows(ExecutionException.class, badResult::get);
+			assertEquals(List.of(good.getId()), transactionRepository.findAll().stream().map(Transaction::getId).toList());
+		} finally {
+			executor.shutdown();
+			try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+				statement.execute("DROP TRIGGER reject_account");
+			}
+		}
+	}
+
+	public static class RejectAccount implements Trigger {
+
+		static final long ACCOUNT = 666L;
+
+		@Override
+		public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+			if (newRow[1] != null && ((Number) newRow[1]).longValue() == ACCOUNT) {
+				throw new SQLException("account " + ACCOUNT + " is rejected");
+			}
+		}
+	}
+
+	private static Transaction deposit(long accountId) {
+		Transaction transaction = new Transaction();
+		transaction.setAccountId(accountId);
+		transaction.setAmount(Money.of(BigDecimal.TEN));
+		transaction.setType(TransactionType.DEPOSIT);
+		transaction.setBalanceAfterTransaction(Money.of(BigDecimal.TEN));
+		return transaction;
+	}
+}
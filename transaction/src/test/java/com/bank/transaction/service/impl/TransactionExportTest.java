@@ -0,0 +1,129 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.archive.TransactionArchiver;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.repositories.TransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "transaction.archive.hot-months=1")
+class TransactionExportTest {
+
+	private static final LocalDateTime ARCHIVED = LocalDateTime.of(2023, 1, 10, 9, 30);
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private TransactionArchiver archiver;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@DynamicPropertySource
+	static void archiveDirectory(DynamicPropertyRegistry registry) throws IOException {
+		Path directory = Files.createTempDirectory("transaction-archive");
+		registry.add("transaction.archive.directory", directory::toString);
+	}
+
+	@BeforeEach
+	void setUp() {
+		transactionRepository.deleteAll();
+	}
+
+	@Test
+	void csvExport_ListsArchivedAndCurrentRowsOldestFirst() {
+		List<Transaction> rows = new ArrayList<>();
+		rows.add(transaction(61L, ARCHIVED.plusDays(1), "20.00"));
+		rows.add(transaction(61L, ARCHIVED, "10.50"));
+		rows.add(transaction(62L, ARCHIVED, "99.00"));
+		transactionRepository.saveAll(rows);
+		archiver.archiveDue();
+		LocalDateTime recent = LocalDateTime.now().minusMinutes(5).withSecond(7).withNano(0);
+		transactionRepository.save(transaction(61L, recent, "5.25"));
+
+		ResponseEntity<String> response = restTemplate.getForEntity(
+				"/api/transactions/accounts/61/export?format=csv", String.class);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertTrue(response.getHeaders().getContentType().toString().startsWith("text/csv"));
+		assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)
+				.contains("account-61-transactions.csv"));
+		String[] lines = response.getBody().split("\n");
+		assertEquals(4, lines.length);
+		assertEquals("id,timestamp,type,amount,balance_after_transaction", lines[0]);
+		assertTrue(lines[1].endsWith(",2023-01-10T09:30:00,DEPOSIT,10.50,100.00"), lines[1]);
+		assertTrue(lines[2].endsWith(",2023-01-11T09:30:00,DEPOSIT,20.00,100.00"), lines[2]);
+		assertTrue(lines[3].endsWith("," + recent + ",DEPOSIT,5.25,100.00"), lines[3]);
+	}
+
+	@Test
+	void ndjsonExport_WritesOneTransactionPerLineWithinTheRange() throws IOException {
+		List<Transaction> rows = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			rows.add(transaction(63L, ARCHIVED.plusHours(i), "1.00"));
+		}
+		transactionRepository.saveAll(rows);
+
+		ResponseEntity<String> response = restTemplate.getForEntity(
+				"/api/transactions/accounts/63/export?format=ndjson&from=2023-01-10T10:00:00&to=2023-01-10T13:00:00",
+				String.class);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertTrue(response.getHeaders().getContentType().toString().startsWith("application/x-ndjson"));
+		String[] lines = response.getBody().split("\n");
+		assertEquals(3, lines.length);
+		for (int i = 0; i < lines.length; i++) {
+			JsonNode row = objectMapper.readTree(lines[i]);
+			assertEquals("2023-01-10T1" + i + ":30:00", row.get("timestamp").asText());
+			assertEquals("DEPOSIT", row.get("type").asText());
+			assertEquals(0, new BigDecimal("1.00").compareTo(row.get("amount").decimalValue()));
+		}
+	}
+
+	@Test
+	void export_RejectsAnInvertedRange() {
+		ResponseEntity<String> response = restTemplate.getForEntity(
+				"/api/transactions/accounts/61/export?from=2024-02-01T00:00:00&to=2024-01-01T00:00:00", String.class);
+
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+	}
+
+	private static Transaction transaction(Long accountId, LocalDateTime timestamp, String amount) {
+		Transaction transaction = new Transaction();
+		transaction.setAccountId(accountId);
+		transaction.setAmount(Money.of(new BigDecimal(amount)));
+		transaction.setBalanceAfterTransaction(Money.of(new BigDecimal("100.00")));
+		transaction.setTimestamp(timestamp);
+		transaction.setType(TransactionType.DEPOSIT);
+		return transaction;
+	}
+}
@@ -0,0 +1,102 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.bank.transaction.datasource.ReadYourWrites;
+import com.bank.transaction.entities.AccountDTO;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.Transaction;
+import com.bank.transaction.exceptions.GlobalExceptionHandler;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+import com.bank.transaction.ledger.Ledger;
+import com.bank.transaction.repositories.TransactionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionMetricsTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Mock
+	private TransactionRepository transactionRepository;
+
+	@Mock
+	private AccountClient accountClient;
+
+	@Spy
+	private AccountLockManager accountLockManager = new AccountLockManager();
+
+	@Mock
+	private TransactionBatchWriter transactionBatchWriter;
+
+	@Spy
+	private TransactionMetrics transactionMetrics = new TransactionMetrics(meterRegistry);
+
+	@Spy
+	private ReadYourWrites readYourWrites = new ReadYourWrites(false, 0);
+
+	@Mock
+	private AccountActivityRecorder activityRecorder;
+
+	@Mock
+	private Ledger ledger;
+
+	@Spy
+	private RecentTransactions recentTransactions = new RecentTransactions(false, 1, 1, new SimpleMeterRegistry());
+
+	@Spy
+	private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+	@InjectMocks
+	private TransactionServiceImpl transactionService;
+
+	@Test
+	void depositAndRejectedWithdrawal_AreTimedPerStageAndTheRejectionIsCounted() {
+		when(accountClient.getAccount(1L)).thenReturn(account("100.00"));
+		when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		transactionService.deposit(1L, new BigDecimal("10.00"));
+		InsufficientBalanceException rejection = assertThrows(InsufficientBalanceException.class,
+				() -> transactionService.withdraw(1L, new BigDecimal("500.00")));
+		new GlobalExceptionHandler(meterRegistry).handleInsufficientBalanceException(rejection,
+				new ServletWebRequest(new MockHttpServletRequest()));
+
+		assertEquals(2, stageCount("account.get"));
+		assertEquals(1, stageCount("account.update-balance"));
+		assertEquals(1, stageCount("repository.save"));
+		assertEquals(0, stageCount("account.adjust-balance"));
+		assertEquals(1, meterRegistry.get("transaction.errors")
+				.tag("error", "INSUFFICIENT_BALANCE")
+				.tag("exception", "InsufficientBalanceException")
+				.counter().count());
+	}
+
+	private long stageCount(String stage) {
+		return meterRegistry.get("transaction.stage").tag("stage", stage).timer().count();
+	}
+
+	private static AccountDTO account(String balance) {
+		AccountDTO account = new AccountDTO();
+		account.setId(1L);
+		account.setBalance(Money.of(new BigDecimal(balance)));
+		return account;
+	}
+}
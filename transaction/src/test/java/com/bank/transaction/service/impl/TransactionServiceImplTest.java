@@ -2,12 +2,16 @@ package com.bank.transaction.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -15,26 +19,40 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.bank.transaction.datasource.ReadYourWrites;
 import com.bank.transaction.entities.AccountDTO;
+import com.bank.transaction.entities.BatchOperationRequest;
+import com.bank.transaction.entities.BatchTransactionResponse;
+import com.bank.transaction.entities.Money;
 import com.bank.transaction.entities.Transaction;
 import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.entities.TransactionPage;
 import com.bank.transaction.entities.TransactionType;
 import com.bank.transaction.entities.UpdateBalanceRequest;
 import com.bank.transaction.exceptions.AccountNotFoundException;
 import com.bank.transaction.exceptions.InsufficientBalanceException;
+import com.bank.transaction.ledger.Ledger;
 import com.bank.transaction.repositories.TransactionRepository;
 
 import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @SpringBootTest
 @ActiveProfiles("test") // Optional: if you have a test profile in your application properties
@@ -48,6 +66,30 @@ public class TransactionServiceImplTest {
     @Mock
     private AccountClient accountClient;
 
+    @Spy
+    private AccountLockManager accountLockManager = new AccountLockManager();
+
+    @Mock
+    private TransactionBatchWriter transactionBatchWriter;
+
+    @Spy
+    private TransactionMetrics transactionMetrics = new TransactionMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private ReadYourWrites readYourWrites = new ReadYourWrites(false, 0);
+
+    @Mock
+    private AccountActivityRecorder activityRecorder;
+
+    @Mock
+    private Ledger ledger;
+
+    @Spy
+    private RecentTransactions recentTransactions = new RecentTransactions(false, 1, 1, new SimpleMeterRegistry());
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
@@ -60,23 +102,23 @@ public class TransactionServiceImplTest {
         testAccount = new AccountDTO();
         testAccount.setId(1L);
         testAccount.setCustomerName("Test Customer");
-        testAccount.setBalance(new BigDecimal("1000.00"));
+        testAccount.setBalance(Money.of(new BigDecimal("1000.00")));
 
         // Setup test transaction
         testTransaction = new Transaction();
         testTransaction.setId(1L);
         testTransaction.setAccountId(1L);
-        testTransaction.setAmount(new BigDecimal("100.00"));
+        testTransaction.setAmount(Money.of(new BigDecimal("100.00")));
         testTransaction.setType(TransactionType.DEPOSIT);
         testTransaction.setTimestamp(LocalDateTime.now());
-        testTransaction.setBalanceAfterTransaction(new BigDecimal("1100.00"));
+        testTransaction.setBalanceAfterTransaction(Money.of(new BigDecimal("1100.00")));
     }
 
     @Test
     void testDeposit_Success() {
         // Arrange
         BigDecimal depositAmount = new BigDecimal("100.00");
-        BigDecimal newBalance = testAccount.getBalance().add(depositAmount);
+        Money newBalance = testAccount.getBalance().plus(Money.of(depositAmount));
         
         when(accountClient.getAccount(1L)).thenReturn(testAccount);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
@@ -145,7 +187,7 @@ public class TransactionServiceImplTest {
         // Arrange
         BigDecimal withdrawAmount = new BigDecimal("100.00");
         testTransaction.setType(TransactionType.WITHDRAWAL);
-        testTransaction.setBalanceAfterTransaction(new BigDecimal("900.00"));
+        testTransaction.setBalanceAfterTransaction(Money.of(new BigDecimal("900.00")));
         
         when(accountClient.getAccount(1L)).thenReturn(testAccount);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
@@ -225,24 +267,149 @@ public class TransactionServiceImplTest {
         verify(transactionRepository, never()).save(any(Transaction.class));
     }
     
+    @Test
+    void testConcurrentDeposits_SameAccount_NoLostUpdates() throws InterruptedException {
+        // Arrange: a stateful account whose balance is only visible through get/update
+        AtomicReference<Money> remoteBalance = new AtomicReference<>(Money.ZERO);
+        when(accountClient.getAccount(1L)).thenAnswer(invocation -> {
+            AccountDTO account = new AccountDTO();
+            account.setId(1L);
+            account.setBalance(remoteBalance.get());
+            Thread.yield();
+            return account;
+        });
+        when(accountClient.updateBalance(eq(1L), any(UpdateBalanceRequest.class))).thenAnswer(invocation -> {
+            remoteBalance.set(invocation.<UpdateBalanceRequest>getArgument(1).getNewBalance());
+            return null;
+        });
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        int deposits = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < deposits; i++) {
+            executor.submit(() -> transactionService.deposit(1L, BigDecimal.ONE));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(0, Money.of(new BigDecimal(deposits)).compareTo(remoteBalance.get()));
+        verify(accountClient, times(deposits)).updateBalance(eq(1L), argThat(request -> request.getNewBalance() != null));
+    }
+    
+    @Test
+    void testProcessBatch_GroupsPerAccountAndRejectsOverdrafts() {
+        // Arrange
+        AccountDTO secondAccount = new AccountDTO();
+        secondAccount.setId(2L);
+        secondAccount.setBalance(Money.of(new BigDecimal("50.00")));
+        when(accountClient.getAccount(1L)).thenReturn(testAccount);
+        when(accountClient.getAccount(2L)).thenReturn(secondAccount);
+        when(transactionRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchOperationRequest> operations = Arrays.asList(
+                operation(1L, TransactionType.DEPOSIT, "100.00"),
+                operation(2L, TransactionType.WITHDRAWAL, "80.00"),
+                operation(1L, TransactionType.WITHDRAWAL, "300.00"),
+                operation(2L, TransactionType.DEPOSIT, "-5.00"));
+
+        // Act
+        BatchTransactionResponse response = transactionService.processBatch(operations);
+
+        // Assert
+        assertEquals(2, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertEquals(Money.of(new BigDecimal("1100.00")), response.getResults().get(0).getTransaction().getBalanceAfterTransaction());
+        assertEquals("INSUFFICIENT_BALANCE", response.getResults().get(1).getError());
+        assertEquals(Money.of(new BigDecimal("800.00")), response.getResults().get(2).getTransaction().getBalanceAfterTransaction());
+        assertEquals("BAD_REQUEST", response.getResults().get(3).getError());
+
+        // One balance update per account with applied operations, one batched insert overall
+        verify(accountClient).updateBalance(eq(1L), argThat(request -> Money.of(new BigDecimal("800.00")).equals(request.getNewBalance())));
+        verify(accountClient, never()).updateBalance(eq(2L), any(UpdateBalanceRequest.class));
+        verify(transactionRepository).saveAll(any());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void testProcessBatch_AccountNotFound_FailsOnlyThatAccount() {
+        // Arrange
+        when(accountClient.getAccount(1L)).thenReturn(testAccount);
+        when(accountClient.getAccount(999L)).thenThrow(FeignException.NotFound.class);
+        when(transactionRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        BatchTransactionResponse response = transactionService.processBatch(Arrays.asList(
+                operation(999L, TransactionType.DEPOSIT, "10.00"),
+                operation(1L, TransactionType.DEPOSIT, "10.00")));
+
+        // Assert
+        assertEquals(1, response.getSucceeded());
+        assertEquals("ACCOUNT_NOT_FOUND", response.getResults().get(0).getError());
+        assertTrue(response.getResults().get(1).isSuccess());
+    }
+
+    private static BatchOperationRequest operation(Long accountId, TransactionType type, String amount) {
+        BatchOperationRequest operation = new BatchOperationRequest();
+        operation.setAccountId(accountId);
+        operation.setType(type);
+        operation.setAmount(new BigDecimal(amount));
+        return operation;
+    }
+    
+    @Test
+    void testGetTransactionHistory_ReturnsCursorWhenMoreRowsExist() {
+        // Arrange
+        Transaction newer = new Transaction();
+        newer.setId(3L);
+        newer.setTimestamp(LocalDateTime.of(2024, 3, 2, 10, 0));
+        Transaction older = new Transaction();
+        older.setId(2L);
+        older.setTimestamp(LocalDateTime.of(2024, 3, 1, 10, 0));
+        Transaction extra = new Transaction();
+        extra.setId(1L);
+        extra.setTimestamp(LocalDateTime.of(2024, 3, 1, 9, 0));
+        when(transactionRepository.findHistory(eq(1L), any(), any(), any())).thenReturn(Arrays.asList(newer, older, extra));
+        when(transactionRepository.findHistoryBefore(eq(1L), any(), eq(older.getTimestamp()), eq(2L), any()))
+                .thenReturn(List.of(extra));
+
+        // Act
+        TransactionPage first = transactionService.getTransactionHistory(1L, null, null, null, 2);
+        TransactionPage second = transactionService.getTransactionHistory(1L, null, null, first.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(2, first.getTransactions().size());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, second.getTransactions().size());
+        assertEquals(1L, second.getTransactions().get(0).getId());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testGetTransactionHistory_InvalidCursor_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getTransactionHistory(1L, null, null, "not-a-cursor", 10));
+    }
+    
     @Test
     void testGetLastTenTransactions_Success() {
         // Arrange
         Transaction transaction1 = new Transaction();
         transaction1.setId(1L);
         transaction1.setAccountId(1L);
-        transaction1.setAmount(new BigDecimal("100.00"));
+        transaction1.setAmount(Money.of(new BigDecimal("100.00")));
         transaction1.setType(TransactionType.DEPOSIT);
         transaction1.setTimestamp(LocalDateTime.now().minusDays(1));
-        transaction1.setBalanceAfterTransaction(new BigDecimal("1100.00"));
+        transaction1.setBalanceAfterTransaction(Money.of(new BigDecimal("1100.00")));
         
         Transaction transaction2 = new Transaction();
         transaction2.setId(2L);
         transaction2.setAccountId(1L);
-        transaction2.setAmount(new BigDecimal("50.00"));
+        transaction2.setAmount(Money.of(new BigDecimal("50.00")));
         transaction2.setType(TransactionType.WITHDRAWAL);
         transaction2.setTimestamp(LocalDateTime.now());
-        transaction2.setBalanceAfterTransaction(new BigDecimal("1050.00"));
+        transaction2.setBalanceAfterTransaction(Money.of(new BigDecimal("1050.00")));
         
         List<Transaction> transactionList = Arrays.asList(transaction2, transaction1); // Newer first
         
@@ -0,0 +1,177 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.entities.BatchOperationRequest;
+import com.bank.transaction.entities.BatchTransactionResponse;
+import com.bank.transaction.entities.Money;
+import com.bank.transaction.entities.TransactionType;
+import com.bank.transaction.entities.TransferDTO;
+import com.bank.transaction.exceptions.AccountNotFoundException;
+import com.bank.transaction.exceptions.InsufficientBalanceException;
+import com.bank.transaction.repositories.TransactionRepository;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.support.StubAccountServer;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class TransferTest {
+
+	private static final StubAccountServer accountServer = startStub();
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		accountServer.putAccount(31L, new BigDecimal("100.00"));
+		accountServer.putAccount(32L, new BigDecimal("20.00"));
+		accountServer.resetCounters();
+		transactionRepository.deleteAll();
+	}
+
+	@Test
+	void transfer_WritesBothLegsWithOneRemoteCall() {
+		TransferDTO result = transactionService.transfer(31L, 32L, new BigDecimal("30.00"));
+
+		assertEquals(TransactionType.TRANSFER_OUT, result.getDebit().getType());
+		assertEquals(Money.of(new BigDecimal("70.00")), result.getDebit().getBalanceAfterTransaction());
+		assertEquals(TransactionType.TRANSFER_IN, result.getCredit().getType());
+		assertEquals(Money.of(new BigDecimal("50.00")), result.getCredit().getBalanceAfterTransaction());
+		assertEquals(new BigDecimal("70.00"), accountServer.balance(31L));
+		assertEquals(new BigDecimal("50.00"), accountServer.balance(32L));
+		assertEquals(1, accountServer.multiAdjustCalls());
+		assertEquals(0, accountServer.getCalls());
+		assertEquals(0, accountServer.updateCalls());
+		assertEquals(2, transactionRepository.count());
+	}
+
+	@Test
+	void transfer_Overdraft_ChangesNeitherAccount() {
+		assertThrows(InsufficientBalanceException.class,
+				() -> transactionService.transfer(31L, 32L, new BigDecimal("100.01")));
+
+		assertEquals(new BigDecimal("100.00"), accountServer.balance(31L));
+		assertEquals(new BigDecimal("20.00"), accountServer.balance(32L));
+		assertEquals(0, transactionRepository.count());
+	}
+
+	@Test
+	void transfer_UnknownAccount_ChangesNeitherAccount() {
+		assertThrows(AccountNotFoundException.class,
+				() -> transactionService.transfer(31L, 404L, new BigDecimal("10.00")));
+
+		assertEquals(new BigDecimal("100.00"), accountServer.balance(31L));
+		assertEquals(0, transactionRepository.count());
+	}
+
+	@Test
+	void transfer_ToTheSameAccount_IsRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> transactionService.transfer(31L, 31L, new BigDecimal("10.00")));
+
+		assertEquals(0, accountServer.multiAdjustCalls());
+	}
+
+	@Test
+	void opposingTransfersAndDeposits_NeitherDeadlockNorLoseUpdates() throws Exception {
+		int rounds = 30;
+		List<Callable<Object>> tasks = new ArrayList<>();
+		for (int i = 0; i < rounds; i++) {
+			tasks.add(() -> transactionService.transfer(31L, 32L, BigDecimal.ONE));
+			tasks.add(() -> transactionService.transfer(32L, 31L, BigDecimal.ONE));
+			// Read-modify-write under the account lock: would overwrite a concurrent transfer's change if unordered
+			tasks.add(() -> transactionService.deposit(31L, BigDecimal.ONE));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			for (Future<Object> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS), "Transfers did not finish");
+
+		// Deposits write back the balance the stub then parses as a double, so compare values rather than scales
+		assertEquals(0, new BigDecimal("130.00").compareTo(accountServer.balance(31L)));
+		assertEquals(0, new BigDecimal("20.00").compareTo(accountServer.balance(32L)));
+		assertEquals(5L * rounds, transactionRepository.count());
+	}
+
+	@Test
+	void transferEndpoint_ValidatesAndReturnsBothLegs() {
+		ResponseEntity<TransferDTO> response = restTemplate.postForEntity("/api/transactions/transfers",
+				Map.of("fromAccountId", 31, "toAccountId", 32, "amount", 12.5), TransferDTO.class);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(31L, transactionRepository.findById(response.getBody().getDebit().getId()).get().getAccountId());
+		assertEquals(Money.of(new BigDecimal("32.50")), response.getBody().getCredit().getBalanceAfterTransaction());
+
+		ResponseEntity<String> missingDestination = restTemplate.postForEntity("/api/transactions/transfers",
+				Map.of("fromAccountId", 31, "amount", 12.5), String.class);
+		assertEquals(HttpStatus.BAD_REQUEST, missingDestination.getStatusCode());
+	}
+
+	@Test
+	void batch_RejectsTransferLegs() {
+		BatchOperationRequest operation = new BatchOperationRequest();
+		operation.setAccountId(31L);
+		operation.setType(TransactionType.TRANSFER_IN);
+		operation.setAmount(BigDecimal.TEN);
+
+		BatchTransactionResponse response = transactionService.processBatch(List.of(operation));
+
+		assertEquals(1, response.getFailed());
+		assertEquals("BAD_REQUEST", response.getResults().get(0).getError());
+		assertEquals(new BigDecimal("100.00"), accountServer.balance(31L));
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.bank.transaction.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bank.transaction.entities.TransactionDTO;
+import com.bank.transaction.service.TransactionService;
+import com.bank.transaction.support.StubAccountServer;
+
+// Twice as many concurrent requests as pooled connections, half of them idempotent so they wait inside a transaction
+@SpringBootTest(properties = {
+		"transaction.write-behind.enabled=true",
+		"transaction.write-behind.max-linger-ms=50",
+		"spring.datasource.hikari.maximum-pool-size=4",
+		"spring.datasource.hikari.connection-timeout=1000" })
+class WriteBehindConnectionPoolTest {
+
+	private static final int REQUESTS = 8;
+	private static final StubAccountServer accountServer = startStub();
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@DynamicPropertySource
+	static void accountServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("account-service.url", accountServer::url);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		accountServer.close();
+	}
+
+	@Test
+	void concurrentDeposits_DoNotExhaustThePool() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+		List<Future<TransactionDTO>> results = new ArrayList<>();
+		for (long i = 0; i < REQUESTS; i++) {
+			long accountId = 91 + i;
+			accountServer.putAccount(accountId, new BigDecimal("100.00"));
+			if (i % 2 == 0) {
+				results.add(executor.submit(() -> transactionService.deposit(accountId, new BigDecimal("10.00"))));
+			} else {
+				results.add(executor.submit(() -> transactionService.deposit(accountId, new BigDecimal("10.00"),
+						"pool-" + accountId)));
+			}
+		}
+
+		for (Future<TransactionDTO> result : results) {
+			result.get();
+		}
+		executor.shutdown();
+
+		for (long accountId = 91; accountId < 91 + REQUESTS; accountId++) {
+			assertEquals(1, transactionService.getLastTenTransactions(accountId).size());
+			assertEquals(0, new BigDecimal("110.00").compareTo(accountServer.balance(accountId)));
+		}
+	}
+
+	private static StubAccountServer startStub() {
+		try {
+			return new StubAccountServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package com.bank.transaction.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Minimal in-process stand-in for the account service, implementing just the
+ * endpoints {@code AccountClient} calls. Counts requests per endpoint so tests
+ * can assert how many remote round trips an operation costs, honours the
+ * {@code Idempotency-Key} header on adjustments, and can be told to fail
+ * adjustments to exercise retries. Balance changes are applied one at a time,
+ * so a multi-account adjustment is all-or-nothing as the real service's is.
+ */
+public class StubAccountServer implements AutoCloseable {
+
+	private static final Pattern ACCOUNT_PATH = Pattern.compile("/api/accounts/(\\d+)(/balance(/adjustments)?)?");
+	private static final String MULTI_ADJUSTMENT_PATH = "/api/accounts/balance-adjustments";
+
+	static {
+		// The JDK server closes keep-alive connections beyond 200 idle ones, which a pooled client then reuses and
+		// sees fail; load tests keep more than that open. Read once, when the first server in the JVM starts.
+		System.setProperty("sun.net.httpserver.maxIdleConnections", "1000");
+	}
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<Long, BigDecimal> balances = new ConcurrentHashMap<>();
+	private final AtomicInteger getCalls = new AtomicInteger();
+	private final AtomicInteger updateCalls = new AtomicInteger();
+	private final AtomicInteger adjustCalls = new AtomicInteger();
+	private final AtomicInteger multiAdjustCalls = new AtomicInteger();
+	private final Map<String, BigDecimal> appliedAdjustments = new ConcurrentHashMap<>();
+	private final AtomicInteger adjustmentsToReject = new AtomicInteger();
+	private final AtomicInteger adjustmentResponsesToDrop = new AtomicInteger();
+	private final AtomicInteger received = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final HttpServer server;
+	private volatile long latencyMillis;
+
+	public StubAccountServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext("/api/accounts", this::handle);
+		server.start();
+	}
+
+	public String url() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	public void putAccount(Long id, BigDecimal balance) {
+		balances.put(id, balance);
+	}
+
+	public BigDecimal balance(Long id) {
+		return balances.get(id);
+	}
+
+	public void setLatencyMillis(long latencyMillis) {
+		this.latencyMillis = latencyMillis;
+	}
+
+	/** The next {@code count} adjustments fail with 503 without being applied. */
+	public void rejectNextAdjustments(int count) {
+		adjustmentsToReject.set(count);
+	}
+
+	/** The next {@code count} adjustments are applied, but the caller gets a 503 as if the response was lost. */
+	public void dropNextAdjustmentResponses(int count) {
+		adjustmentResponsesToDrop.set(count);
+	}
+
+	public int getCalls() {
+		return getCalls.get();
+	}
+
+	public int updateCalls() {
+		return updateCalls.get();
+	}
+
+	public int adjustCalls() {
+		return adjustCalls.get();
+	}
+
+	public int multiAdjustCalls() {
+		return multiAdjustCalls.get();
+	}
+
+	/** Highest number of requests the stub was handling at the same time. */
+	public int maxInFlight() {
+		return maxInFlight.get();
+	}
+
+	/** Requests that reached the stub, counted on arrival rather than after the injected latency. */
+	public int receivedCalls() {
+		return received.get();
+	}
+
+	public void resetCounters() {
+		getCalls.set(0);
+		updateCalls.set(0);
+		adjustCalls.set(0);
+		multiAdjustCalls.set(0);
+		adjustmentsToReject.set(0);
+		adjustmentResponsesToDrop.set(0);
+		received.set(0);
+		maxInFlight.set(0);
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		received.incrementAndGet();
+		maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try {
+			pause();
+			if (MULTI_ADJUSTMENT_PATH.equals(exchange.getRequestURI().getPath())
+					&& "POST".equals(exchange.getRequestMethod())) {
+				multiAdjustCalls.incrementAndGet();
+				adjustAll(exchange, readBody(exchange));
+				return;
+			}
+			Matcher matcher = ACCOUNT_PATH.matcher(exchange.getRequestURI().getPath());
+			if (!matcher.matches()) {
+				respond(exchange, 404, null);
+				return;
+			}
+			Long id = Long.valueOf(matcher.group(1));
+			String method = exchange.getRequestMethod();
+			if (matcher.group(2) == null && "GET".equals(method)) {
+				getCalls.incrementAndGet();
+				respondAccount(exchange, id, balances.get(id));
+			} else if (matcher.group(3) == null && "PUT".equals(method)) {
+				updateCalls.incrementAndGet();
+				BigDecimal newBalance = readBody(exchange).get("newBalance").decimalValue();
+				BigDecimal updated;
+				synchronized (balances) {
+					updated = balances.computeIfPresent(id, (key, current) -> newBalance);
+				}
+				respondAccount(exchange, id, updated);
+			} else if (matcher.group(3) != null && "POST".equals(method)) {
+				adjustCalls.incrementAndGet();
+				adjust(exchange, id, exchange.getRequestHeaders().getFirst("Idempotency-Key"),
+						readBody(exchange).get("amount").decimalValue());
+			} else {
+				respond(exchange, 405, null);
+			}
+		} finally {
+			inFlight.decrementAndGet();
+			exchange.close();
+		}
+	}
+
+	private void adjust(HttpExchange exchange, Long id, String idempotencyKey, BigDecimal amount) throws IOException {
+		if (takeOne(adjustmentsToReject)) {
+			respond(exchange, 503, null);
+			return;
+		}
+		if (idempotencyKey != null && appliedAdjustments.containsKey(idempotencyKey)) {
+			respondAccount(exchange, id, balances.get(id));
+			return;
+		}
+		boolean[] overdrawn = new boolean[1];
+		BigDecimal updated;
+		synchronized (balances) {
+			updated = balances.computeIfPresent(id, (key, current) -> {
+				BigDecimal next = current.add(amount);
+				if (next.signum() < 0) {
+					overdrawn[0] = true;
+					return current;
+				}
+				return next;
+			});
+		}
+		if (overdrawn[0]) {
+			respond(exchange, 422, null);
+			return;
+		}
+		if (idempotencyKey != null && updated != null) {
+			appliedAdjustments.put(idempotencyKey, amount);
+		}
+		if (takeOne(adjustmentResponsesToDrop)) {
+			respond(exchange, 503, null);
+		} else {
+			respondAccount(exchange, id, updated);
+		}
+	}
+
+	private void adjustAll(HttpExchange exchange, JsonNode adjustments) throws IOException {
+		Map<Long, BigDecimal> updated = new HashMap<>();
+		synchronized (balances) {
+			for (JsonNode adjustment : adjustments) {
+				Long id = adjustment.get("accountId").asLong();
+				BigDecimal current = updated.containsKey(id) ? updated.get(id) : balances.get(id);
+				if (current == null) {
+					respond(exchange, 404, null);
+					return;
+				}
+				BigDecimal next = current.add(adjustment.get("amount").decimalValue());
+				if (next.signum() < 0) {
+					respond(exchange, 422, null);
+					return;
+				}
+				updated.put(id, next);
+			}
+			balances.putAll(updated);
+		}
+		List<Map<String, Object>> accounts = new ArrayList<>();
+		for (JsonNode adjustment : adjustments) {
+			Long id = adjustment.get("accountId").asLong();
+			accounts.add(account(id, updated.get(id)));
+		}
+		respond(exchange, 200, objectMapper.writeValueAsBytes(accounts));
+	}
+
+	private void respondAccount(HttpExchange exchange, Long id, BigDecimal balance) throws IOException {
+		if (balance == null) {
+			respond(exchange, 404, null);
+			return;
+		}
+		respond(exchange, 200, objectMapper.writeValueAsBytes(account(id, balance)));
+	}
+
+	private static Map<String, Object> account(Long id, BigDecimal balance) {
+		return Map.of("id", id, "customerName", "Customer " + id, "balance", balance);
+	}
+
+	private JsonNode readBody(HttpExchange exchange) throws IOException {
+		return objectMapper.readTree(exchange.getRequestBody());
+	}
+
+	private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+		if (body == null) {
+			exchange.sendResponseHeaders(status, -1);
+			return;
+		}
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private static boolean takeOne(AtomicInteger remaining) {
+		return remaining.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0;
+	}
+
+	private void pause() {
+		long millis = latencyMillis;
+		if (millis > 0) {
+			try {
+				Thread.sleep(millis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}